@@ -0,0 +1,26 @@
+package com.corebank.coreb.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 🔹 Bounded pool for report rendering (report jobs)
+ *    A full queue rejects new jobs instead of piling them up in memory.
+ */
+@Configuration
+public class ReportExecutorConfig {
+
+    @Bean(name = "reportExecutor")
+    public ThreadPoolTaskExecutor reportExecutor(@Value("${report.jobs.threads:2}") int threads,
+                                                 @Value("${report.jobs.queue-capacity:50}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("report-");
+        executor.initialize();
+        return executor;
+    }
+}
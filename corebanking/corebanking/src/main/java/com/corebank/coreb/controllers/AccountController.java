@@ -29,7 +29,7 @@ public class AccountController {
 
         dto.setAccountId(account.getAccountId());
         dto.setAccountType(account.getAccountType());
-        dto.setBalance(account.getBalance());
+        dto.setBalance(accountService.getBalance(account));
         dto.setStatus(account.getStatus());
 
         // ---- Customer ----
@@ -87,23 +87,10 @@ public class AccountController {
             @PathVariable Long id,
             @RequestBody Account accountDetails) {
 
-        Optional<Account> accountOpt = accountService.getAccountById(id);
-
-        if (accountOpt.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-
-        Account account = accountOpt.get();
-        account.setAccountType(accountDetails.getAccountType());
-        account.setBalance(accountDetails.getBalance());
-        account.setStatus(accountDetails.getStatus());
-        account.setCustomer(accountDetails.getCustomer());
-        account.setBranch(accountDetails.getBranch());
-        account.setCard(accountDetails.getCard());
-        account.setCreatedAt(accountDetails.getCreatedAt());
-
-        Account updated = accountService.saveAccount(account);
-        return ResponseEntity.ok(mapToDTO(updated));
+        // Balance in the body is ignored: it only changes through deposit / withdraw
+        return accountService.updateAccount(id, accountDetails)
+                .map(updated -> ResponseEntity.ok(mapToDTO(updated)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     // --------------------
@@ -134,6 +121,19 @@ public class AccountController {
         return ResponseEntity.ok(deposit);
     }
 
+    // --------------------
+    // Hot account mode (credits spread over balance buckets)
+    // --------------------
+    @PostMapping("/{id}/hot")
+    public ResponseEntity<AccountDTO> enableHotMode(@PathVariable Long id) {
+        return ResponseEntity.ok(mapToDTO(accountService.setHotMode(id, true)));
+    }
+
+    @DeleteMapping("/{id}/hot")
+    public ResponseEntity<AccountDTO> disableHotMode(@PathVariable Long id) {
+        return ResponseEntity.ok(mapToDTO(accountService.setHotMode(id, false)));
+    }
+
     // --------------------
     // Close account
     // --------------------
@@ -2,15 +2,26 @@ package com.corebank.coreb.controllers;
 
 import com.corebank.coreb.dto.BillingDTO;
 import com.corebank.coreb.dto.BillingResponseDTO;
+import com.corebank.coreb.dto.BillingSimulationDTO;
 import com.corebank.coreb.entity.Billing;
+import com.corebank.coreb.enums.BillingMode;
 import com.corebank.coreb.repository.BillingRepository;
-import com.corebank.coreb.service.BillingService;
+import com.corebank.coreb.service.BillingExecutionService;
+import com.corebank.coreb.service.BillingSimulationService;
 import com.corebank.coreb.service.SystemDateService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -18,7 +29,10 @@ import java.util.stream.Collectors;
 public class BillingController {
 
     @Autowired
-    private BillingService billingService;
+    private BillingExecutionService billingExecutionService;
+
+    @Autowired
+    private BillingSimulationService billingSimulationService;
 
     @Autowired
     private BillingRepository billingRepository;
@@ -26,15 +40,68 @@ public class BillingController {
     @Autowired
     private SystemDateService systemDateService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     /**
      * ✅ Manually trigger billing based on the system date (for Manager/Admin)
+     *    Optional mode overrides billing.mode (JPA / CHUNKED / PARTITIONED / SQL)
      */
     @PostMapping("/generate")
-    public ResponseEntity<BillingResponseDTO> generateBillingNow() {
-        BillingResponseDTO response = billingService.generateBilling();
+    public ResponseEntity<BillingResponseDTO> generateBillingNow(
+            @RequestParam(required = false) BillingMode mode,
+            @RequestParam(defaultValue = "false") boolean summaryOnly) {
+        BillingResponseDTO response = summaryOnly
+                ? billingExecutionService.generateBillingSummary(null, mode)
+                : billingExecutionService.generateBilling(null, mode);
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * ✅ Trigger billing and stream the result as NDJSON
+     *    One BillingDTO per line, written as soon as its chunk is committed,
+     *    followed by a final {"summary": BillingResponseDTO} line
+     */
+    @PostMapping(value = "/generate/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamBilling(
+            @RequestParam(required = false) BillingMode mode) {
+
+        StreamingResponseBody body = out -> {
+            BillingResponseDTO summary = billingExecutionService.generateBilling(null, mode, records -> {
+                try {
+                    for (BillingDTO record : records) {
+                        out.write(objectMapper.writeValueAsBytes(record));
+                        out.write('\n');
+                    }
+                    out.flush();
+                } catch (IOException e) {
+                    // Client went away: chunks already committed stay billed, the rest is left for the next run
+                    throw new UncheckedIOException(e);
+                }
+            });
+            out.write(objectMapper.writeValueAsBytes(Map.of("summary", summary)));
+            out.write('\n');
+            out.flush();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
+    /**
+     * ✅ Dry run: billing totals by branch and status, nothing is written
+     *    Without a date, simulates the next scheduled run (system date + 1)
+     */
+    @GetMapping("/simulate")
+    public ResponseEntity<BillingSimulationDTO> simulateBilling(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        BillingSimulationDTO simulation = (date != null)
+                ? billingSimulationService.simulate(date)
+                : billingSimulationService.simulateNextRun();
+        return ResponseEntity.ok(simulation);
+    }
+
     /**
      * ✅ Get current system billing date
      */
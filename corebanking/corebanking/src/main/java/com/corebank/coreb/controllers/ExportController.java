@@ -0,0 +1,47 @@
+package com.corebank.coreb.controllers;
+
+import com.corebank.coreb.enums.ExportFormat;
+import com.corebank.coreb.service.ExportDataset;
+import com.corebank.coreb.service.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDate;
+
+@RestController
+@RequestMapping("/api/exports")
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    /**
+     * ✅ Download a dataset (repayments / billing / transactions) as CSV or XLSX
+     *    Rows are streamed to the response page by page; from / to are inclusive
+     */
+    @GetMapping("/{dataset}")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "CSV") ExportFormat format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to
+    ) {
+        ExportDataset exportDataset = ExportDataset.fromPath(dataset);
+        if (from != null && to != null && to.isBefore(from)) {
+            throw new RuntimeException("'to' date must not be before 'from' date");
+        }
+
+        StreamingResponseBody body = out -> exportService.export(exportDataset, format, from, to, out);
+
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=" + ExportService.fileName(exportDataset, format))
+                .contentType(MediaType.parseMediaType(ExportService.contentType(format)))
+                .body(body);
+    }
+}
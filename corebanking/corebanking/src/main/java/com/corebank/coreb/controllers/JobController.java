@@ -2,7 +2,9 @@ package com.corebank.coreb.controllers;
 
 import com.corebank.coreb.dto.JobMasterDTO;
 import com.corebank.coreb.dto.JobResponseDTO;
+import com.corebank.coreb.dto.RateChangeDTO;
 import com.corebank.coreb.entity.Job;
+import com.corebank.coreb.entity.JobPartition;
 import com.corebank.coreb.service.JobService;
 
 import org.springframework.beans.factory.annotation.Autowired;
@@ -28,10 +30,34 @@ public class JobController {
 
     /**
      * 🟩 Run a Job using JobMaster jobid
+     *    summaryOnly=true → counts only, without the billed records list
+     *    force=true → with resume, take over a RUNNING execution before its heartbeat goes stale
      */
     @PostMapping("/run/{jobid}")
-    public ResponseEntity<JobResponseDTO> runJob(@PathVariable Long jobid) {
-        return ResponseEntity.ok(jobService.runJob(jobid));
+    public ResponseEntity<JobResponseDTO> runJob(@PathVariable Long jobid,
+                                                @RequestParam(defaultValue = "false") boolean resume,
+                                                @RequestParam(defaultValue = "false") boolean summaryOnly,
+                                                @RequestParam(defaultValue = "false") boolean force) {
+        return ResponseEntity.ok(jobService.runJob(jobid, resume, summaryOnly, force));
+    }
+
+    /**
+     * 🟩 Run LOAN_REPRICING for a rate change event (progress in job history / partitions)
+     */
+    @PostMapping("/repricing")
+    public ResponseEntity<JobResponseDTO> runRepricing(@RequestBody RateChangeDTO change) {
+        return ResponseEntity.ok(jobService.runRepricing(change));
+    }
+
+    /**
+     * 🟩 Resume an interrupted execution (seqNo) from its checkpoints
+     *    force=true → resume a RUNNING execution before its heartbeat goes stale
+     */
+    @PostMapping("/resume/{seqNo}")
+    public ResponseEntity<JobResponseDTO> resumeJob(@PathVariable Long seqNo,
+                                                   @RequestParam(defaultValue = "false") boolean summaryOnly,
+                                                   @RequestParam(defaultValue = "false") boolean force) {
+        return ResponseEntity.ok(jobService.resumeJob(seqNo, summaryOnly, force));
     }
 
     /**
@@ -41,4 +67,12 @@ public class JobController {
     public ResponseEntity<List<Job>> getJobHistory(@PathVariable Long jobid) {
         return ResponseEntity.ok(jobService.getJobHistory(jobid));
     }
+
+    /**
+     * 🟩 Get per-partition results of one job execution (partitioned billing)
+     */
+    @GetMapping("/execution/{seqNo}/partitions")
+    public ResponseEntity<List<JobPartition>> getJobPartitions(@PathVariable Long seqNo) {
+        return ResponseEntity.ok(jobService.getJobPartitions(seqNo));
+    }
 }
@@ -1,11 +1,20 @@
 package com.corebank.coreb.controllers;
 
+import com.corebank.coreb.dto.BulkLoanApprovalDTO;
 import com.corebank.coreb.dto.LoanDTO;
+import com.corebank.coreb.dto.LoanPageDTO;
+import com.corebank.coreb.dto.PrepaymentResultDTO;
+import com.corebank.coreb.enums.LoanSortField;
+import com.corebank.coreb.enums.PrepaymentMode;
+import com.corebank.coreb.service.LoanApprovalService;
+import com.corebank.coreb.service.LoanPrepaymentService;
+import com.corebank.coreb.service.LoanSearchService;
 import com.corebank.coreb.service.LoanService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -15,6 +24,15 @@ public class LoanController {
     @Autowired
     private LoanService loanService;
 
+    @Autowired
+    private LoanApprovalService loanApprovalService;
+
+    @Autowired
+    private LoanPrepaymentService loanPrepaymentService;
+
+    @Autowired
+    private LoanSearchService loanSearchService;
+
     // --------------------
     // Create Loan
     // --------------------
@@ -33,6 +51,24 @@ public class LoanController {
         return ResponseEntity.ok(approvedLoan);
     }
 
+    // --------------------
+    // Bulk Approve Loans (body: list of loan ids → one result per loan)
+    // --------------------
+    @PutMapping("/approve")
+    public ResponseEntity<BulkLoanApprovalDTO> approveLoans(@RequestBody List<Long> loanIds) {
+        return ResponseEntity.ok(loanApprovalService.approveLoans(loanIds));
+    }
+
+    // --------------------
+    // Prepay Principal (re-amortizes the open installments)
+    // --------------------
+    @PostMapping("/{loanId}/prepay")
+    public ResponseEntity<PrepaymentResultDTO> prepay(@PathVariable Long loanId,
+                                                      @RequestParam BigDecimal amount,
+                                                      @RequestParam(defaultValue = "REDUCE_EMI") PrepaymentMode mode) {
+        return ResponseEntity.ok(loanPrepaymentService.prepay(loanId, amount, mode));
+    }
+
     // --------------------
     // Update Loan (Safe: does not touch balancePrincipal)
     // --------------------
@@ -60,6 +96,24 @@ public class LoanController {
         return ResponseEntity.ok(loanService.getAllLoans());
     }
 
+    // --------------------
+    // Search Loans (filters, sort, keyset paging: pass nextCursor back as cursor)
+    // --------------------
+    @GetMapping("/search")
+    public ResponseEntity<LoanPageDTO> searchLoans(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) String loanType,
+            @RequestParam(required = false) String loanNoPrefix,
+            @RequestParam(defaultValue = "LOAN_ID") LoanSortField sort,
+            @RequestParam(defaultValue = "false") boolean descending,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) String cursor) {
+
+        return ResponseEntity.ok(loanSearchService.search(
+                status, branchId, loanType, loanNoPrefix, sort, descending, size, cursor));
+    }
+
     // --------------------
     // Deactivate Loan
     // --------------------
@@ -1,14 +1,27 @@
 package com.corebank.coreb.controllers;
 
-import com.corebank.coreb.dto.RepaymentReportDTO;
+import com.corebank.coreb.dto.CollectionBatchDTO;
+import com.corebank.coreb.dto.ReportJobDTO;
+import com.corebank.coreb.dto.RepaymentReportFilter;
+import com.corebank.coreb.dto.RepaymentReportSummaryDTO;
 import com.corebank.coreb.entity.Repayment;
+import com.corebank.coreb.enums.CollectionFileFormat;
+import com.corebank.coreb.service.CollectionFileService;
+import com.corebank.coreb.service.PdfReportService;
+import com.corebank.coreb.service.RepaymentPostingService;
+import com.corebank.coreb.service.RepaymentReportService;
 import com.corebank.coreb.service.RepaymentService;
+import com.corebank.coreb.service.ReportJobService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.io.IOException;
 import java.math.BigDecimal;
@@ -23,6 +36,21 @@ public class RepaymentController {
     @Autowired
     private RepaymentService repaymentService;
 
+    @Autowired
+    private RepaymentPostingService repaymentPostingService;
+
+    @Autowired
+    private CollectionFileService collectionFileService;
+
+    @Autowired
+    private RepaymentReportService repaymentReportService;
+
+    @Autowired
+    private PdfReportService pdfReportService;
+
+    @Autowired
+    private ReportJobService reportJobService;
+
     // --------------------
     // Create a new repayment manually
     // --------------------
@@ -44,15 +72,51 @@ public class RepaymentController {
     }
 
     // --------------------
-    // Process Payment (Partial / Full)
+    // Process Payment (Partial / Full; serialized per loan, retried on concurrent updates)
     // --------------------
     @PutMapping("/{repaymentId}/pay")
     public ResponseEntity<Repayment> processPayment(@PathVariable Long repaymentId,
                                                     @RequestParam BigDecimal amountPaid) {
-        Repayment updated = repaymentService.processPayment(repaymentId, amountPaid);
+        Repayment updated = repaymentPostingService.postPayment(repaymentId, amountPaid);
         return ResponseEntity.ok(updated);
     }
 
+    // --------------------
+    // Pay by installment number (1-based; works before a lazy installment has a row)
+    // --------------------
+    @PutMapping("/loan/{loanId}/installment/{installmentNo}/pay")
+    public ResponseEntity<Repayment> payInstallment(@PathVariable Long loanId,
+                                                    @PathVariable int installmentNo,
+                                                    @RequestParam BigDecimal amountPaid) {
+        Repayment updated = repaymentPostingService.postInstallment(loanId, installmentNo, amountPaid);
+        return ResponseEntity.ok(updated);
+    }
+
+    // --------------------
+    // Upload a collections file (CSV / FIXED_WIDTH); lines are validated and posted in parallel chunks
+    // --------------------
+    @PostMapping(value = "/collections", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<CollectionBatchDTO> uploadCollections(@RequestParam("file") MultipartFile file,
+                                                                @RequestParam(defaultValue = "CSV") CollectionFileFormat format) {
+        return ResponseEntity.ok(collectionFileService.ingest(file, format));
+    }
+
+    // --------------------
+    // Download the per-line result file of a collections batch
+    // --------------------
+    @GetMapping("/collections/{batchId}/result")
+    public ResponseEntity<Resource> downloadCollectionsResult(@PathVariable String batchId) {
+        Resource result = new FileSystemResource(collectionFileService.resultFile(batchId));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Disposition", "attachment; filename=collections_" + batchId + "_result.csv");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .body(result);
+    }
+
     // --------------------
     // Get repayment by ID
     // --------------------
@@ -73,7 +137,7 @@ public class RepaymentController {
     }
 
     // --------------------
-    // Get repayments by loan ID
+    // Get repayments by loan ID (lazy schedules: future installments computed, repaymentId null)
     // --------------------
     @GetMapping("/loan/{loanId}")
     public ResponseEntity<List<Repayment>> getByLoan(@PathVariable Long loanId) {
@@ -99,20 +163,41 @@ public class RepaymentController {
     //Get Repayment Report
     //-------------------
     @GetMapping("/report")
-    public ResponseEntity<List<RepaymentReportDTO>> getRepaymentReport(
+    public ResponseEntity<StreamingResponseBody> getRepaymentReport(
             @RequestParam(required = false) Long loanId,
+            @RequestParam(required = false) Long branchId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
 
-        List<RepaymentReportDTO> report = repaymentService.generateReport(loanId, startDate, endDate);
-        return ResponseEntity.ok(report);
+        // Same JSON array as before, written page by page instead of built in memory
+        RepaymentReportFilter filter = new RepaymentReportFilter(loanId, branchId, startDate, endDate);
+        StreamingResponseBody body = out -> repaymentReportService.writeJson(filter, out);
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    //-------------------
+    //Get Repayment Report Summary (totals only)
+    //-------------------
+    @GetMapping("/report/summary")
+    public ResponseEntity<RepaymentReportSummaryDTO> getRepaymentReportSummary(
+            @RequestParam(required = false) Long loanId,
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        RepaymentReportFilter filter = new RepaymentReportFilter(loanId, branchId, startDate, endDate);
+        return ResponseEntity.ok(repaymentReportService.summary(filter));
     }
     
   //-------------------
  // Get Repayment Report PDF (Modern Styled)
  //-------------------
  @GetMapping("/report/pdf")
- public ResponseEntity<byte[]> downloadRepaymentReportPdf(
+ public ResponseEntity<StreamingResponseBody> downloadRepaymentReportPdf(
+         @RequestParam(required = false) Long branchId,
          @RequestParam(required = false) String branchCode,
          @RequestParam(required = false) Long loanId,
          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -122,7 +207,10 @@ public class RepaymentController {
      // Get username from security/jwt if available
      String generatedBy = "System"; // or you can extract from JWT token later
 
-     byte[] pdfBytes = repaymentService.exportPdf(loanId, startDate, endDate, generatedBy);
+     // Pages are rendered straight to the response while rows are read page by page
+     RepaymentReportFilter filter = new RepaymentReportFilter(loanId, branchId(branchId, branchCode), startDate, endDate);
+     StreamingResponseBody body = out -> pdfReportService.streamPdfReportModernBanking(out, generatedBy,
+             sink -> repaymentReportService.forEachPage(filter, sink));
 
      HttpHeaders headers = new HttpHeaders();
      headers.add("Content-Disposition", "attachment; filename=repayment_report.pdf");
@@ -130,7 +218,58 @@ public class RepaymentController {
      return ResponseEntity.ok()
              .headers(headers)
              .contentType(MediaType.APPLICATION_PDF)
-             .body(pdfBytes);
+             .body(body);
  }
  
+
+    // --------------------
+    // Submit a repayment PDF job (rendered in the background; identical requests today reuse the result)
+    // --------------------
+    @PostMapping("/report/jobs")
+    public ResponseEntity<ReportJobDTO> submitReportJob(
+            @RequestParam(required = false) Long loanId,
+            @RequestParam(required = false) Long branchId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+
+        String requestedBy = "System"; // or you can extract from JWT token later
+        RepaymentReportFilter filter = new RepaymentReportFilter(loanId, branchId, startDate, endDate);
+        return ResponseEntity.ok(reportJobService.submitRepaymentPdf(filter, requestedBy));
+    }
+
+    // --------------------
+    // Poll a report job
+    // --------------------
+    @GetMapping("/report/jobs/{reportId}")
+    public ResponseEntity<ReportJobDTO> getReportJob(@PathVariable Long reportId) {
+        return ResponseEntity.ok(reportJobService.getJob(reportId));
+    }
+
+    // --------------------
+    // Download a completed report job
+    // --------------------
+    @GetMapping("/report/jobs/{reportId}/download")
+    public ResponseEntity<Resource> downloadReportJob(@PathVariable Long reportId) {
+        Resource report = new FileSystemResource(reportJobService.artifact(reportId));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Content-Disposition", "attachment; filename=repayment_report_" + reportId + ".pdf");
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(MediaType.APPLICATION_PDF)
+                .body(report);
+    }
+
+    // Branches are identified by id; branchCode is the older name of the same parameter
+    private static Long branchId(Long branchId, String branchCode) {
+        if (branchId != null || branchCode == null || branchCode.isBlank()) {
+            return branchId;
+        }
+        try {
+            return Long.valueOf(branchCode.trim());
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid branch: " + branchCode);
+        }
+    }
 }
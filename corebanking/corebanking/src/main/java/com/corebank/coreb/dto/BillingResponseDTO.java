@@ -1,5 +1,6 @@
 package com.corebank.coreb.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -10,9 +11,12 @@ import java.util.List;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class BillingResponseDTO {
     private LocalDate billingDate;
     private int processedCount;
     private String remarks;
-    private List<BillingDTO> billedRecords;
+    private List<BillingDTO> billedRecords;   // null in summary-only / streamed runs
+    private int failedCount;       // repayments left unbilled because of errors
+    private int failedPartitions;  // partitions that aborted (partitioned mode)
 }
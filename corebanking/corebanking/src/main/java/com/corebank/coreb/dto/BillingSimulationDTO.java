@@ -0,0 +1,21 @@
+package com.corebank.coreb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillingSimulationDTO {
+    private LocalDate billingDate;
+    private long repaymentCount;
+    private BigDecimal amountDue;
+    private BigDecimal amountPaid;
+    private BigDecimal outstanding;
+    private List<BillingSimulationRowDTO> totals;   // one row per branch and status
+}
@@ -0,0 +1,20 @@
+package com.corebank.coreb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BillingSimulationRowDTO {
+    private Long branchId;
+    private String branchName;
+    private String status;            // PAID / OVERDUE / PARTIAL / UNPAID
+    private long repaymentCount;
+    private BigDecimal amountDue;
+    private BigDecimal amountPaid;
+    private BigDecimal outstanding;   // amountDue - amountPaid (not below zero per installment)
+}
@@ -0,0 +1,19 @@
+package com.corebank.coreb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkLoanApprovalDTO {
+    private LocalDate systemDate;   // approval / start date used for every loan
+    private int requested;
+    private int approved;
+    private int failed;
+    private List<LoanApprovalResultDTO> results;   // one per requested loan id, in request order
+}
@@ -0,0 +1,26 @@
+package com.corebank.coreb.dto;
+
+import com.corebank.coreb.enums.CollectionFileFormat;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CollectionBatchDTO {
+    private String batchId;
+    private String fileName;
+    private CollectionFileFormat format;
+    private long lines;                 // data lines read (blank lines and header skipped)
+    private long posted;
+    private long rejected;              // failed validation, nothing posted
+    private long failed;                // valid, but the posting failed (e.g. persistent conflicts)
+    private BigDecimal amountPosted;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String resultUrl;           // per-line result file (CSV, in file line order)
+}
@@ -0,0 +1,23 @@
+package com.corebank.coreb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LoanApprovalResultDTO {
+    private Long loanId;
+    private String loanNo;
+    private boolean approved;
+    private String status;          // loan status after the call
+    private LocalDate startDate;
+    private LocalDate maturityDate;
+    private Integer installments;   // repayments generated
+    private String message;         // reason when not approved
+}
@@ -21,6 +21,7 @@ public class LoanDTO {
     private String loanType;
     private BigDecimal principal;
     private BigDecimal interestRate;
+    private String rateType;
     private Integer tenureMonths;
     private LocalDate startDate;
     private LocalDate maturityDate;
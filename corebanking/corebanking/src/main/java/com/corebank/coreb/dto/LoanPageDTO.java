@@ -0,0 +1,19 @@
+package com.corebank.coreb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class LoanPageDTO {
+    private List<LoanDTO> items;
+    private int size;               // items on this page
+    private boolean hasNext;
+    private String nextCursor;      // pass as ?cursor= for the next page (null on the last page)
+}
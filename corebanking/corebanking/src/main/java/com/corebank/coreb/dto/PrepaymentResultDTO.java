@@ -0,0 +1,23 @@
+package com.corebank.coreb.dto;
+
+import com.corebank.coreb.enums.PrepaymentMode;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PrepaymentResultDTO {
+    private Long loanId;
+    private PrepaymentMode mode;
+    private BigDecimal prepaidAmount;
+    private BigDecimal balancePrincipal;      // loan balance after the prepayment
+    private int installmentsReamortized;      // future installments rewritten
+    private int installmentsRemoved;          // REDUCE_TENURE: installments dropped from the end
+    private BigDecimal nextInstallment;       // total due of the first re-amortized installment
+    private LocalDate maturityDate;
+}
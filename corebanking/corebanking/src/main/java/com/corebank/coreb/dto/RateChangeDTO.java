@@ -0,0 +1,19 @@
+package com.corebank.coreb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RateChangeDTO {
+    private BigDecimal rateChange;      // percentage points added to each loan's rate (e.g. -0.25)
+    private BigDecimal newRate;         // or: absolute annual rate (%) for every selected loan
+    private String loanType;            // optional filter (Home / Personal / Auto ...)
+    private Long branchId;              // optional filter
+    private Boolean floatingOnly;       // default true: only loans with rateType FLOATING
+    private String reference;           // benchmark event, kept in the job remarks
+}
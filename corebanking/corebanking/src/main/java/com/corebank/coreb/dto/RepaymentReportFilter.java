@@ -0,0 +1,17 @@
+package com.corebank.coreb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepaymentReportFilter {
+    private Long loanId;            // null → every loan
+    private Long branchId;          // null → every branch
+    private LocalDate startDate;    // payment date from (inclusive), null → open
+    private LocalDate endDate;      // payment date to (inclusive), null → open
+}
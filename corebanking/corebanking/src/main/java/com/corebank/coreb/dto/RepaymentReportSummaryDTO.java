@@ -0,0 +1,25 @@
+package com.corebank.coreb.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RepaymentReportSummaryDTO {
+
+    private RepaymentReportFilter filter;   // what the totals cover
+
+    private long loanCount;
+    private long repaymentCount;
+    private long paidCount;                 // status PAID
+
+    private BigDecimal totalDue;
+    private BigDecimal amountPaid;
+    private BigDecimal principalPaid;
+    private BigDecimal interestPaid;
+    private BigDecimal outstanding;         // total due not yet paid
+}
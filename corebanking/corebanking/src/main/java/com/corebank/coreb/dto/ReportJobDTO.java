@@ -0,0 +1,31 @@
+package com.corebank.coreb.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReportJobDTO {
+    private Long reportId;
+    private String reportType;
+    private String status;              // QUEUED / RUNNING / COMPLETED / FAILED
+    private boolean cached;             // true when an earlier identical request was reused
+    private Long loanId;
+    private Long branchId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDate systemDate;
+    private Long rowCount;
+    private Long fileSize;
+    private LocalDateTime createdAt;
+    private LocalDateTime finishedAt;
+    private String errorMessage;
+    private String downloadUrl;         // set once COMPLETED
+}
@@ -2,6 +2,7 @@ package com.corebank.coreb.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -12,6 +13,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
+@DynamicUpdate // entity saves write only changed columns, never a stale balance over an SQL posting
 @Table(name = "account")
 public class Account {
 
@@ -30,6 +32,8 @@ public class Account {
 
     private String status;
 
+    private Boolean hotAccount; // Credits spread over balance buckets (HotAccountService); null → single balance row
+
     private LocalDateTime createdAt;
 
     @ManyToOne
@@ -0,0 +1,45 @@
+package com.corebank.coreb.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.math.BigDecimal;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "account_balance_bucket",
+       uniqueConstraints = {
+               @UniqueConstraint(name = "uk_account_balance_bucket", columnNames = {"account_id", "bucket_no"})
+       })
+public class AccountBalanceBucket {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long bucketId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;         // FK → Account (hot account)
+
+    // Read-only side of account_id: only there so the schema gets the foreign key
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", insertable = false, updatable = false,
+                foreignKey = @ForeignKey(name = "fk_account_balance_bucket_account"))
+    private Account account;
+
+    @Column(name = "bucket_no", nullable = false)
+    private Integer bucketNo;       // 0 .. buckets - 1
+
+    @Column(precision = 15, scale = 2, nullable = false)
+    private BigDecimal balance = BigDecimal.ZERO;   // credits not yet folded into Account.balance (never negative)
+}
@@ -0,0 +1,37 @@
+package com.corebank.coreb.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Work queue of repayments that became billable and are not billed yet.
+ * Filled when schedules are generated and when the system date rolls over;
+ * billing consumes (deletes) the rows it bills.
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "billing_queue",
+       indexes = @Index(name = "idx_billing_queue_due_date", columnList = "due_date"))
+public class BillingQueue {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long queueId;
+
+    @Column(nullable = false, unique = true)
+    private Long repaymentId; // Repayment.repayment_id (one queue row per repayment)
+
+    @Column(nullable = false)
+    private Long loanId;
+
+    @Column(nullable = false)
+    private LocalDate dueDate;
+
+    private LocalDate enqueuedOn; // System date on which the repayment became billable
+}
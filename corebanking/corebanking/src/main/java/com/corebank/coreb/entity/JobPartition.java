@@ -0,0 +1,51 @@
+package com.corebank.coreb.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "job_partition")
+public class JobPartition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long partitionId;
+
+    @JsonIgnore
+    @ManyToOne
+    @JoinColumn(name = "seq_no", nullable = false) // FK → Job execution log
+    private Job job;
+
+    private String partitionKey; // BRANCH-3 / LOANS-1-5000 / ALL
+
+    // Partition bounds, kept so an interrupted run can be resumed as-is
+    private Long branchId;
+    private Long minLoanId;
+    private Long maxLoanId;
+
+    // Checkpoint: last repayment of the last committed chunk
+    private Long lastRepaymentId;
+
+    private String status; // RUNNING / COMPLETED / COMPLETED_WITH_ERRORS / FAILED
+
+    private Integer processedCount;
+    private Integer failedCount;
+
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+
+    // Last committed chunk (or partition start/end): a RUNNING job is only resumed once this goes stale
+    private LocalDateTime heartbeatAt;
+
+    @Column(columnDefinition = "TEXT")
+    private String remarks;
+}
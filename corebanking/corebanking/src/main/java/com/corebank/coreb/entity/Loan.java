@@ -16,7 +16,12 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "loan")
+@Table(name = "loan",
+       indexes = {
+               @Index(name = "idx_loan_next_materialize_date", columnList = "next_materialize_date"),
+               @Index(name = "idx_loan_status", columnList = "status, loan_id"),
+               @Index(name = "idx_loan_branch", columnList = "branch_id, loan_id")
+       })
 public class Loan {
 
     @Id
@@ -50,6 +55,8 @@ public class Loan {
     @Column(precision = 5, scale = 2)
     private BigDecimal interestRate; // Annual interest rate (%)
 
+    private String rateType; // FIXED / FLOATING (repriced by LOAN_REPRICING); null → FIXED
+
     private Integer tenureMonths; // Loan duration in months
 
     private LocalDate startDate; // Loan start date
@@ -59,9 +66,22 @@ public class Loan {
 
     private String status; // Active / Closed / Default
 
+    // === Repayment Schedule ===
+    private String scheduleMode; // EAGER (all rows at approval) / LAZY (rows written as they fall due); null → EAGER
+
+    private String scheduleMethod; // FLAT / EMI, fixed at approval so lazy installments recompute identically
+
+    private Integer materializedInstallments; // LAZY: installments 1..n exist as repayment rows
+
+    private LocalDate nextMaterializeDate; // LAZY: due date of installment n + 1, null once all rows exist
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version; // Optimistic lock: concurrent balance updates fail instead of overwriting each other
+
     // Getters and Setters
     
- // Automatically generate loan number before saving
+ // Fallback loan number for loans saved without one (LoanService numbers loans via LoanNumberAllocator)
     @PrePersist
     public void prePersist() {
         if (this.loanNo == null || this.loanNo.isEmpty()) {
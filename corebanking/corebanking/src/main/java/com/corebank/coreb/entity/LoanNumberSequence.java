@@ -0,0 +1,25 @@
+package com.corebank.coreb.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * High-water mark of loan numbers handed out per branch. Nodes reserve whole
+ * blocks by advancing nextValue and number loans from memory until the block
+ * is used up (see LoanNumberAllocator).
+ */
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "loan_number_sequence")
+public class LoanNumberSequence {
+
+    @Id
+    private Long branchId; // 0 → loans without a branch
+
+    @Column(nullable = false)
+    private Long nextValue; // First number not reserved by any node yet
+}
@@ -9,7 +9,12 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "repayment")
+@Table(name = "repayment",
+       indexes = {
+               @Index(name = "idx_repayment_due_date", columnList = "due_date"),
+               @Index(name = "idx_repayment_loan_due_date", columnList = "loan_id, due_date"),
+               @Index(name = "idx_repayment_payment_date", columnList = "payment_date")
+       })
 public class Repayment {
 
     @Id
@@ -69,4 +74,8 @@ public class Repayment {
     private String receiptNumber; // Auto-generated voucher or transaction number
 
     private Boolean billingDone; // Whether this installment has been invoiced
+
+    @Version
+    @Column(columnDefinition = "bigint default 0")
+    private Long version; // Optimistic lock (JDBC writers bump it too; inserts take the column default)
 }
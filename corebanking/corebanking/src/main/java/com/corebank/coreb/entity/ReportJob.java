@@ -0,0 +1,53 @@
+package com.corebank.coreb.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+@Entity
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "report_job",
+       indexes = {
+               @Index(name = "idx_report_job_cache", columnList = "cache_key, system_date")
+       })
+public class ReportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long reportId;
+
+    private String reportType;      // REPAYMENT_PDF
+
+    @Column(name = "cache_key", nullable = false)
+    private String cacheKey;        // report type + parameters; identical requests share it
+
+    // Parameters
+    private Long loanId;
+    private Long branchId;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Column(name = "system_date", nullable = false)
+    private LocalDate systemDate;   // cache window: results are reused within the same system date
+
+    private String status;          // QUEUED / RUNNING / COMPLETED / FAILED
+
+    private String requestedBy;
+
+    private String filePath;        // rendered artifact (COMPLETED only)
+    private Long fileSize;
+    private Long rowCount;
+
+    @Column(columnDefinition = "TEXT")
+    private String errorMessage;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
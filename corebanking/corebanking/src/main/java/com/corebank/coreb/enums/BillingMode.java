@@ -0,0 +1,8 @@
+package com.corebank.coreb.enums;
+
+public enum BillingMode {
+    JPA,           // Row-by-row through JPA entities, single transaction
+    CHUNKED,       // Keyset chunks, JDBC batch writes, one commit per chunk
+    PARTITIONED,   // CHUNKED per branch / loan-id range, partitions on virtual threads
+    SQL            // One set-based INSERT ... SELECT / UPDATE ... FROM inside the database
+}
@@ -0,0 +1,6 @@
+package com.corebank.coreb.enums;
+
+public enum CollectionFileFormat {
+    CSV,            // reference,loan_id,repayment_id,amount (optional header line, no quoted fields)
+    FIXED_WIDTH     // reference 1-20, loan id 21-32, repayment id 33-44, amount in paise 45-57
+}
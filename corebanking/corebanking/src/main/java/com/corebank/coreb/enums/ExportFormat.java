@@ -0,0 +1,6 @@
+package com.corebank.coreb.enums;
+
+public enum ExportFormat {
+    CSV,    // text/csv, UTF-8, header line
+    XLSX    // streaming workbook (rows beyond the sheet limit continue on a new sheet)
+}
@@ -0,0 +1,7 @@
+package com.corebank.coreb.enums;
+
+public enum LoanSortField {
+    LOAN_ID,     // Creation order (default)
+    LOAN_NO,
+    PRINCIPAL
+}
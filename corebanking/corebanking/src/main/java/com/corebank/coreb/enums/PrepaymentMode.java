@@ -0,0 +1,6 @@
+package com.corebank.coreb.enums;
+
+public enum PrepaymentMode {
+    REDUCE_EMI,     // Same number of installments, smaller installment
+    REDUCE_TENURE   // Same installment (EMI) / principal part (FLAT), fewer installments
+}
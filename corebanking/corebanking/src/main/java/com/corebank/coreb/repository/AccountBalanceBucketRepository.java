@@ -0,0 +1,57 @@
+package com.corebank.coreb.repository;
+
+import com.corebank.coreb.entity.AccountBalanceBucket;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Repository
+public interface AccountBalanceBucketRepository extends JpaRepository<AccountBalanceBucket, Long> {
+
+    // 🔹 Buckets of a hot account
+    List<AccountBalanceBucket> findByAccountIdOrderByBucketNo(Long accountId);
+
+    // 🔹 Buckets left for an account (none → account row can be deleted)
+    long countByAccountId(Long accountId);
+
+    // 🔹 Bucket numbers that already exist for an account
+    @Query("SELECT b.bucketNo FROM AccountBalanceBucket b WHERE b.accountId = :accountId")
+    List<Integer> findBucketNos(@Param("accountId") Long accountId);
+
+    // 🔹 Accounts with credits still waiting in their buckets
+    @Query("SELECT DISTINCT b.accountId FROM AccountBalanceBucket b WHERE b.balance > 0")
+    List<Long> findAccountIdsToFold();
+
+    // 🔹 Account.balance plus its buckets, read in one statement (consistent while a fold moves amounts)
+    @Query("SELECT a.balance + (SELECT COALESCE(SUM(b.balance), 0) FROM AccountBalanceBucket b " +
+           "                    WHERE b.accountId = a.accountId) " +
+           "FROM Account a WHERE a.accountId = :accountId")
+    BigDecimal totalBalance(@Param("accountId") Long accountId);
+
+    // 🔹 Add a credit to one bucket in SQL; 0 → bucket does not exist
+    @Modifying
+    @Transactional
+    @Query("UPDATE AccountBalanceBucket b SET b.balance = b.balance + :amount " +
+           "WHERE b.accountId = :accountId AND b.bucketNo = :bucketNo")
+    int credit(@Param("accountId") Long accountId, @Param("bucketNo") Integer bucketNo,
+               @Param("amount") BigDecimal amount);
+
+    // 🔹 Take an amount out of a bucket (fold); 0 → another fold already took it
+    @Modifying
+    @Transactional
+    @Query("UPDATE AccountBalanceBucket b SET b.balance = b.balance - :amount " +
+           "WHERE b.bucketId = :bucketId AND b.balance >= :amount")
+    int take(@Param("bucketId") Long bucketId, @Param("amount") BigDecimal amount);
+
+    // 🔹 Drop empty buckets (hot mode switched off)
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM AccountBalanceBucket b WHERE b.accountId = :accountId AND b.balance = 0")
+    int deleteEmpty(@Param("accountId") Long accountId);
+}
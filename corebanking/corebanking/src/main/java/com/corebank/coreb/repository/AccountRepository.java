@@ -3,9 +3,15 @@ package com.corebank.coreb.repository;
 import com.corebank.coreb.entity.Account;
 import com.corebank.coreb.entity.Customer;
 
+import jakarta.transaction.Transactional;
+
+import java.math.BigDecimal;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -16,4 +22,28 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     // Optional: find all accounts for a customer
     List<Account> findByCustomer(Customer customer);
+
+    // 🔹 Add to the balance in SQL (row lock held only for this statement's transaction); returns rows updated
+    @Modifying
+    @Transactional
+    @Query("UPDATE Account a SET a.balance = a.balance + :amount WHERE a.accountId = :accountId")
+    int credit(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
+    // 🔹 Subtract from the balance in SQL only while it covers the amount; 0 → missing account or insufficient balance
+    @Modifying
+    @Transactional
+    @Query("UPDATE Account a SET a.balance = a.balance - :amount WHERE a.accountId = :accountId AND a.balance >= :amount")
+    int debit(@Param("accountId") Long accountId, @Param("amount") BigDecimal amount);
+
+    // 🔹 Change the status without rewriting the balance column
+    @Modifying
+    @Transactional
+    @Query("UPDATE Account a SET a.status = :status WHERE a.accountId = :accountId")
+    int setStatus(@Param("accountId") Long accountId, @Param("status") String status);
+
+    // 🔹 Switch hot mode without rewriting the balance column
+    @Modifying
+    @Transactional
+    @Query("UPDATE Account a SET a.hotAccount = :hot WHERE a.accountId = :accountId")
+    int setHotAccount(@Param("accountId") Long accountId, @Param("hot") Boolean hot);
 }
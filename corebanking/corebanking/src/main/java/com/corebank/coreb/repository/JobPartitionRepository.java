@@ -0,0 +1,21 @@
+package com.corebank.coreb.repository;
+
+import com.corebank.coreb.entity.JobPartition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface JobPartitionRepository extends JpaRepository<JobPartition, Long> {
+
+    // All partitions of one job execution
+    List<JobPartition> findByJob_SeqNoOrderByPartitionIdAsc(Long seqNo);
+
+    // Latest sign of life of a job execution (null → no partition ever started)
+    @Query("SELECT MAX(COALESCE(p.heartbeatAt, p.startTime)) FROM JobPartition p WHERE p.job.seqNo = :seqNo")
+    LocalDateTime findLastHeartbeat(@Param("seqNo") Long seqNo);
+}
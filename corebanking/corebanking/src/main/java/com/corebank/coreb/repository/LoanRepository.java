@@ -2,12 +2,34 @@ package com.corebank.coreb.repository;
 
 import com.corebank.coreb.entity.Loan;
 import com.corebank.coreb.entity.Customer;
+import com.corebank.coreb.dto.LoanDTO;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.List;
+
 @Repository
 public interface LoanRepository extends JpaRepository<Loan, Long> {
 
+    // LoanDTO constructor projection: one row per loan, no entity graph (aliases l, c, b, col)
+    String LOAN_DTO_SELECT =
+            "SELECT new com.corebank.coreb.dto.LoanDTO(" +
+            "l.loanId, l.loanNo, c.customerId, CONCAT(c.firstName, ' ', c.lastName), b.branchId, b.name, " +
+            "col.collateralId, l.loanType, l.principal, l.interestRate, l.rateType, l.tenureMonths, " +
+            "l.startDate, l.maturityDate, l.status) " +
+            "FROM Loan l JOIN l.customer c JOIN l.branch b LEFT JOIN l.collateral col";
+
     // Check if a customer has any loan with a specific status
     boolean existsByCustomerAndStatus(Customer customer, String status);
+
+    // All loans as DTOs, in id order
+    @Query(LOAN_DTO_SELECT + " ORDER BY l.loanId")
+    List<LoanDTO> findAllAsDTO();
+
+    // Lazy-schedule loans whose next installment is due up to a specific date
+    List<Loan> findByScheduleModeAndNextMaterializeDateLessThanEqualOrderByLoanId(
+            String scheduleMode, LocalDate date, Pageable pageable);
 }
@@ -9,7 +9,9 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RepaymentRepository extends JpaRepository<Repayment, Long> {
@@ -29,16 +31,32 @@ public interface RepaymentRepository extends JpaRepository<Repayment, Long> {
     // 🔹 Find all repayments for a specific loan
     List<Repayment> findByLoan_LoanId(Long loanId);
 
+    // 🔹 Repayments of a loan in installment order
+    List<Repayment> findByLoan_LoanIdOrderByDueDateAscRepaymentIdAsc(Long loanId);
+
+    // 🔹 Loan of a repayment (without loading either entity)
+    @Query("SELECT r.loan.loanId FROM Repayment r WHERE r.repaymentId = :repaymentId")
+    Optional<Long> findLoanIdByRepaymentId(@Param("repaymentId") Long repaymentId);
+
+    // 🔹 Repayments by id with their loan and customer in one query
+    @Query("SELECT r FROM Repayment r JOIN FETCH r.loan JOIN FETCH r.customer WHERE r.repaymentId IN :ids")
+    List<Repayment> findAllWithLoanByRepaymentIdIn(@Param("ids") Collection<Long> ids);
+
     // 🔹 Find all repayments for a specific customer (through loan)
     List<Repayment> findByLoan_Customer_CustomerId(Long customerId);
 
     // 🔹 Find repayments within a date range (used for report filters)
     List<Repayment> findByPaymentDateBetween(LocalDate startDate, LocalDate endDate);
 
-    // 🔹 Find repayments for a specific branch
-    @Query("SELECT r FROM Repayment r WHERE r.loan.branch.branchId = :branchid")
+    // 🔹 Find repayments for a specific branch (large branches: RepaymentReportService pages a projection)
+    @Query("SELECT r FROM Repayment r JOIN FETCH r.loan l JOIN FETCH r.customer WHERE l.branch.branchId = :branchId")
     List<Repayment> findByBranchId(@Param("branchId") Long branchId);
 
     // 🔹 Find unpaid bills due up to a specific date
     List<Repayment> findByBillingDoneFalseAndDueDateLessThanEqual(LocalDate date);
+
+    // 🔹 Find queued (billable) repayments due up to a specific date
+    @Query("SELECT r FROM Repayment r WHERE r.billingDone = false AND r.repaymentId IN " +
+           "(SELECT q.repaymentId FROM BillingQueue q WHERE q.dueDate <= :date)")
+    List<Repayment> findQueuedForBilling(@Param("date") LocalDate date);
 }
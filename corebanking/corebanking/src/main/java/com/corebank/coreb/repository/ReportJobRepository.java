@@ -0,0 +1,24 @@
+package com.corebank.coreb.repository;
+
+import com.corebank.coreb.entity.ReportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ReportJobRepository extends JpaRepository<ReportJob, Long> {
+
+    // 🔹 Latest reusable job for the same parameters in the same system-date window
+    Optional<ReportJob> findFirstByCacheKeyAndSystemDateAndStatusInOrderByReportIdDesc(
+            String cacheKey, LocalDate systemDate, Collection<String> statuses);
+
+    // 🔹 Jobs in the given states (e.g. left QUEUED / RUNNING by a restart)
+    List<ReportJob> findByStatusIn(Collection<String> statuses);
+
+    // 🔹 Jobs of earlier system dates (expired cache entries)
+    List<ReportJob> findBySystemDateBefore(LocalDate systemDate);
+}
@@ -5,7 +5,7 @@ import com.corebank.coreb.entity.Job;
 import com.corebank.coreb.entity.JobMaster;
 import com.corebank.coreb.repository.JobMasterRepository;
 import com.corebank.coreb.repository.JobRepository;
-import com.corebank.coreb.service.BillingService;
+import com.corebank.coreb.service.BillingExecutionService;
 import com.corebank.coreb.service.SystemDateService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -22,7 +22,7 @@ import java.time.LocalDateTime;
 public class BillingJob {
 
     @Autowired
-    private BillingService billingService;
+    private BillingExecutionService billingExecutionService;
 
     @Autowired
     private SystemDateService systemDateService;
@@ -62,11 +62,9 @@ public class BillingJob {
                 systemDate, job.getSeqNo());
 
         try {
-            // 3️⃣ Run billing with job tracking
-            BillingResponseDTO result = billingService.generateBilling(job);
-
-            job.setStatus("COMPLETED");
-            job.setRemarks(result.getRemarks());
+            // 3️⃣ Run billing with job tracking (engine records status + remarks on the job)
+            //    Nobody reads the records of a scheduled run, so keep counts only
+            BillingResponseDTO result = billingExecutionService.generateBillingSummary(job, null);
 
             log.info("✅ [Scheduler] Billing job completed. Processed {} repayments.",
                      result.getProcessedCount());
@@ -0,0 +1,42 @@
+package com.corebank.coreb.scheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.corebank.coreb.entity.Job;
+import com.corebank.coreb.repository.JobRepository;
+import com.corebank.coreb.service.CollectionFileService;
+
+@Service
+public class CollectionCleanupJob {
+
+    @Autowired
+    private CollectionFileService collectionFileService;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Scheduled(cron = "0 45 0 * * ?") // Runs daily at 00:45, after the report cleanup
+    public void purgeExpiredBatches() {
+        Job jobLog = new Job();
+        jobLog.setJobType("CollectionCleanupJob");
+        jobLog.setStartTime(LocalDateTime.now());
+        jobLog.setExecutionMode("Automatic");
+        jobLog.setProcessedDate(LocalDate.now());
+
+        try {
+            int purged = collectionFileService.purgeExpired();
+            jobLog.setStatus("Success");
+            jobLog.setRemarks("Purged " + purged + " expired collections batches.");
+        } catch (Exception e) {
+            jobLog.setStatus("Failed");
+            jobLog.setRemarks("Error: " + e.getMessage());
+        }
+
+        jobLog.setEndTime(LocalDateTime.now());
+        jobRepository.save(jobLog);
+    }
+}
@@ -0,0 +1,46 @@
+package com.corebank.coreb.scheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.corebank.coreb.entity.Job;
+import com.corebank.coreb.repository.JobRepository;
+import com.corebank.coreb.service.HotAccountService;
+
+@Service
+public class HotAccountFoldJob {
+
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    // Folds hot-account buckets back into Account.balance; only runs that moved something are logged
+    @Scheduled(fixedDelayString = "${account.hot.fold-interval-ms:60000}")
+    public void foldHotAccounts() {
+        Job jobLog = new Job();
+        jobLog.setJobType("HotAccountFoldJob");
+        jobLog.setStartTime(LocalDateTime.now());
+        jobLog.setExecutionMode("Automatic");
+        jobLog.setProcessedDate(LocalDate.now());
+
+        try {
+            int folded = hotAccountService.foldAll();
+            if (folded == 0) {
+                return;
+            }
+            jobLog.setStatus("Success");
+            jobLog.setRemarks("Folded balance buckets of " + folded + " hot accounts.");
+        } catch (Exception e) {
+            jobLog.setStatus("Failed");
+            jobLog.setRemarks("Error: " + e.getMessage());
+        }
+
+        jobLog.setEndTime(LocalDateTime.now());
+        jobRepository.save(jobLog);
+    }
+}
@@ -0,0 +1,42 @@
+package com.corebank.coreb.scheduler;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.corebank.coreb.entity.Job;
+import com.corebank.coreb.repository.JobRepository;
+import com.corebank.coreb.service.ReportJobService;
+
+@Service
+public class ReportCleanupJob {
+
+    @Autowired
+    private ReportJobService reportJobService;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Scheduled(cron = "0 30 0 * * ?") // Runs daily at 00:30, after the system date rollover
+    public void purgeExpiredReports() {
+        Job jobLog = new Job();
+        jobLog.setJobType("ReportCleanupJob");
+        jobLog.setStartTime(LocalDateTime.now());
+        jobLog.setExecutionMode("Automatic");
+        jobLog.setProcessedDate(LocalDate.now());
+
+        try {
+            int purged = reportJobService.purgeExpired();
+            jobLog.setStatus("Success");
+            jobLog.setRemarks("Purged " + purged + " expired report jobs.");
+        } catch (Exception e) {
+            jobLog.setStatus("Failed");
+            jobLog.setRemarks("Error: " + e.getMessage());
+        }
+
+        jobLog.setEndTime(LocalDateTime.now());
+        jobRepository.save(jobLog);
+    }
+}
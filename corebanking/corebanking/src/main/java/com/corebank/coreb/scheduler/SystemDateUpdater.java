@@ -6,6 +6,9 @@ import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import com.corebank.coreb.entity.SystemDate;
 import com.corebank.coreb.repository.SystemDateRepository;
+import com.corebank.coreb.service.BillingQueueService;
+import com.corebank.coreb.service.RepaymentMaterializer;
+import jakarta.transaction.Transactional;
 
 @Component
 public class SystemDateUpdater {
@@ -13,18 +16,31 @@ public class SystemDateUpdater {
     @Autowired
     private SystemDateRepository systemDateRepository;
 
+    @Autowired
+    private BillingQueueService billingQueueService;
+
+    @Autowired
+    private RepaymentMaterializer repaymentMaterializer;
+
     // Runs every day at midnight
     @Scheduled(cron = "0 0 0 * * ?")
+    @Transactional
     public void updateSystemDate() {
         SystemDate systemDate = systemDateRepository.findById(1L)
                 .orElse(new SystemDate());
 
+        LocalDate previousDate = systemDate.getCurrentDate();
+
         systemDate.setCurrentDate(LocalDate.now());
         systemDate.setUpdatedAt(LocalDate.now());
         systemDate.setUpdatedBy("SYSTEM");
 
         systemDateRepository.save(systemDate);
 
+        // Write lazy-schedule installments that fell due, then enqueue everything due since the previous date
+        repaymentMaterializer.materializeDue(systemDate.getCurrentDate());
+        billingQueueService.enqueueBecameDue(previousDate, systemDate.getCurrentDate());
+
         System.out.println("✅ System date updated to: " + LocalDate.now());
     }
 }
@@ -7,13 +7,15 @@ import com.corebank.coreb.entity.Customer;
 import com.corebank.coreb.entity.Deposit;
 import com.corebank.coreb.entity.SystemDate;
 import com.corebank.coreb.repository.*;
+import com.corebank.coreb.util.AmortizationEngine;
+
+import jakarta.persistence.EntityManager;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -21,6 +23,9 @@ import java.util.Optional;
 @Service
 public class AccountService {
 
+    // Savings interest: 5% p.a. as a monthly rate ×10^10 (same 10-decimal rate as 0.05 / 12)
+    private static final long SAVINGS_MONTHLY_RATE = AmortizationEngine.monthlyRate(new BigDecimal("5.00"));
+
     @Autowired
     private AccountRepository accountRepository;
 
@@ -39,6 +44,12 @@ public class AccountService {
     @Autowired
     private SystemDateRepository systemDateRepository;
 
+    @Autowired
+    private HotAccountService hotAccountService;
+
+    @Autowired
+    private EntityManager entityManager;
+
     // --------------------
     // Convert Account -> AccountDTO
     // --------------------
@@ -47,7 +58,7 @@ public class AccountService {
 
         dto.setAccountId(account.getAccountId());
         dto.setAccountType(account.getAccountType());
-        dto.setBalance(account.getBalance());
+        dto.setBalance(getBalance(account));
         dto.setStatus(account.getStatus());
 
         // --- Customer ---
@@ -71,6 +82,11 @@ public class AccountService {
         return accountRepository.findById(id);
     }
 
+    // Balance including credits still waiting in hot-account buckets
+    public BigDecimal getBalance(Account account) {
+        return hotAccountService.balanceOf(account);
+    }
+
     // --------------------
     // Get current system date
     // --------------------
@@ -82,14 +98,38 @@ public class AccountService {
     }
 
     // --------------------
-    // Save or update account
+    // Create account
     // --------------------
     public Account saveAccount(Account account) {
+        // Always a new row: an id in the body would merge a client-held balance (for hot accounts
+        // Account.balance + buckets, as shown) over the stored one; hot mode only via setHotMode
+        account.setAccountId(null);
+        account.setHotAccount(null);
         if (account.getBalance() == null) account.setBalance(BigDecimal.ZERO);
         if (account.getStatus() == null) account.setStatus("Active");
         return accountRepository.save(account);
     }
 
+    // --------------------
+    // Update account details (everything but the balance)
+    // --------------------
+    @Transactional
+    public Optional<Account> updateAccount(Long accountId, Account details) {
+        // Managed entity + @DynamicUpdate: only the columns changed here are written, never a
+        // balance the client read before a concurrent posting (merging the request would be).
+        // For a hot account the balance shown is Account.balance + buckets: writing it back
+        // would count the unfolded credits twice once HotAccountFoldJob moves them
+        return accountRepository.findById(accountId).map(account -> {
+            account.setAccountType(details.getAccountType());
+            account.setStatus(details.getStatus());
+            account.setCustomer(details.getCustomer());
+            account.setBranch(details.getBranch());
+            account.setCard(details.getCard());
+            account.setCreatedAt(details.getCreatedAt());
+            return account;
+        });
+    }
+
     // --------------------
     // Get all accounts as DTOs
     // --------------------
@@ -105,13 +145,13 @@ public class AccountService {
     // --------------------
     @Transactional
     public Deposit deposit(Long accountId, BigDecimal amount) {
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)
+            throw new IllegalArgumentException("Deposit amount must be positive");
+
         Account account = accountRepository.findById(accountId)
                 .orElseThrow(() -> new RuntimeException("Account not found"));
 
-        if (amount.compareTo(BigDecimal.ZERO) <= 0)
-            throw new IllegalArgumentException("Deposit amount must be positive");
-
-        account.setBalance(account.getBalance().add(amount));
+        credit(account, amount);
 
         Deposit deposit = new Deposit();
         deposit.setAccount(account);
@@ -121,7 +161,6 @@ public class AccountService {
         deposit.setStartDate(getSystemDate());
         deposit.setStatus("ACTIVE");
 
-        accountRepository.save(account);
         return depositRepository.save(deposit);
     }
 
@@ -130,16 +169,21 @@ public class AccountService {
     // --------------------
     @Transactional
     public Deposit withdraw(Long accountId, BigDecimal amount) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-
-        if (amount.compareTo(BigDecimal.ZERO) <= 0)
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)
             throw new IllegalArgumentException("Withdrawal amount must be positive");
 
-        if (account.getBalance().compareTo(amount) < 0)
-            throw new IllegalArgumentException("Insufficient balance");
+        Account account = accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
 
-        account.setBalance(account.getBalance().subtract(amount));
+        // Balance check and debit in one statement: two withdrawals can never both pass the check
+        if (accountRepository.debit(accountId, amount) == 0) {
+            // Hot account: the balance row may only be short of credits still waiting in the buckets
+            if (!HotAccountService.isHot(account)
+                    || hotAccountService.fold(accountId).signum() == 0
+                    || accountRepository.debit(accountId, amount) == 0)
+                throw new IllegalArgumentException("Insufficient balance");
+        }
+        entityManager.refresh(account); // posted balance, not the one read before the debit
 
         Deposit deposit = new Deposit();
         deposit.setAccount(account);
@@ -149,10 +193,22 @@ public class AccountService {
         deposit.setStartDate(getSystemDate());
         deposit.setStatus("ACTIVE");
 
-        accountRepository.save(account);
         return depositRepository.save(deposit);
     }
 
+    // Credit applied in SQL: concurrent postings queue on the row lock instead of overwriting each other;
+    // hot accounts take it on a bucket row instead (see HotAccountService)
+    private void credit(Account account, BigDecimal amount) {
+        if (HotAccountService.isHot(account)) {
+            hotAccountService.credit(account.getAccountId(), amount);
+            return;
+        }
+        if (accountRepository.credit(account.getAccountId(), amount) == 0)
+            throw new RuntimeException("Account not found");
+
+        entityManager.refresh(account); // posted balance, not the one read before the credit
+    }
+
     // --------------------
     // Calculate monthly interest
     // --------------------
@@ -160,9 +216,9 @@ public class AccountService {
         if (!"SAVINGS".equalsIgnoreCase(account.getAccountType()) || account.getBalance() == null) {
             return BigDecimal.ZERO;
         }
-        BigDecimal annualRate = new BigDecimal("0.05"); // 5%
-        BigDecimal monthlyRate = annualRate.divide(new BigDecimal("12"), 10, RoundingMode.HALF_UP);
-        return account.getBalance().multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
+        long interest = AmortizationEngine.periodInterest(
+                AmortizationEngine.toMinor(getBalance(account)), SAVINGS_MONTHLY_RATE);
+        return AmortizationEngine.fromMinor(interest);
     }
 
     // --------------------
@@ -176,7 +232,7 @@ public class AccountService {
         BigDecimal interest = calculateMonthlyInterest(account);
         if (interest.compareTo(BigDecimal.ZERO) <= 0) return null;
 
-        account.setBalance(account.getBalance().add(interest));
+        credit(account, interest);
 
         Deposit deposit = new Deposit();
         deposit.setAccount(account);
@@ -187,20 +243,30 @@ public class AccountService {
         deposit.setStartDate(getSystemDate());
         deposit.setStatus("ACTIVE");
 
-        accountRepository.save(account);
         return depositRepository.save(deposit);
     }
 
+    // --------------------
+    // Hot account mode: credits land on balance buckets, folded back by HotAccountFoldJob
+    // --------------------
+    public Account setHotMode(Long accountId, boolean hot) {
+        if (hot) {
+            hotAccountService.enable(accountId);
+        } else {
+            hotAccountService.disable(accountId);
+        }
+        return accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
+    }
+
     // --------------------
     // Deactivate account
     // --------------------
     @Transactional
     public boolean deactivateAccount(Long accountId) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-
-        account.setStatus("Inactive");
-        accountRepository.save(account);
+        // Status only: saving the entity would write back the balance it was read with
+        if (accountRepository.setStatus(accountId, "Inactive") == 0)
+            throw new RuntimeException("Account not found");
 
         depositRepository.deactivateDepositsByAccountId(accountId);
         cardRepository.deactivateCardsByAccountId(accountId);
@@ -212,15 +278,14 @@ public class AccountService {
     // --------------------
     @Transactional
     public Account closeAccount(Long accountId) {
-        Account account = accountRepository.findById(accountId)
-                .orElseThrow(() -> new RuntimeException("Account not found"));
-
-        account.setStatus("Closed");
-        accountRepository.save(account);
+        // Status only: saving the entity would write back the balance it was read with
+        if (accountRepository.setStatus(accountId, "Closed") == 0)
+            throw new RuntimeException("Account not found");
 
         depositRepository.deactivateDepositsByAccountId(accountId);
         cardRepository.deactivateCardsByAccountId(accountId);
-        return account;
+        return accountRepository.findById(accountId)
+                .orElseThrow(() -> new RuntimeException("Account not found"));
     }
 
     // --------------------
@@ -236,6 +301,9 @@ public class AccountService {
             return false;
         }
 
+        // Buckets reference the account row (and may hold credits): fold them into it first
+        hotAccountService.dropBuckets(accountId);
+
         depositRepository.deleteByAccountId(accountId);
         cardRepository.deleteByAccountId(accountId);
         accountRepository.delete(account);
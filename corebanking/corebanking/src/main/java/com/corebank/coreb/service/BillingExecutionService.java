@@ -0,0 +1,260 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.BillingDTO;
+import com.corebank.coreb.dto.BillingResponseDTO;
+import com.corebank.coreb.entity.Job;
+import com.corebank.coreb.enums.BillingMode;
+import com.corebank.coreb.repository.JobRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 🔹 Entry point for billing runs
+ *
+ * Picks the billing engine from {@code billing.mode} (or an explicit override)
+ * and keeps the Job execution record up to date for the non-JPA engines.
+ *
+ * A record sink replaces the in-memory billedRecords list: the engines hand it
+ * every chunk once that chunk is committed (streaming / summary-only callers).
+ */
+@Slf4j
+@Service
+public class BillingExecutionService {
+
+    // Sink for summary-only runs: records are dropped as soon as their chunk is committed
+    private static final Consumer<List<BillingDTO>> DISCARD = records -> { };
+
+    @Autowired
+    private BillingService billingService;
+
+    @Autowired
+    private ChunkedBillingService chunkedBillingService;
+
+    @Autowired
+    private PartitionedBillingService partitionedBillingService;
+
+    @Autowired
+    private SqlBillingService sqlBillingService;
+
+    @Autowired
+    private BillingQueueService billingQueueService;
+
+    @Autowired
+    private RepaymentMaterializer repaymentMaterializer;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private SystemDateService systemDateService;
+
+    @Value("${billing.mode:JPA}")
+    private BillingMode defaultMode;
+
+    // Job executions running in this instance (a RUNNING job found here is alive, never resumable)
+    private final Set<Long> activeExecutions = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 🔹 Is this job execution running in this instance right now?
+     */
+    public boolean isActive(Long seqNo) {
+        return seqNo != null && activeExecutions.contains(seqNo);
+    }
+
+    /**
+     * 🔹 Run billing without job (manual API call)
+     */
+    public BillingResponseDTO generateBilling() {
+        return generateBilling(null, null);
+    }
+
+    /**
+     * 🔹 Run billing linked to job execution log, using the configured mode
+     */
+    public BillingResponseDTO generateBilling(Job job) {
+        return generateBilling(job, null);
+    }
+
+    /**
+     * 🔹 Run billing with an explicit mode (null → configured default)
+     */
+    public BillingResponseDTO generateBilling(Job job, BillingMode mode) {
+        return generateBilling(job, mode, null);
+    }
+
+    /**
+     * 🔹 Run billing and return counts only (billedRecords stays null)
+     */
+    public BillingResponseDTO generateBillingSummary(Job job, BillingMode mode) {
+        return generateBilling(job, mode, DISCARD);
+    }
+
+    /**
+     * 🔹 Run billing, handing committed records to the sink (null → collect them)
+     */
+    public BillingResponseDTO generateBilling(Job job, BillingMode mode, Consumer<List<BillingDTO>> sink) {
+
+        BillingMode effectiveMode = (mode != null) ? mode : defaultMode;
+        LocalDate billingDate = systemDateService.getSystemDate();
+
+        // Lazy schedules: due installments need rows before any engine can bill them
+        repaymentMaterializer.materializeDue(billingDate);
+
+        if (billingQueueService.isEnabled()) {
+            // Queue rows billed by an earlier SCAN run would otherwise stay queued forever
+            billingQueueService.purgeBilled();
+        }
+
+        if (effectiveMode == BillingMode.JPA) {
+            // The JPA engine commits once at the end, so its records can only be handed over afterwards
+            BillingResponseDTO result = billingService.generateBilling(job);
+            if (sink != null) {
+                if (result.getBilledRecords() != null && !result.getBilledRecords().isEmpty()) {
+                    sink.accept(result.getBilledRecords());
+                }
+                result.setBilledRecords(null);
+            }
+            return result;
+        }
+
+        log.info("🔄 Starting Loan Billing | Mode: {} | System Date: {}", effectiveMode, billingDate);
+
+        if (job != null) {
+            startJob(job, billingDate);
+        }
+
+        return execute(job, billingDate, () -> {
+            if (effectiveMode == BillingMode.SQL) {
+                return sqlBillingService.generateBilling(billingDate, sink);
+            }
+            if (effectiveMode == BillingMode.PARTITIONED) {
+                return partitionedBillingService.generateBilling(billingDate, job, sink);
+            }
+            if (job != null) {
+                // Single "ALL" partition so the run gets a checkpoint row
+                return partitionedBillingService.generateBilling(billingDate, job, List.of(BillingPartition.ALL), sink);
+            }
+            return chunkedBillingService.generateBilling(billingDate, BillingPartition.ALL, null, sink);
+        });
+    }
+
+    /**
+     * 🔹 Resume an interrupted CHUNKED / PARTITIONED execution from its checkpoints
+     */
+    public BillingResponseDTO resumeBilling(Job job) {
+        return resumeBilling(job, null);
+    }
+
+    /**
+     * 🔹 Resume and return counts only (billedRecords stays null)
+     */
+    public BillingResponseDTO resumeBillingSummary(Job job) {
+        return resumeBilling(job, DISCARD);
+    }
+
+    /**
+     * 🔹 Resume, handing committed records to the sink (null → collect them)
+     */
+    public BillingResponseDTO resumeBilling(Job job, Consumer<List<BillingDTO>> sink) {
+
+        LocalDate billingDate = job.getProcessedDate() != null
+                ? job.getProcessedDate()
+                : systemDateService.getSystemDate();
+
+        if (isActive(job.getSeqNo())) {
+            throw new RuntimeException("Billing execution " + job.getSeqNo() + " is still running");
+        }
+
+        log.info("⏩ Resuming Loan Billing | Execution ID: {} | Billing Date: {}", job.getSeqNo(), billingDate);
+
+        job.setStatus("RUNNING");
+        job.setEndTime(null);
+        jobRepository.save(job);
+
+        return execute(job, billingDate, () -> partitionedBillingService.resumeBilling(billingDate, job, sink));
+    }
+
+    /**
+     * 🔹 Run an engine and record its outcome on the job (if any)
+     */
+    private BillingResponseDTO execute(Job job, LocalDate billingDate, Supplier<BillingResponseDTO> engine) {
+
+        boolean isJobMode = (job != null);
+
+        if (isJobMode && job.getSeqNo() != null && !activeExecutions.add(job.getSeqNo())) {
+            throw new RuntimeException("Billing execution " + job.getSeqNo() + " is still running");
+        }
+
+        BillingResponseDTO result;
+        try {
+            result = engine.get();
+
+            if (isJobMode) {
+                job.setStatus(resolveJobStatus(result));
+                job.setRemarks(result.getRemarks());
+            }
+        } catch (Exception e) {
+            String remarks = "❌ Billing process failed: " + e.getMessage();
+            log.error(remarks);
+
+            if (isJobMode) {
+                job.setStatus("FAILED");
+                job.setRemarks(remarks);
+            }
+            result = new BillingResponseDTO(billingDate, 0, remarks, null, 0, 0);
+        } finally {
+            if (isJobMode) {
+                job.setEndTime(LocalDateTime.now());
+                jobRepository.save(job);
+                activeExecutions.remove(job.getSeqNo());
+
+                log.info("🕒 Job execution [{}] finished at {}", job.getSeqNo(), job.getEndTime());
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * 🔹 Job status for a finished run: partial failures do not fail the whole job
+     */
+    private String resolveJobStatus(BillingResponseDTO result) {
+        if (result.getFailedCount() == 0 && result.getFailedPartitions() == 0) {
+            return "COMPLETED";
+        }
+        return result.getProcessedCount() > 0 ? "COMPLETED_WITH_ERRORS" : "FAILED";
+    }
+
+    /**
+     * 🔹 Initialize job execution metadata
+     */
+    private void startJob(Job job, LocalDate billingDate) {
+        job.setStartTime(LocalDateTime.now());
+        job.setStatus("RUNNING");
+
+        if (job.getJobMaster() != null) {
+            job.setJobType(job.getJobMaster().getJobName());
+        } else {
+            job.setJobType("LOAN_BILLING");
+        }
+
+        job.setExecutionMode(
+                job.getExecutionMode() != null ? job.getExecutionMode() : "MANUAL"
+        );
+
+        job.setProcessedDate(billingDate);
+        jobRepository.save(job);
+    }
+}
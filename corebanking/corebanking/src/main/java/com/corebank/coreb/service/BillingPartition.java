@@ -0,0 +1,20 @@
+package com.corebank.coreb.service;
+
+/**
+ * 🔹 Slice of the due repayment set billed as one unit
+ *
+ * branchId → only loans of that branch; minLoanId/maxLoanId → inclusive
+ * loan-id range. All null means the whole book.
+ */
+public record BillingPartition(String key, Long branchId, Long minLoanId, Long maxLoanId) {
+
+    public static final BillingPartition ALL = new BillingPartition("ALL", null, null, null);
+
+    public static BillingPartition branch(Long branchId) {
+        return new BillingPartition("BRANCH-" + branchId, branchId, null, null);
+    }
+
+    public static BillingPartition loanRange(Long minLoanId, Long maxLoanId) {
+        return new BillingPartition("LOANS-" + minLoanId + "-" + maxLoanId, null, minLoanId, maxLoanId);
+    }
+}
@@ -0,0 +1,153 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.entity.Repayment;
+import com.corebank.coreb.entity.SystemDate;
+import com.corebank.coreb.repository.SystemDateRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 🔹 Billing work queue (billing_queue)
+ *
+ * Repayments are enqueued once they become billable: at schedule generation
+ * (if already due) and when the system date rolls over (due dates in the
+ * skipped range). With {@code billing.source=QUEUE} the billing engines read
+ * the queue instead of scanning repayment, so a run costs the daily delta.
+ * Enqueueing always happens, so the source can be switched at any time.
+ */
+@Slf4j
+@Service
+public class BillingQueueService {
+
+    private static final String ENQUEUE_REPAYMENT =
+            "INSERT INTO billing_queue (repayment_id, loan_id, due_date, enqueued_on) " +
+            "VALUES (?, ?, ?, ?) ON CONFLICT (repayment_id) DO NOTHING";
+
+    // Parameters: enqueued on, due date from (exclusive), due date to (inclusive)
+    private static final String ENQUEUE_DUE_RANGE =
+            "INSERT INTO billing_queue (repayment_id, loan_id, due_date, enqueued_on) " +
+            "SELECT r.repayment_id, r.loan_id, r.due_date, ? FROM repayment r " +
+            "WHERE r.due_date > ? AND r.due_date <= ? AND r.billing_done = false " +
+            "ON CONFLICT (repayment_id) DO NOTHING";
+
+    // Parameters: enqueued on, due date to (inclusive)
+    private static final String ENQUEUE_ALL_DUE =
+            "INSERT INTO billing_queue (repayment_id, loan_id, due_date, enqueued_on) " +
+            "SELECT r.repayment_id, r.loan_id, r.due_date, ? FROM repayment r " +
+            "WHERE r.due_date <= ? AND r.billing_done = false " +
+            "ON CONFLICT (repayment_id) DO NOTHING";
+
+    private static final String DEQUEUE_REPAYMENT =
+            "DELETE FROM billing_queue WHERE repayment_id = ?";
+
+    // Rows whose repayment was billed outside the queue (e.g. a SCAN run)
+    private static final String PURGE_BILLED =
+            "DELETE FROM billing_queue q USING repayment r " +
+            "WHERE r.repayment_id = q.repayment_id AND r.billing_done = true";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // Repository, not SystemDateService: that service enqueues through this one on rollover
+    @Autowired
+    private SystemDateRepository systemDateRepository;
+
+    // SCAN → engines scan repayment (billing_done / due_date), QUEUE → engines consume billing_queue
+    @Value("${billing.source:SCAN}")
+    private String source;
+
+    public boolean isEnabled() {
+        return "QUEUE".equalsIgnoreCase(source);
+    }
+
+    /**
+     * 🔹 Enqueue freshly generated installments that are already due
+     */
+    public void enqueueDue(List<Repayment> repayments, LocalDate systemDate) {
+        List<Repayment> due = repayments.stream()
+                .filter(r -> r.getDueDate() != null && !r.getDueDate().isAfter(systemDate))
+                .filter(r -> !Boolean.TRUE.equals(r.getBillingDone()))
+                .toList();
+        if (due.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(ENQUEUE_REPAYMENT, due, due.size(), (ps, r) -> {
+            ps.setLong(1, r.getRepaymentId());
+            ps.setLong(2, r.getLoan().getLoanId());
+            ps.setDate(3, Date.valueOf(r.getDueDate()));
+            ps.setDate(4, Date.valueOf(systemDate));
+        });
+        log.info("📥 Enqueued {} already-due installments for billing", due.size());
+    }
+
+    /**
+     * 🔹 System date rollover: enqueue repayments that fell due in (previousDate, newDate]
+     */
+    public int enqueueBecameDue(LocalDate previousDate, LocalDate newDate) {
+        if (newDate == null) {
+            return 0;
+        }
+        if (previousDate == null) {
+            return backfill(newDate);
+        }
+        if (!newDate.isAfter(previousDate)) {
+            return 0;
+        }
+
+        int count = jdbcTemplate.update(ENQUEUE_DUE_RANGE,
+                Date.valueOf(newDate), Date.valueOf(previousDate), Date.valueOf(newDate));
+        log.info("📥 System date {} → {}: enqueued {} repayments for billing", previousDate, newDate, count);
+        return count;
+    }
+
+    /**
+     * 🔹 Enqueue every unbilled repayment due up to the given date (full scan, one-off)
+     */
+    public int backfill(LocalDate upTo) {
+        int count = jdbcTemplate.update(ENQUEUE_ALL_DUE, Date.valueOf(upTo), Date.valueOf(upTo));
+        log.info("📥 Billing queue backfill up to {}: enqueued {} repayments", upTo, count);
+        return count;
+    }
+
+    /**
+     * 🔹 Remove billed repayments from the queue (call inside the billing transaction)
+     */
+    public void dequeue(List<Long> repaymentIds) {
+        if (repaymentIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(DEQUEUE_REPAYMENT, repaymentIds, repaymentIds.size(),
+                (ps, id) -> ps.setLong(1, id));
+    }
+
+    /**
+     * 🔹 Drop queue rows whose repayment is already billed
+     */
+    public int purgeBilled() {
+        return jdbcTemplate.update(PURGE_BILLED);
+    }
+
+    /**
+     * 🔹 On startup in QUEUE mode, pick up anything that became due before the queue existed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (isEnabled()) {
+            systemDateRepository.findTopByOrderByIdDesc()
+                    .map(SystemDate::getCurrentDate)
+                    .ifPresent(this::backfill);
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.corebank.coreb.entity.Repayment;
 import com.corebank.coreb.repository.BillingRepository;
 import com.corebank.coreb.repository.JobRepository;
 import com.corebank.coreb.repository.RepaymentRepository;
+import com.corebank.coreb.util.BillingRules;
 
 import jakarta.transaction.Transactional;
 import lombok.extern.slf4j.Slf4j;
@@ -38,6 +39,9 @@ public class BillingService {
     @Autowired
     private SystemDateService systemDateService;
 
+    @Autowired
+    private BillingQueueService billingQueueService;
+
     /**
      * 🔹 Run billing without job (manual API call)
      */
@@ -81,13 +85,16 @@ public class BillingService {
 
         List<BillingDTO> billingRecords = new ArrayList<>();
         int processedCount = 0;
+        int failedCount = 0;
 
         try {
             /*
              * 🔹 Fetch repayments that need billing
              */
-            List<Repayment> repayments = repaymentRepository
-                    .findByBillingDoneFalseAndDueDateLessThanEqual(billingDate);
+            boolean queued = billingQueueService.isEnabled();
+            List<Repayment> repayments = queued
+                    ? repaymentRepository.findQueuedForBilling(billingDate)
+                    : repaymentRepository.findByBillingDoneFalseAndDueDateLessThanEqual(billingDate);
 
             if (repayments.isEmpty()) {
                 remarks = "ℹ️ No repayments found for billing date: " + billingDate;
@@ -101,7 +108,7 @@ public class BillingService {
                 }
 
                 return new BillingResponseDTO(
-                        billingDate, 0, remarks, billingRecords
+                        billingDate, 0, remarks, billingRecords, 0, 0
                 );
             }
 
@@ -120,10 +127,10 @@ public class BillingService {
                     BigDecimal totalDue = expectedPrincipal.add(expectedInterest);
 
                     BigDecimal newRemainingPrincipal =
-                            remainingPrincipal.subtract(principalPaid).max(BigDecimal.ZERO);
+                            BillingRules.remainingPrincipal(remainingPrincipal, principalPaid);
 
                     BigDecimal newOutstandingInterest =
-                            expectedInterest.subtract(interestPaid).max(BigDecimal.ZERO);
+                            BillingRules.outstandingInterest(expectedInterest, interestPaid);
 
                     repayment.setRemainingPrincipal(newRemainingPrincipal);
                     repayment.setOutstandingInterest(newOutstandingInterest);
@@ -131,15 +138,8 @@ public class BillingService {
                     /*
                      * 🔹 Update repayment status
                      */
-                    if (amountPaid.compareTo(totalDue) >= 0) {
-                        repayment.setStatus("PAID");
-                    } else if (billingDate.isAfter(repayment.getDueDate())) {
-                        repayment.setStatus("OVERDUE");
-                    } else if (amountPaid.compareTo(BigDecimal.ZERO) > 0) {
-                        repayment.setStatus("PARTIAL");
-                    } else {
-                        repayment.setStatus("UNPAID");
-                    }
+                    repayment.setStatus(BillingRules.resolveStatus(
+                            amountPaid, totalDue, billingDate, repayment.getDueDate()));
 
                     /*
                      * 🔹 Create Billing record
@@ -177,6 +177,7 @@ public class BillingService {
                     processedCount++;
 
                 } catch (Exception ex) {
+                    failedCount++;
                     log.error("❌ Error processing repayment ID {}: {}",
                             repayment.getRepaymentId(),
                             ex.getMessage()
@@ -184,6 +185,10 @@ public class BillingService {
                 }
             }
 
+            if (queued) {
+                billingQueueService.dequeue(billingRecords.stream().map(BillingDTO::getRepaymentId).toList());
+            }
+
             remarks = "✅ Billing completed successfully for " + processedCount +
                     " repayments (System Date: " + billingDate + ")";
             log.info(remarks);
@@ -215,7 +220,7 @@ public class BillingService {
         }
 
         return new BillingResponseDTO(
-                billingDate, processedCount, remarks, billingRecords
+                billingDate, processedCount, remarks, billingRecords, failedCount, 0
         );
     }
 
@@ -223,6 +228,6 @@ public class BillingService {
      * 🔹 Safe BigDecimal (prevents null pointer)
      */
     private BigDecimal safe(BigDecimal value) {
-        return value != null ? value : BigDecimal.ZERO;
+        return BillingRules.safe(value);
     }
 }
@@ -0,0 +1,304 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.BillingSimulationDTO;
+import com.corebank.coreb.dto.BillingSimulationRowDTO;
+import com.corebank.coreb.util.AmortizationEngine;
+import com.corebank.coreb.util.BillingRules;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * 🔹 Billing dry run
+ *
+ * Loads the due set as primitive columns (paise, epoch days, branch index),
+ * applies BillingRules in parallel slices and returns totals per branch and
+ * status. Read-only JDBC: no Billing rows, no entities, no persistence context.
+ * Lazy-schedule installments due by the date but not written yet are computed
+ * and counted as unpaid rows.
+ */
+@Slf4j
+@Service
+public class BillingSimulationService {
+
+    // Amounts as paise and due date as epoch day, so rows load without BigDecimal / LocalDate
+    private static final String SELECT_DUE_PROJECTION =
+            "SELECT COALESCE(l.branch_id, 0) AS branch_id, " +
+            "       r.due_date - DATE '1970-01-01' AS due_day, " +
+            "       CAST(ROUND((COALESCE(r.expected_principal, 0) + COALESCE(r.expected_interest, 0)) * 100) AS bigint) AS total_due, " +
+            "       CAST(ROUND(COALESCE(r.amount_paid, 0) * 100) AS bigint) AS amount_paid " +
+            "FROM repayment r JOIN loan l ON l.loan_id = r.loan_id " +
+            "WHERE r.billing_done = false AND r.due_date <= ?";
+
+    // Terms of lazy loans with installments due but not written yet (what materializeDue would pick up)
+    private static final String SELECT_PENDING_LOANS =
+            "SELECT COALESCE(l.branch_id, 0) AS branch_id, l.principal, l.interest_rate, l.tenure_months, " +
+            "       l.start_date, l.schedule_method, COALESCE(l.materialized_installments, 0) AS materialized " +
+            "FROM loan l " +
+            "WHERE l.schedule_mode = '" + RepaymentMaterializer.LAZY + "' AND l.next_materialize_date <= ? " +
+            "  AND UPPER(l.status) = 'ACTIVE'";
+
+    private static final String SELECT_BRANCH_NAMES =
+            "SELECT branch_id, name FROM branch";
+
+    private static final int FETCH_SIZE = 5000;
+
+    // Rows per parallel slice
+    private static final int SLICE_SIZE = 50_000;
+
+    // Accumulator columns per (branch, status) cell
+    private static final int COUNT = 0;
+    private static final int DUE = 1;
+    private static final int PAID = 2;
+    private static final int OUTSTANDING = 3;
+    private static final int COLUMNS = 4;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private SystemDateService systemDateService;
+
+    @Autowired
+    private RepaymentScheduleBuilder repaymentScheduleBuilder;
+
+    /**
+     * 🔹 Simulate the next scheduled run (system date + 1, after the midnight rollover)
+     */
+    public BillingSimulationDTO simulateNextRun() {
+        return simulate(systemDateService.getSystemDate().plusDays(1));
+    }
+
+    /**
+     * 🔹 Totals a billing run on the given date would produce right now
+     */
+    public BillingSimulationDTO simulate(LocalDate billingDate) {
+
+        log.info("🧮 Simulating billing for {}", billingDate);
+
+        TransactionTemplate readOnlyTx = new TransactionTemplate(transactionManager);
+        readOnlyTx.setReadOnly(true);
+
+        // Read-only transaction so the driver can stream the projection with a fetch size
+        DueProjection projection = readOnlyTx.execute(status -> loadProjection(billingDate));
+
+        long billingDay = billingDate.toEpochDay();
+        int cells = projection.branchIds.size() * BillingRules.STATUSES.length;
+        int slices = (projection.size + SLICE_SIZE - 1) / SLICE_SIZE;
+
+        long[] totals = IntStream.range(0, slices)
+                .parallel()
+                .mapToObj(slice -> accumulate(projection, billingDay, cells,
+                        slice * SLICE_SIZE, Math.min(projection.size, (slice + 1) * SLICE_SIZE)))
+                .reduce(new long[cells * COLUMNS], BillingSimulationService::merge);
+
+        return toDTO(billingDate, projection, totals);
+    }
+
+    /**
+     * 🔹 Load the due set into primitive arrays (branch ids mapped to dense indexes)
+     */
+    private DueProjection loadProjection(LocalDate billingDate) {
+
+        DueProjection projection = new DueProjection();
+        Map<Long, Integer> branchIndex = new HashMap<>();
+
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(SELECT_DUE_PROJECTION);
+                    ps.setFetchSize(FETCH_SIZE);
+                    ps.setDate(1, Date.valueOf(billingDate));
+                    return ps;
+                },
+                rs -> {
+                    long branchId = rs.getLong("branch_id");
+                    int branch = branchIndex.computeIfAbsent(branchId, id -> {
+                        projection.branchIds.add(id);
+                        return projection.branchIds.size() - 1;
+                    });
+                    projection.add(branch, rs.getLong("due_day"), rs.getLong("total_due"), rs.getLong("amount_paid"));
+                }
+        );
+
+        int written = projection.size;
+        loadPending(billingDate, projection, branchIndex);
+
+        log.info("🧮 Loaded {} due repayments ({} not materialized yet) across {} branches",
+                projection.size, projection.size - written, projection.branchIds.size());
+        return projection;
+    }
+
+    /**
+     * 🔹 Add the installments a billing run would materialize first (lazy schedules),
+     *    recomputed from each loan's terms in paise as unpaid rows
+     */
+    private void loadPending(LocalDate billingDate, DueProjection projection, Map<Long, Integer> branchIndex) {
+
+        long billingDay = billingDate.toEpochDay();
+
+        jdbcTemplate.query(
+                con -> {
+                    PreparedStatement ps = con.prepareStatement(SELECT_PENDING_LOANS);
+                    ps.setFetchSize(FETCH_SIZE);
+                    ps.setDate(1, Date.valueOf(billingDate));
+                    return ps;
+                },
+                rs -> {
+                    Date start = rs.getDate("start_date");
+                    if (start == null) {
+                        return;
+                    }
+                    long branchId = rs.getLong("branch_id");
+                    int tenure = rs.getInt("tenure_months");
+                    LocalDate startDate = start.toLocalDate();
+
+                    // Same terms and rounding as RepaymentScheduleBuilder.build
+                    AmortizationEngine.Schedule plan = repaymentScheduleBuilder.plan(
+                            rs.getString("schedule_method"),
+                            AmortizationEngine.toMinor(rs.getBigDecimal("principal")),
+                            tenure,
+                            AmortizationEngine.monthlyRate(rs.getBigDecimal("interest_rate")));
+
+                    int branch = branchIndex.computeIfAbsent(branchId, id -> {
+                        projection.branchIds.add(id);
+                        return projection.branchIds.size() - 1;
+                    });
+                    for (int i = rs.getInt("materialized"); i < tenure; i++) {
+                        long dueDay = startDate.plusMonths(i + 1).toEpochDay();
+                        if (dueDay > billingDay) {
+                            break;
+                        }
+                        projection.add(branch, dueDay, plan.total(i), 0L);
+                    }
+                }
+        );
+    }
+
+    /**
+     * 🔹 Apply the status rule to rows [from, to) and sum per (branch, status) cell
+     */
+    private static long[] accumulate(DueProjection p, long billingDay, int cells, int from, int to) {
+        long[] totals = new long[cells * COLUMNS];
+        int statusCount = BillingRules.STATUSES.length;
+
+        for (int i = from; i < to; i++) {
+            long due = p.totalDue[i];
+            long paid = p.amountPaid[i];
+            int status = BillingRules.resolveStatusIndex(paid, due, billingDay, p.dueDay[i]);
+
+            int cell = (p.branch[i] * statusCount + status) * COLUMNS;
+            totals[cell + COUNT]++;
+            totals[cell + DUE] += due;
+            totals[cell + PAID] += paid;
+            totals[cell + OUTSTANDING] += Math.max(0, due - paid);
+        }
+        return totals;
+    }
+
+    private static long[] merge(long[] a, long[] b) {
+        long[] sum = new long[a.length];
+        for (int i = 0; i < a.length; i++) {
+            sum[i] = a[i] + b[i];
+        }
+        return sum;
+    }
+
+    /**
+     * 🔹 Convert the accumulator into per-branch / per-status rows plus grand totals
+     */
+    private BillingSimulationDTO toDTO(LocalDate billingDate, DueProjection projection, long[] totals) {
+
+        Map<Long, String> branchNames = new HashMap<>();
+        jdbcTemplate.query(SELECT_BRANCH_NAMES, rs -> {
+            branchNames.put(rs.getLong("branch_id"), rs.getString("name"));
+        });
+
+        List<BillingSimulationRowDTO> rows = new ArrayList<>();
+        long count = 0;
+        long due = 0;
+        long paid = 0;
+        long outstanding = 0;
+
+        for (int branch = 0; branch < projection.branchIds.size(); branch++) {
+            long branchId = projection.branchIds.get(branch);
+
+            for (int status = 0; status < BillingRules.STATUSES.length; status++) {
+                int cell = (branch * BillingRules.STATUSES.length + status) * COLUMNS;
+                if (totals[cell + COUNT] == 0) {
+                    continue;
+                }
+
+                rows.add(new BillingSimulationRowDTO(
+                        branchId != 0 ? branchId : null,
+                        branchNames.get(branchId),
+                        BillingRules.STATUSES[status],
+                        totals[cell + COUNT],
+                        toAmount(totals[cell + DUE]),
+                        toAmount(totals[cell + PAID]),
+                        toAmount(totals[cell + OUTSTANDING])
+                ));
+
+                count += totals[cell + COUNT];
+                due += totals[cell + DUE];
+                paid += totals[cell + PAID];
+                outstanding += totals[cell + OUTSTANDING];
+            }
+        }
+
+        return new BillingSimulationDTO(
+                billingDate, count, toAmount(due), toAmount(paid), toAmount(outstanding), rows
+        );
+    }
+
+    private static BigDecimal toAmount(long paise) {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    /**
+     * 🔹 Due repayments as parallel primitive columns (grown by doubling)
+     */
+    private static final class DueProjection {
+
+        private final List<Long> branchIds = new ArrayList<>();
+
+        private int size;
+        private int[] branch = new int[1024];
+        private long[] dueDay = new long[1024];
+        private long[] totalDue = new long[1024];
+        private long[] amountPaid = new long[1024];
+
+        void add(int branchIndex, long day, long due, long paid) {
+            if (size == branch.length) {
+                int capacity = size * 2;
+                branch = Arrays.copyOf(branch, capacity);
+                dueDay = Arrays.copyOf(dueDay, capacity);
+                totalDue = Arrays.copyOf(totalDue, capacity);
+                amountPaid = Arrays.copyOf(amountPaid, capacity);
+            }
+            branch[size] = branchIndex;
+            dueDay[size] = day;
+            totalDue[size] = due;
+            amountPaid[size] = paid;
+            size++;
+        }
+    }
+}
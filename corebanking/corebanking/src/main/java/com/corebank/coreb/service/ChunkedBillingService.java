@@ -0,0 +1,394 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.BillingDTO;
+import com.corebank.coreb.dto.BillingResponseDTO;
+import com.corebank.coreb.entity.JobPartition;
+import com.corebank.coreb.util.BillingRules;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 🔹 Chunked billing engine
+ *
+ * Reads due repayments as plain rows in keyset chunks (repayment_id > last id),
+ * writes Billing inserts and Repayment updates as JDBC batches and commits
+ * each chunk on its own, so heap use and transaction size stay bounded.
+ * With billing.source=QUEUE the chunks come from billing_queue instead.
+ */
+@Slf4j
+@Service
+public class ChunkedBillingService {
+
+    private static final String SELECT_DUE_COLUMNS =
+            "SELECT r.repayment_id, r.loan_id, r.due_date, r.expected_principal, r.expected_interest, " +
+            "       r.amount_paid, r.principal_paid, r.interest_paid, r.remaining_principal, r.version ";
+
+    private static final String FROM_REPAYMENT =
+            "FROM repayment r ";
+
+    private static final String FROM_QUEUE =
+            "FROM billing_queue q JOIN repayment r ON r.repayment_id = q.repayment_id ";
+
+    private static final String JOIN_LOAN_BRANCH =
+            "JOIN loan l ON l.loan_id = r.loan_id AND l.branch_id = ? ";
+
+    private static final String WHERE_DUE =
+            "WHERE r.billing_done = false AND r.due_date <= ? AND r.repayment_id > ? ";
+
+    private static final String WHERE_QUEUED =
+            "WHERE r.billing_done = false AND q.due_date <= ? AND r.repayment_id > ? ";
+
+    private static final String AND_LOAN_RANGE =
+            "AND r.loan_id BETWEEN ? AND ? ";
+
+    private static final String ORDER_AND_LIMIT =
+            "ORDER BY r.repayment_id LIMIT ?";
+
+    private static final String INSERT_BILLING =
+            "INSERT INTO billing (loan_id, repayment_id, billing_date, due_date, amount_due, " +
+            "                     amount_paid, status, billing_done, remarks) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, true, ?)";
+
+    private static final String UPDATE_CHECKPOINT =
+            "UPDATE job_partition SET last_repayment_id = ?, processed_count = ?, heartbeat_at = ? WHERE partition_id = ?";
+
+    private static final String UPDATE_CHECKPOINT_COUNT =
+            "UPDATE job_partition SET processed_count = ?, heartbeat_at = ? WHERE partition_id = ?";
+
+    private static final String UPDATE_REPAYMENT =
+            "UPDATE repayment SET remaining_principal = ?, outstanding_interest = ?, status = ?, " +
+            "                     billing_done = true, version = version + 1 " +
+            "WHERE repayment_id = ? AND billing_done = false AND version = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BillingQueueService billingQueueService;
+
+    @Value("${billing.chunk-size:1000}")
+    private int chunkSize;
+
+    /**
+     * 🔹 Bill every repayment due on or before the billing date, chunk by chunk
+     */
+    public BillingResponseDTO generateBilling(LocalDate billingDate) {
+        return generateBilling(billingDate, BillingPartition.ALL);
+    }
+
+    /**
+     * 🔹 Bill the due repayments of one partition, chunk by chunk
+     */
+    public BillingResponseDTO generateBilling(LocalDate billingDate, BillingPartition partition) {
+        return generateBilling(billingDate, partition, null, null);
+    }
+
+    /**
+     * 🔹 Bill one partition, checkpointing after every committed chunk
+     *
+     * The checkpoint row (may be null) is updated in the same transaction as
+     * the chunk, so after a crash it never points past uncommitted work.
+     * A run with an existing checkpoint starts right after it.
+     *
+     * With a sink (may be null) every committed chunk is handed to it instead
+     * of being collected, and billedRecords of the result stays null.
+     */
+    public BillingResponseDTO generateBilling(LocalDate billingDate, BillingPartition partition,
+                                              JobPartition checkpoint, Consumer<List<BillingDTO>> sink) {
+
+        TransactionTemplate chunkTx = new TransactionTemplate(transactionManager);
+
+        List<BillingDTO> billingRecords = new ArrayList<>();
+        int processedCount = 0;
+        int failedCount = 0;
+        long lastRepaymentId = 0L;
+        int checkpointBase = 0;
+
+        if (checkpoint != null) {
+            if (checkpoint.getLastRepaymentId() != null) {
+                lastRepaymentId = checkpoint.getLastRepaymentId();
+                log.info("⏩ [{}] Resuming billing after repayment ID {}", partition.key(), lastRepaymentId);
+            }
+            if (checkpoint.getProcessedCount() != null) {
+                checkpointBase = checkpoint.getProcessedCount();
+            }
+        }
+
+        // Once a chunk fails the checkpoint stays before it, so a resume retries that chunk
+        boolean checkpointPinned = false;
+
+        while (true) {
+            List<DueRepayment> chunk = fetchChunk(billingDate, partition, lastRepaymentId);
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            long firstRepaymentId = chunk.get(0).repaymentId();
+            lastRepaymentId = chunk.get(chunk.size() - 1).repaymentId();
+
+            final long chunkLastId = lastRepaymentId;
+            final boolean advanceCheckpoint = !checkpointPinned;
+            final int processedBefore = checkpointBase + processedCount;
+
+            List<BillingDTO> billed = null;
+            try {
+                billed = chunkTx.execute(status -> {
+                    List<BillingDTO> rows = writeChunk(chunk, billingDate);
+                    if (checkpoint != null) {
+                        saveCheckpoint(checkpoint, advanceCheckpoint, chunkLastId, processedBefore + rows.size());
+                    }
+                    return rows;
+                });
+                processedCount += billed.size();
+
+                if (checkpoint != null) {
+                    if (advanceCheckpoint) {
+                        checkpoint.setLastRepaymentId(chunkLastId);
+                    }
+                    checkpoint.setProcessedCount(processedBefore + billed.size());
+                    checkpoint.setHeartbeatAt(LocalDateTime.now());
+                }
+            } catch (Exception ex) {
+                // Chunk is rolled back as a whole; its rows stay unbilled for the next run
+                failedCount += chunk.size();
+                checkpointPinned = true;
+                log.error("❌ Error billing repayments {}..{} [{}]: {}",
+                        firstRepaymentId, lastRepaymentId, partition.key(), ex.getMessage());
+            }
+
+            // Outside the try: the chunk is committed, a failing sink must not count it as unbilled
+            if (billed != null) {
+                if (sink != null) {
+                    sink.accept(billed);
+                } else {
+                    billingRecords.addAll(billed);
+                }
+            }
+
+            if (chunk.size() < chunkSize) {
+                break;
+            }
+        }
+
+        String remarks;
+        if (processedCount == 0 && failedCount == 0) {
+            remarks = "ℹ️ No repayments found for billing date: " + billingDate;
+        } else {
+            remarks = "✅ Billing completed successfully for " + processedCount +
+                    " repayments (System Date: " + billingDate + ")";
+            if (failedCount > 0) {
+                remarks += " | ⚠️ " + failedCount + " repayments left unbilled (failed chunks)";
+            }
+        }
+        if (partition != BillingPartition.ALL) {
+            remarks = "[" + partition.key() + "] " + remarks;
+        }
+        log.info(remarks);
+
+        return new BillingResponseDTO(
+                billingDate, processedCount, remarks, sink != null ? null : billingRecords, failedCount, 0
+        );
+    }
+
+    /**
+     * 🔹 Persist the checkpoint inside the chunk transaction
+     */
+    private void saveCheckpoint(JobPartition checkpoint, boolean advance, long lastRepaymentId, int processed) {
+        // heartbeat_at doubles as liveness: a RUNNING job whose heartbeat went stale is resumable
+        Timestamp heartbeat = Timestamp.valueOf(LocalDateTime.now());
+        if (advance) {
+            jdbcTemplate.update(UPDATE_CHECKPOINT, lastRepaymentId, processed, heartbeat, checkpoint.getPartitionId());
+        } else {
+            jdbcTemplate.update(UPDATE_CHECKPOINT_COUNT, processed, heartbeat, checkpoint.getPartitionId());
+        }
+    }
+
+    /**
+     * 🔹 Next keyset chunk of due repayments (no entities, no persistence context)
+     */
+    private List<DueRepayment> fetchChunk(LocalDate billingDate, BillingPartition partition,
+                                          long afterRepaymentId) {
+        boolean queued = billingQueueService.isEnabled();
+
+        StringBuilder sql = new StringBuilder(SELECT_DUE_COLUMNS);
+        sql.append(queued ? FROM_QUEUE : FROM_REPAYMENT);
+        List<Object> args = new ArrayList<>();
+
+        if (partition.branchId() != null) {
+            sql.append(JOIN_LOAN_BRANCH);
+            args.add(partition.branchId());
+        }
+
+        sql.append(queued ? WHERE_QUEUED : WHERE_DUE);
+        args.add(Date.valueOf(billingDate));
+        args.add(afterRepaymentId);
+
+        if (partition.minLoanId() != null && partition.maxLoanId() != null) {
+            sql.append(AND_LOAN_RANGE);
+            args.add(partition.minLoanId());
+            args.add(partition.maxLoanId());
+        }
+
+        sql.append(ORDER_AND_LIMIT);
+        args.add(chunkSize);
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> DueRepayment.from(rs), args.toArray());
+    }
+
+    /**
+     * 🔹 Apply billing rules and write one chunk as two JDBC batches
+     *
+     * The repayment update runs first and only matches rows still unbilled at
+     * the version the chunk read: a row another run billed, or a payment
+     * changed, since then updates nothing and gets no billing row (a changed
+     * row stays unbilled for the next run instead of being billed from stale values).
+     */
+    private List<BillingDTO> writeChunk(List<DueRepayment> chunk, LocalDate billingDate) {
+
+        String remarks = "Auto-generated billing on system date: " + billingDate;
+        List<BilledRepayment> candidates = chunk.stream()
+                .map(r -> r.bill(billingDate))
+                .toList();
+
+        int[][] updated = jdbcTemplate.batchUpdate(UPDATE_REPAYMENT, candidates, candidates.size(), (ps, b) -> {
+            ps.setBigDecimal(1, b.remainingPrincipal());
+            ps.setBigDecimal(2, b.outstandingInterest());
+            ps.setString(3, b.status());
+            ps.setLong(4, b.due().repaymentId());
+            ps.setLong(5, b.due().version());
+        });
+
+        List<BilledRepayment> billed = new ArrayList<>(candidates.size());
+        int skipped = 0;
+        for (int i = 0; i < candidates.size(); i++) {
+            // SUCCESS_NO_INFO (-2): the driver did not report a count, the row was updated
+            if (updated[0][i] != 0) {
+                billed.add(candidates.get(i));
+            } else {
+                skipped++;
+            }
+        }
+        if (skipped > 0) {
+            log.warn("⚠️ {} repayments billed or changed by another transaction, skipped", skipped);
+        }
+
+        KeyHolder billingKeys = new GeneratedKeyHolder();
+        if (!billed.isEmpty()) {
+            jdbcTemplate.batchUpdate(
+                    con -> con.prepareStatement(INSERT_BILLING, new String[]{"billing_id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            BilledRepayment b = billed.get(i);
+                            ps.setLong(1, b.due().loanId());
+                            ps.setLong(2, b.due().repaymentId());
+                            ps.setDate(3, Date.valueOf(billingDate));
+                            ps.setDate(4, Date.valueOf(b.due().dueDate()));
+                            ps.setBigDecimal(5, b.totalDue());
+                            ps.setBigDecimal(6, b.due().amountPaid());
+                            ps.setString(7, b.status());
+                            ps.setString(8, remarks);
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return billed.size();
+                        }
+                    },
+                    billingKeys
+            );
+        }
+
+        if (billingQueueService.isEnabled()) {
+            // Skipped rows stay queued: a changed row is billed by the next run (billed ones are purged)
+            billingQueueService.dequeue(billed.stream().map(b -> b.due().repaymentId()).toList());
+        }
+
+        List<Map<String, Object>> keys = billingKeys.getKeyList();
+        List<BillingDTO> records = new ArrayList<>(billed.size());
+        for (int i = 0; i < billed.size(); i++) {
+            BilledRepayment b = billed.get(i);
+            Object billingId = i < keys.size() ? keys.get(i).get("billing_id") : null;
+            records.add(new BillingDTO(
+                    billingId != null ? ((Number) billingId).longValue() : null,
+                    b.due().loanId(),
+                    b.due().repaymentId(),
+                    billingDate,
+                    b.totalDue(),
+                    b.due().amountPaid(),
+                    b.status(),
+                    remarks
+            ));
+        }
+        return records;
+    }
+
+    /**
+     * 🔹 Due repayment row as read from the database
+     */
+    private record DueRepayment(long repaymentId, long loanId, LocalDate dueDate,
+                                BigDecimal expectedPrincipal, BigDecimal expectedInterest,
+                                BigDecimal amountPaid, BigDecimal principalPaid,
+                                BigDecimal interestPaid, BigDecimal remainingPrincipal, long version) {
+
+        static DueRepayment from(ResultSet rs) throws SQLException {
+            return new DueRepayment(
+                    rs.getLong("repayment_id"),
+                    rs.getLong("loan_id"),
+                    rs.getDate("due_date").toLocalDate(),
+                    BillingRules.safe(rs.getBigDecimal("expected_principal")),
+                    BillingRules.safe(rs.getBigDecimal("expected_interest")),
+                    BillingRules.safe(rs.getBigDecimal("amount_paid")),
+                    BillingRules.safe(rs.getBigDecimal("principal_paid")),
+                    BillingRules.safe(rs.getBigDecimal("interest_paid")),
+                    BillingRules.safe(rs.getBigDecimal("remaining_principal")),
+                    rs.getLong("version")
+            );
+        }
+
+        BilledRepayment bill(LocalDate billingDate) {
+            BigDecimal totalDue = expectedPrincipal.add(expectedInterest);
+            return new BilledRepayment(
+                    this,
+                    totalDue,
+                    BillingRules.remainingPrincipal(remainingPrincipal, principalPaid),
+                    BillingRules.outstandingInterest(expectedInterest, interestPaid),
+                    BillingRules.resolveStatus(amountPaid, totalDue, billingDate, dueDate)
+            );
+        }
+    }
+
+    /**
+     * 🔹 Values written back for one billed repayment
+     */
+    private record BilledRepayment(DueRepayment due, BigDecimal totalDue,
+                                   BigDecimal remainingPrincipal, BigDecimal outstandingInterest,
+                                   String status) {
+    }
+}
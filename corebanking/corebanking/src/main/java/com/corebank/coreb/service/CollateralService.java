@@ -35,6 +35,9 @@ public class CollateralService {
     @Autowired
     private SystemDateRepository systemDateRepository;
 
+    @Autowired
+    private LoanRepricingService loanRepricingService;
+
     // --------------------
     // Get Centralized System Date
     // --------------------
@@ -76,8 +79,11 @@ public class CollateralService {
         // Reduce loan interest by 1% if collateral is added
         // --------------------
         BigDecimal currentRate = loan.getInterestRate();
-        BigDecimal newRate = currentRate.subtract(BigDecimal.valueOf(1.0));
-        loan.setInterestRate(newRate.max(BigDecimal.ZERO)); // prevent negative rate
+        BigDecimal newRate = currentRate.subtract(BigDecimal.valueOf(1.0)).max(BigDecimal.ZERO); // prevent negative rate
+
+        // Open installments follow the new rate; the loan keeps its old rate until they are repriced
+        // (lazy schedules are materialized at the rate they were built with), then takes the new one
+        loanRepricingService.repriceLoan(loan, newRate);
         loanRepository.save(loan);
 
         return mapToDTO(saved);
@@ -0,0 +1,627 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.CollectionBatchDTO;
+import com.corebank.coreb.entity.Loan;
+import com.corebank.coreb.entity.Repayment;
+import com.corebank.coreb.enums.CollectionFileFormat;
+import com.corebank.coreb.repository.RepaymentRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 🔹 Collections file ingestion (auto-debit / NACH style)
+ *
+ * The upload is read line by line and never held in memory: each line is
+ * validated and spooled to one of N bucket files by loan id, so every line of
+ * a loan lands in the same bucket. Buckets are then posted in parallel, each
+ * on its own thread in chunks of one transaction (one query loads the chunk's
+ * repayments; Hibernate flushes the updates as JDBC batches). A chunk that
+ * fails is replayed line by line through RepaymentPostingService (loan lock +
+ * retry). Per-line results are merged back into file order as result.csv.
+ * A batch directory is removed when ingestion fails, otherwise it is purged
+ * by CollectionCleanupJob after the retention period.
+ */
+@Slf4j
+@Service
+public class CollectionFileService {
+
+    public static final String POSTED = "POSTED";
+    public static final String REJECTED = "REJECTED";
+    public static final String FAILED = "FAILED";
+
+    private static final String RESULT_FILE = "result.csv";
+    private static final String REJECTS_FILE = "rejects.csv";
+
+    private static final String RESULT_HEADER =
+            "line,reference,loan_id,repayment_id,amount,result,repayment_status,message";
+
+    // Fixed-width layout: end column (exclusive, 0-based) of each field
+    private static final int REFERENCE_END = 20;
+    private static final int LOAN_ID_END = 32;
+    private static final int REPAYMENT_ID_END = 44;
+    private static final int AMOUNT_END = 57;
+
+    @Autowired
+    private RepaymentRepository repaymentRepository;
+
+    @Autowired
+    private RepaymentService repaymentService;
+
+    @Autowired
+    private RepaymentPostingService repaymentPostingService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${collections.work-dir:${java.io.tmpdir}/corebank-collections}")
+    private String workDir;
+
+    @Value("${collections.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${collections.partition.count:8}")
+    private int partitionCount;
+
+    @Value("${collections.partition.parallelism:4}")
+    private int parallelism;
+
+    @Value("${collections.retention-days:7}")
+    private int retentionDays;
+
+    /**
+     * 🔹 Validate and post every line of a collections file; per-line results go to the batch's result file
+     */
+    public CollectionBatchDTO ingest(MultipartFile file, CollectionFileFormat format) {
+
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("Collections file is empty");
+        }
+
+        String batchId = UUID.randomUUID().toString();
+        Path dir = Paths.get(workDir, batchId);
+        int partitions = Math.max(1, partitionCount);
+        LocalDateTime startedAt = LocalDateTime.now();
+
+        log.info("📥 Collections file {} ({} bytes, {}) | Batch: {}",
+                file.getOriginalFilename(), file.getSize(), format, batchId);
+
+        boolean completed = false;
+        try {
+            Files.createDirectories(dir);
+
+            Tally tally = spool(file, format, dir, partitions);
+            tally.merge(postBuckets(dir, partitions));
+            mergeResults(dir, partitions);
+
+            log.info("✅ Collections batch {}: {} lines | {} posted ({}) | {} rejected | {} failed",
+                    batchId, tally.lines(), tally.posted, tally.amountPosted, tally.rejected, tally.failed);
+            completed = true;
+
+            return new CollectionBatchDTO(
+                    batchId, file.getOriginalFilename(), format, tally.lines(), tally.posted, tally.rejected,
+                    tally.failed, tally.amountPosted, startedAt, LocalDateTime.now(),
+                    "/api/repayments/collections/" + batchId + "/result"
+            );
+
+        } catch (IOException e) {
+            log.error("❌ Collections batch {} failed: {}", batchId, e.getMessage());
+            throw new RuntimeException("Collections file could not be processed: " + e.getMessage(), e);
+        } finally {
+            // No result file will ever be served for a failed batch: drop its spool and partial results
+            if (!completed) {
+                deleteBatch(dir);
+            }
+        }
+    }
+
+    /**
+     * 🔹 Result file of a processed batch
+     */
+    public Path resultFile(String batchId) {
+        try {
+            UUID.fromString(batchId); // also keeps the id from naming anything outside the work directory
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid batch id");
+        }
+
+        Path result = Paths.get(workDir, batchId, RESULT_FILE);
+        if (!Files.isRegularFile(result)) {
+            throw new RuntimeException("Result file not found for batch " + batchId);
+        }
+        return result;
+    }
+
+    /**
+     * 🔹 Remove batch directories older than the retention period; returns batches removed
+     */
+    public int purgeExpired() throws IOException {
+        Path root = Paths.get(workDir);
+        if (!Files.isDirectory(root)) {
+            return 0;
+        }
+
+        FileTime cutoff = FileTime.from(Instant.now().minus(retentionDays, ChronoUnit.DAYS));
+        int purged = 0;
+        try (Stream<Path> batches = Files.list(root)) {
+            for (Path dir : batches.filter(Files::isDirectory).toList()) {
+                if (isBatchId(dir.getFileName().toString())
+                        && Files.getLastModifiedTime(dir).compareTo(cutoff) < 0) {
+                    deleteBatch(dir);
+                    purged++;
+                }
+            }
+        }
+        return purged;
+    }
+
+    // Only directories this service created (named by batch id) are ever deleted
+    private static boolean isBatchId(String name) {
+        try {
+            UUID.fromString(name);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static void deleteBatch(Path dir) {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("⚠️ Could not delete collections batch {}: {}", dir, e.getMessage());
+        }
+    }
+
+    // --------------------
+    // Pass 1: parse, validate, spool by loan
+    // --------------------
+
+    private Tally spool(MultipartFile file, CollectionFileFormat format, Path dir, int partitions) throws IOException {
+        Tally tally = new Tally();
+        BufferedWriter[] buckets = new BufferedWriter[partitions];
+
+        try (BufferedReader reader = new BufferedReader(
+                     new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8));
+             BufferedWriter rejects = Files.newBufferedWriter(dir.resolve(REJECTS_FILE))) {
+
+            for (int i = 0; i < partitions; i++) {
+                buckets[i] = Files.newBufferedWriter(bucketFile(dir, i));
+            }
+
+            String raw;
+            long lineNo = 0;
+            boolean first = true;
+
+            while ((raw = reader.readLine()) != null) {
+                lineNo++;
+                if (raw.isBlank()) {
+                    continue;
+                }
+                if (first && format == CollectionFileFormat.CSV && raw.trim().toLowerCase().startsWith("reference")) {
+                    first = false;
+                    continue; // header
+                }
+                first = false;
+
+                CollectionLine line;
+                try {
+                    line = parse(raw, format, lineNo);
+                } catch (IllegalArgumentException e) {
+                    LineResult result = new LineResult(lineNo, leadingReference(raw, format),
+                            null, null, null, REJECTED, null, e.getMessage());
+                    rejects.write(result.toCsv());
+                    rejects.newLine();
+                    tally.add(result);
+                    continue;
+                }
+
+                BufferedWriter bucket = buckets[(int) Math.floorMod(line.loanId(), (long) partitions)];
+                bucket.write(line.toSpool());
+                bucket.newLine();
+            }
+        } finally {
+            closeAll(buckets);
+        }
+        return tally;
+    }
+
+    private CollectionLine parse(String raw, CollectionFileFormat format, long lineNo) {
+        String reference;
+        String loanId;
+        String repaymentId;
+        BigDecimal amount;
+
+        if (format == CollectionFileFormat.FIXED_WIDTH) {
+            if (raw.length() < AMOUNT_END) {
+                throw new IllegalArgumentException("Line shorter than " + AMOUNT_END + " characters");
+            }
+            reference = raw.substring(0, REFERENCE_END).trim();
+            loanId = raw.substring(REFERENCE_END, LOAN_ID_END).trim();
+            repaymentId = raw.substring(LOAN_ID_END, REPAYMENT_ID_END).trim();
+            amount = BigDecimal.valueOf(number(raw.substring(REPAYMENT_ID_END, AMOUNT_END).trim(), "amount"), 2);
+        } else {
+            String[] fields = raw.split(",", -1);
+            if (fields.length != 4) {
+                throw new IllegalArgumentException("Expected 4 fields, found " + fields.length);
+            }
+            reference = fields[0].trim();
+            loanId = fields[1].trim();
+            repaymentId = fields[2].trim();
+            try {
+                amount = new BigDecimal(fields[3].trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid amount");
+            }
+            if (amount.scale() > 2) {
+                throw new IllegalArgumentException("Amount has more than 2 decimals");
+            }
+        }
+
+        if (reference.isEmpty()) {
+            throw new IllegalArgumentException("Reference missing");
+        }
+        if (reference.indexOf('\t') >= 0) {
+            throw new IllegalArgumentException("Reference contains a tab");
+        }
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+
+        return new CollectionLine(lineNo, reference, number(loanId, "loan id"), number(repaymentId, "repayment id"),
+                amount.setScale(2));
+    }
+
+    private static long number(String value, String field) {
+        try {
+            long parsed = Long.parseLong(value);
+            if (parsed < 0) {
+                throw new IllegalArgumentException("Invalid " + field);
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + field);
+        }
+    }
+
+    // Reference of an unparseable line, as far as it can be read
+    private static String leadingReference(String raw, CollectionFileFormat format) {
+        if (format == CollectionFileFormat.FIXED_WIDTH) {
+            return raw.substring(0, Math.min(raw.length(), REFERENCE_END)).trim();
+        }
+        int comma = raw.indexOf(',');
+        return (comma >= 0 ? raw.substring(0, comma) : raw).trim();
+    }
+
+    // --------------------
+    // Pass 2: post buckets in parallel, chunk by chunk
+    // --------------------
+
+    private Tally postBuckets(Path dir, int partitions) throws IOException {
+        TransactionTemplate chunkTx = new TransactionTemplate(transactionManager);
+        Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        List<Future<Tally>> futures = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < partitions; i++) {
+                int bucket = i;
+                futures.add(executor.submit(() -> postBucket(dir, bucket, chunkTx, permits)));
+            }
+        }
+
+        Tally tally = new Tally();
+        for (Future<Tally> future : futures) {
+            try {
+                tally.merge(future.get());
+            } catch (ExecutionException e) {
+                throw new IOException("Bucket failed: " + e.getCause().getMessage(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Interrupted", e);
+            }
+        }
+        return tally;
+    }
+
+    private Tally postBucket(Path dir, int bucket, TransactionTemplate chunkTx, Semaphore permits) throws Exception {
+        permits.acquire();
+        try (BufferedReader reader = Files.newBufferedReader(bucketFile(dir, bucket));
+             BufferedWriter results = Files.newBufferedWriter(bucketResultFile(dir, bucket))) {
+
+            Tally tally = new Tally();
+            List<CollectionLine> chunk = new ArrayList<>(chunkSize);
+            String spooled;
+
+            while ((spooled = reader.readLine()) != null) {
+                chunk.add(CollectionLine.fromSpool(spooled));
+                if (chunk.size() >= chunkSize) {
+                    postChunk(chunk, chunkTx, results, tally);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                postChunk(chunk, chunkTx, results, tally);
+            }
+            return tally;
+
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void postChunk(List<CollectionLine> chunk, TransactionTemplate chunkTx,
+                           BufferedWriter writer, Tally tally) throws IOException {
+        List<LineResult> results;
+        try {
+            results = chunkTx.execute(status -> applyChunk(chunk));
+        } catch (Exception e) {
+            log.warn("⚠️ Collections chunk of {} lines rolled back ({}); posting line by line",
+                    chunk.size(), e.getMessage());
+            results = new ArrayList<>(chunk.size());
+            for (CollectionLine line : chunk) {
+                results.add(postLine(line));
+            }
+        }
+
+        for (LineResult result : results) {
+            writer.write(result.toCsv());
+            writer.newLine();
+            tally.add(result);
+        }
+    }
+
+    /**
+     * 🔹 Validate and post one chunk (runs inside the chunk transaction)
+     */
+    private List<LineResult> applyChunk(List<CollectionLine> chunk) {
+        // One query puts every repayment (and its loan) of the chunk in the persistence context
+        List<Long> ids = chunk.stream().map(CollectionLine::repaymentId).distinct().toList();
+        Map<Long, Repayment> repayments = repaymentRepository.findAllWithLoanByRepaymentIdIn(ids).stream()
+                .collect(Collectors.toMap(Repayment::getRepaymentId, Function.identity()));
+
+        List<LineResult> results = new ArrayList<>(chunk.size());
+        for (CollectionLine line : chunk) {
+            results.add(apply(line, repayments.get(line.repaymentId())));
+        }
+        return results;
+    }
+
+    // Single line in its own transaction, under the loan lock with conflict retries
+    private LineResult postLine(CollectionLine line) {
+        try {
+            return repaymentPostingService.post(line.loanId(),
+                    () -> apply(line, repaymentRepository.findById(line.repaymentId()).orElse(null)));
+        } catch (Exception e) {
+            return line.result(FAILED, null, e.getMessage());
+        }
+    }
+
+    private LineResult apply(CollectionLine line, Repayment repayment) {
+        String problem = validate(line, repayment);
+        if (problem != null) {
+            return line.result(REJECTED, repayment != null ? repayment.getStatus() : null, problem);
+        }
+        Repayment posted = repaymentService.processPayment(line.repaymentId(), line.amount());
+        return line.result(POSTED, posted.getStatus(), null);
+    }
+
+    // Reason the line cannot be posted, or null (checked before processPayment so a chunk never rolls back on bad data)
+    private String validate(CollectionLine line, Repayment repayment) {
+        if (repayment == null) {
+            return "Repayment not found";
+        }
+        Loan loan = repayment.getLoan();
+        if (loan == null || !loan.getLoanId().equals(line.loanId())) {
+            return "Repayment does not belong to loan " + line.loanId();
+        }
+        if (!"Active".equalsIgnoreCase(loan.getStatus())) {
+            return "Loan is not active";
+        }
+        if (loan.getInterestRate() == null || loan.getBalancePrincipal() == null) {
+            return "Loan data missing for repayment";
+        }
+        if (LoanPrepaymentService.STATUS_PREPAYMENT.equals(repayment.getStatus())) {
+            return "Not an installment";
+        }
+        if ("PAID".equalsIgnoreCase(repayment.getStatus())
+                || (repayment.getAmountPaid() != null && repayment.getAmountPaid().signum() > 0)) {
+            return "Installment already has a payment";
+        }
+        if (repayment.getTotalDue() == null) {
+            return "Installment has no amount due";
+        }
+        return null;
+    }
+
+    // --------------------
+    // Pass 3: merge results back into file order
+    // --------------------
+
+    private void mergeResults(Path dir, int partitions) throws IOException {
+        List<Path> parts = new ArrayList<>(partitions + 1);
+        parts.add(dir.resolve(REJECTS_FILE));
+        for (int i = 0; i < partitions; i++) {
+            parts.add(bucketResultFile(dir, i));
+        }
+
+        // Every part is already in line order: k-way merge on the line number
+        PriorityQueue<ResultHead> heads = new PriorityQueue<>(Comparator.comparingLong(ResultHead::lineNo));
+        List<BufferedReader> readers = new ArrayList<>(parts.size());
+
+        try (BufferedWriter out = Files.newBufferedWriter(dir.resolve(RESULT_FILE))) {
+            for (Path part : parts) {
+                BufferedReader reader = Files.newBufferedReader(part);
+                readers.add(reader);
+                ResultHead.next(reader, heads);
+            }
+
+            out.write(RESULT_HEADER);
+            out.newLine();
+            while (!heads.isEmpty()) {
+                ResultHead head = heads.poll();
+                out.write(head.text());
+                out.newLine();
+                ResultHead.next(head.reader(), heads);
+            }
+        } finally {
+            closeAll(readers.toArray(new Closeable[0]));
+        }
+
+        for (Path part : parts) {
+            Files.deleteIfExists(part);
+        }
+        for (int i = 0; i < partitions; i++) {
+            Files.deleteIfExists(bucketFile(dir, i));
+        }
+    }
+
+    private static Path bucketFile(Path dir, int bucket) {
+        return dir.resolve("bucket-" + bucket + ".tsv");
+    }
+
+    private static Path bucketResultFile(Path dir, int bucket) {
+        return dir.resolve("result-" + bucket + ".csv");
+    }
+
+    private static void closeAll(Closeable[] closeables) throws IOException {
+        IOException failure = null;
+        for (Closeable closeable : closeables) {
+            if (closeable == null) {
+                continue;
+            }
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    // --------------------
+    // Line, result and totals
+    // --------------------
+
+    // A validated line; spooled as tab-separated text
+    private record CollectionLine(long lineNo, String reference, long loanId, long repaymentId, BigDecimal amount) {
+
+        String toSpool() {
+            return lineNo + "\t" + reference + "\t" + loanId + "\t" + repaymentId + "\t" + amount.toPlainString();
+        }
+
+        static CollectionLine fromSpool(String spooled) {
+            String[] f = spooled.split("\t", 5);
+            return new CollectionLine(Long.parseLong(f[0]), f[1], Long.parseLong(f[2]), Long.parseLong(f[3]),
+                    new BigDecimal(f[4]));
+        }
+
+        LineResult result(String outcome, String repaymentStatus, String message) {
+            return new LineResult(lineNo, reference, loanId, repaymentId, amount, outcome, repaymentStatus, message);
+        }
+    }
+
+    private record LineResult(long lineNo, String reference, Long loanId, Long repaymentId, BigDecimal amount,
+                              String outcome, String repaymentStatus, String message) {
+
+        String toCsv() {
+            return Stream.of(String.valueOf(lineNo), csv(reference), text(loanId), text(repaymentId),
+                            amount != null ? amount.toPlainString() : "", outcome, csv(repaymentStatus), csv(message))
+                    .collect(Collectors.joining(","));
+        }
+
+        private static String text(Long value) {
+            return value != null ? value.toString() : "";
+        }
+
+        private static String csv(String value) {
+            if (value == null) {
+                return "";
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\r", " ").replace("\n", " ").replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private record ResultHead(long lineNo, String text, BufferedReader reader) {
+
+        static void next(BufferedReader reader, PriorityQueue<ResultHead> heads) throws IOException {
+            String text = reader.readLine();
+            if (text != null) {
+                heads.add(new ResultHead(Long.parseLong(text.substring(0, text.indexOf(','))), text, reader));
+            }
+        }
+    }
+
+    private static final class Tally {
+        private long posted;
+        private long rejected;
+        private long failed;
+        private BigDecimal amountPosted = BigDecimal.ZERO;
+
+        void add(LineResult result) {
+            switch (result.outcome()) {
+                case POSTED -> {
+                    posted++;
+                    amountPosted = amountPosted.add(result.amount());
+                }
+                case REJECTED -> rejected++;
+                default -> failed++;
+            }
+        }
+
+        void merge(Tally other) {
+            posted += other.posted;
+            rejected += other.rejected;
+            failed += other.failed;
+            amountPosted = amountPosted.add(other.amountPosted);
+        }
+
+        long lines() {
+            return posted + rejected + failed;
+        }
+    }
+}
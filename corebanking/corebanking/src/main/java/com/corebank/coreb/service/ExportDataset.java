@@ -0,0 +1,118 @@
+package com.corebank.coreb.service;
+
+import java.util.List;
+
+/**
+ * 🔹 Exportable datasets: one projection per dataset, shared by every export format
+ *
+ * Each dataset is a FROM clause, the date column used by the from / to filter
+ * and its columns in output order. The first column is the keyset key (a
+ * unique, indexed id). Adding a column to an export is one line here.
+ */
+public enum ExportDataset {
+
+    REPAYMENTS("Repayments",
+            "FROM repayment r JOIN loan l ON l.loan_id = r.loan_id",
+            "r.due_date",
+            List.of(
+                    new Column("repayment_id", "r.repayment_id", ColumnType.INTEGER),
+                    new Column("loan_id", "r.loan_id", ColumnType.INTEGER),
+                    new Column("loan_no", "l.loan_no", ColumnType.TEXT),
+                    new Column("branch_id", "l.branch_id", ColumnType.INTEGER),
+                    new Column("customer_id", "r.customer_id", ColumnType.INTEGER),
+                    new Column("due_date", "r.due_date", ColumnType.DATE),
+                    new Column("payment_date", "r.payment_date", ColumnType.DATE),
+                    new Column("expected_principal", "r.expected_principal", ColumnType.DECIMAL),
+                    new Column("expected_interest", "r.expected_interest", ColumnType.DECIMAL),
+                    new Column("total_due", "r.total_due", ColumnType.DECIMAL),
+                    new Column("amount_paid", "r.amount_paid", ColumnType.DECIMAL),
+                    new Column("principal_paid", "r.principal_paid", ColumnType.DECIMAL),
+                    new Column("interest_paid", "r.interest_paid", ColumnType.DECIMAL),
+                    new Column("remaining_principal", "r.remaining_principal", ColumnType.DECIMAL),
+                    new Column("outstanding_interest", "r.outstanding_interest", ColumnType.DECIMAL),
+                    new Column("rate_of_interest", "r.rate_of_interest", ColumnType.DECIMAL),
+                    new Column("status", "r.status", ColumnType.TEXT),
+                    new Column("receipt_number", "r.receipt_number", ColumnType.TEXT),
+                    new Column("billing_done", "r.billing_done", ColumnType.BOOLEAN)
+            )),
+
+    BILLING("Billing",
+            "FROM billing b JOIN loan l ON l.loan_id = b.loan_id",
+            "b.billing_date",
+            List.of(
+                    new Column("billing_id", "b.billing_id", ColumnType.INTEGER),
+                    new Column("loan_id", "b.loan_id", ColumnType.INTEGER),
+                    new Column("loan_no", "l.loan_no", ColumnType.TEXT),
+                    new Column("repayment_id", "b.repayment_id", ColumnType.INTEGER),
+                    new Column("billing_date", "b.billing_date", ColumnType.DATE),
+                    new Column("due_date", "b.due_date", ColumnType.DATE),
+                    new Column("amount_due", "b.amount_due", ColumnType.DECIMAL),
+                    new Column("amount_paid", "b.amount_paid", ColumnType.DECIMAL),
+                    new Column("status", "b.status", ColumnType.TEXT),
+                    new Column("payment_reference", "b.payment_reference", ColumnType.TEXT),
+                    new Column("billing_done", "b.billing_done", ColumnType.BOOLEAN),
+                    new Column("remarks", "b.remarks", ColumnType.TEXT)
+            )),
+
+    TRANSACTIONS("Transactions",
+            "FROM transaction t",
+            "t.transaction_date",
+            List.of(
+                    new Column("transaction_id", "t.transaction_id", ColumnType.INTEGER),
+                    new Column("transaction_date", "t.transaction_date", ColumnType.TIMESTAMP),
+                    new Column("from_account_id", "t.from_account_id", ColumnType.INTEGER),
+                    new Column("to_account_id", "t.to_account_id", ColumnType.INTEGER),
+                    new Column("amount", "t.amount", ColumnType.DECIMAL),
+                    new Column("transaction_type", "t.transaction_type", ColumnType.TEXT),
+                    new Column("status", "t.status", ColumnType.TEXT),
+                    new Column("remarks", "t.remarks", ColumnType.TEXT)
+            ));
+
+    public enum ColumnType {
+        TEXT, INTEGER, DECIMAL, DATE, TIMESTAMP, BOOLEAN
+    }
+
+    public record Column(String header, String expression, ColumnType type) {
+    }
+
+    private final String title;
+    private final String from;
+    private final String dateColumn;
+    private final List<Column> columns;
+
+    ExportDataset(String title, String from, String dateColumn, List<Column> columns) {
+        this.title = title;
+        this.from = from;
+        this.dateColumn = dateColumn;
+        this.columns = columns;
+    }
+
+    public String title() {
+        return title;
+    }
+
+    public String from() {
+        return from;
+    }
+
+    public String dateColumn() {
+        return dateColumn;
+    }
+
+    public List<Column> columns() {
+        return columns;
+    }
+
+    // Keyset key: the first column
+    public String keyExpression() {
+        return columns.get(0).expression();
+    }
+
+    public static ExportDataset fromPath(String name) {
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unknown export dataset: " + name);
+        }
+    }
+}
@@ -0,0 +1,305 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.enums.ExportFormat;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 🔹 CSV / XLSX exports of an ExportDataset
+ *
+ * Rows are read as keyset pages of the dataset's projection (same approach as
+ * the repayment report) and written out page by page; the XLSX writer keeps
+ * only a small window of rows in memory (SXSSF spills the rest to a
+ * compressed temp file). Memory is bounded by one page whatever the export size.
+ */
+@Slf4j
+@Service
+public class ExportService {
+
+    // SXSSF rows kept in memory before they are flushed to the temp file
+    private static final int XLSX_ROW_WINDOW = 100;
+
+    private static final int XLSX_MAX_ROWS = SpreadsheetVersion.EXCEL2007.getMaxRows();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${report.page-size:1000}")
+    private int pageSize;
+
+    public static String contentType(ExportFormat format) {
+        return (format == ExportFormat.XLSX)
+                ? "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"
+                : "text/csv";
+    }
+
+    public static String fileName(ExportDataset dataset, ExportFormat format) {
+        return dataset.name().toLowerCase() + "." + format.name().toLowerCase();
+    }
+
+    /**
+     * 🔹 Write the dataset (optionally limited to a date range, inclusive) in the given format
+     */
+    public void export(ExportDataset dataset, ExportFormat format, LocalDate from, LocalDate to, OutputStream out)
+            throws IOException {
+        long rows = (format == ExportFormat.XLSX)
+                ? writeXlsx(dataset, from, to, out)
+                : writeCsv(dataset, from, to, out);
+
+        log.info("📤 Export {} ({}) finished: {} rows | From: {} | To: {}", dataset, format, rows, from, to);
+    }
+
+    // --------------------
+    // Reading: keyset pages of the projection
+    // --------------------
+
+    /**
+     * 🔹 Hand every row (values in column order) to the sink, one page at a time
+     */
+    public long forEachPage(ExportDataset dataset, LocalDate from, LocalDate to, Consumer<List<Object[]>> sink) {
+        List<ExportDataset.Column> columns = dataset.columns();
+
+        StringBuilder sql = new StringBuilder("SELECT ")
+                .append(columns.stream().map(ExportDataset.Column::expression).collect(Collectors.joining(", ")))
+                .append(' ').append(dataset.from())
+                .append(" WHERE ").append(dataset.keyExpression()).append(" > ?");
+
+        List<Object> params = new ArrayList<>();
+        params.add(0L);
+        if (from != null) {
+            sql.append(" AND ").append(dataset.dateColumn()).append(" >= ?");
+            params.add(Date.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND ").append(dataset.dateColumn()).append(" < ?");
+            params.add(Date.valueOf(to.plusDays(1))); // inclusive end date, also for timestamp columns
+        }
+        sql.append(" ORDER BY ").append(dataset.keyExpression()).append(" LIMIT ?");
+        params.add(Math.max(1, pageSize));
+
+        String query = sql.toString();
+        Object[] args = params.toArray();
+        long rows = 0;
+
+        while (true) {
+            List<Object[]> page = jdbcTemplate.query(query, (rs, rowNum) -> readRow(rs, columns), args);
+            if (page.isEmpty()) {
+                break;
+            }
+            sink.accept(page);
+            rows += page.size();
+
+            if (page.size() < pageSize) {
+                break;
+            }
+            args[0] = page.get(page.size() - 1)[0]; // keyset: continue after the last key of this page
+        }
+        return rows;
+    }
+
+    private static Object[] readRow(ResultSet rs, List<ExportDataset.Column> columns) throws SQLException {
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            int index = i + 1;
+            row[i] = switch (columns.get(i).type()) {
+                case TEXT -> rs.getString(index);
+                case INTEGER -> {
+                    long value = rs.getLong(index);
+                    yield rs.wasNull() ? null : value;
+                }
+                case DECIMAL -> rs.getBigDecimal(index);
+                case DATE -> {
+                    Date value = rs.getDate(index);
+                    yield (value != null) ? value.toLocalDate() : null;
+                }
+                case TIMESTAMP -> {
+                    Timestamp value = rs.getTimestamp(index);
+                    yield (value != null) ? value.toLocalDateTime() : null;
+                }
+                case BOOLEAN -> {
+                    boolean value = rs.getBoolean(index);
+                    yield rs.wasNull() ? null : value;
+                }
+            };
+        }
+        return row;
+    }
+
+    // --------------------
+    // CSV
+    // --------------------
+
+    private long writeCsv(ExportDataset dataset, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+
+        writer.write(dataset.columns().stream().map(ExportDataset.Column::header).collect(Collectors.joining(",")));
+        writer.newLine();
+
+        long rows = forEachPage(dataset, from, to, page -> {
+            try {
+                for (Object[] row : page) {
+                    for (int i = 0; i < row.length; i++) {
+                        if (i > 0) {
+                            writer.write(',');
+                        }
+                        writer.write(csv(row[i]));
+                    }
+                    writer.newLine();
+                }
+                writer.flush();
+            } catch (IOException e) {
+                // Client went away: stop reading further pages
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        writer.flush();
+        return rows;
+    }
+
+    private static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = (value instanceof BigDecimal decimal) ? decimal.toPlainString() : value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    // --------------------
+    // XLSX (streaming workbook)
+    // --------------------
+
+    private long writeXlsx(ExportDataset dataset, LocalDate from, LocalDate to, OutputStream out) throws IOException {
+        try (SXSSFWorkbook workbook = new SXSSFWorkbook(XLSX_ROW_WINDOW)) {
+            workbook.setCompressTempFiles(true);
+            XlsxSheets sheets = new XlsxSheets(workbook, dataset);
+
+            long rows = forEachPage(dataset, from, to, page -> {
+                for (Object[] row : page) {
+                    sheets.addRow(row);
+                }
+            });
+
+            if (rows == 0) {
+                sheets.newSheet(); // header only
+            }
+            workbook.write(out);
+            workbook.dispose(); // delete the temp file
+            return rows;
+        }
+    }
+
+    /**
+     * 🔹 Sheets of one export; a sheet that reaches the row limit continues on the next one
+     */
+    private static final class XlsxSheets {
+
+        private final SXSSFWorkbook workbook;
+        private final ExportDataset dataset;
+        private final CellStyle headerStyle;
+        private final CellStyle dateStyle;
+        private final CellStyle timestampStyle;
+        private final CellStyle decimalStyle;
+
+        private Sheet sheet;
+        private int rowIndex;
+        private int sheetCount;
+
+        XlsxSheets(SXSSFWorkbook workbook, ExportDataset dataset) {
+            this.workbook = workbook;
+            this.dataset = dataset;
+
+            DataFormat format = workbook.createDataFormat();
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+
+            headerStyle = workbook.createCellStyle();
+            headerStyle.setFont(bold);
+            dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(format.getFormat("yyyy-mm-dd"));
+            timestampStyle = workbook.createCellStyle();
+            timestampStyle.setDataFormat(format.getFormat("yyyy-mm-dd hh:mm:ss"));
+            decimalStyle = workbook.createCellStyle();
+            decimalStyle.setDataFormat(format.getFormat("#,##0.00"));
+        }
+
+        void newSheet() {
+            sheetCount++;
+            sheet = workbook.createSheet(sheetCount == 1 ? dataset.title() : dataset.title() + " (" + sheetCount + ")");
+            rowIndex = 0;
+
+            Row header = sheet.createRow(rowIndex++);
+            List<ExportDataset.Column> columns = dataset.columns();
+            for (int i = 0; i < columns.size(); i++) {
+                Cell cell = header.createCell(i);
+                cell.setCellValue(columns.get(i).header());
+                cell.setCellStyle(headerStyle);
+            }
+        }
+
+        void addRow(Object[] values) {
+            if (sheet == null || rowIndex >= XLSX_MAX_ROWS) {
+                newSheet();
+            }
+            Row row = sheet.createRow(rowIndex++);
+            for (int i = 0; i < values.length; i++) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                Cell cell = row.createCell(i);
+                if (value instanceof BigDecimal decimal) {
+                    cell.setCellValue(decimal.doubleValue());
+                    cell.setCellStyle(decimalStyle);
+                } else if (value instanceof Long number) {
+                    cell.setCellValue(number);
+                } else if (value instanceof LocalDate date) {
+                    cell.setCellValue(date);
+                    cell.setCellStyle(dateStyle);
+                } else if (value instanceof LocalDateTime timestamp) {
+                    cell.setCellValue(timestamp);
+                    cell.setCellStyle(timestampStyle);
+                } else if (value instanceof Boolean flag) {
+                    cell.setCellValue(flag);
+                } else {
+                    cell.setCellValue(value.toString());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.entity.Account;
+import com.corebank.coreb.entity.AccountBalanceBucket;
+import com.corebank.coreb.repository.AccountBalanceBucketRepository;
+import com.corebank.coreb.repository.AccountRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 🔹 Hot accounts: credits spread over balance buckets
+ *
+ * Every posting to an ordinary account updates its single account row, so
+ * concurrent deposits to a busy collection / settlement account queue on that
+ * row lock. A hot account takes credits on one of N bucket rows instead,
+ * chosen by the posting thread, so they run in parallel. The balance of a hot
+ * account is Account.balance plus its buckets; debits and the fold job move
+ * bucket amounts into Account.balance (as deltas, so concurrent credits are
+ * never lost and buckets never go negative).
+ */
+@Slf4j
+@Service
+public class HotAccountService {
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountBalanceBucketRepository bucketRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${account.hot.buckets:16}")
+    private int buckets;
+
+    public static boolean isHot(Account account) {
+        return Boolean.TRUE.equals(account.getHotAccount());
+    }
+
+    /**
+     * 🔹 Balance including credits still waiting in the buckets
+     */
+    public BigDecimal balanceOf(Account account) {
+        if (isHot(account)) {
+            return bucketRepository.totalBalance(account.getAccountId());
+        }
+        return (account.getBalance() != null) ? account.getBalance() : BigDecimal.ZERO;
+    }
+
+    /**
+     * 🔹 Credit a hot account through one of its buckets
+     */
+    public void credit(Long accountId, BigDecimal amount) {
+        int bucketNo = bucketFor(Thread.currentThread().threadId());
+
+        // Missing bucket (hot mode just switched off, or fewer buckets created): post to the account row
+        if (bucketRepository.credit(accountId, bucketNo, amount) == 0
+                && accountRepository.credit(accountId, amount) == 0) {
+            throw new RuntimeException("Account not found");
+        }
+    }
+
+    /**
+     * 🔹 Move everything in the account's buckets into Account.balance; returns the amount moved
+     *    (joins the caller's transaction, e.g. a withdrawal that needs the bucketed credits)
+     */
+    public BigDecimal fold(Long accountId) {
+        return transactionTemplate().execute(status -> {
+            BigDecimal moved = BigDecimal.ZERO;
+            for (AccountBalanceBucket bucket : bucketRepository.findByAccountIdOrderByBucketNo(accountId)) {
+                BigDecimal amount = bucket.getBalance();
+                if (amount == null || amount.signum() <= 0) {
+                    continue;
+                }
+                // Delta, not reset: credits landing meanwhile stay in the bucket for the next fold
+                if (bucketRepository.take(bucket.getBucketId(), amount) == 1) {
+                    // Missing account row: throwing rolls the take back, the amount stays in the bucket
+                    if (accountRepository.credit(accountId, amount) == 0) {
+                        throw new RuntimeException("Account not found");
+                    }
+                    moved = moved.add(amount);
+                }
+            }
+            return moved;
+        });
+    }
+
+    /**
+     * 🔹 Fold the account and drop its buckets before the account row is deleted
+     *    (joins the caller's transaction); refuses while a credit still sits in a bucket
+     */
+    public void dropBuckets(Long accountId) {
+        transactionTemplate().executeWithoutResult(status -> {
+            fold(accountId);
+            bucketRepository.deleteEmpty(accountId);
+            // A credit landed after the fold: deleting it would lose money
+            if (bucketRepository.countByAccountId(accountId) > 0) {
+                throw new RuntimeException("Account has unfolded credits in its balance buckets");
+            }
+        });
+    }
+
+    /**
+     * 🔹 Fold every account with bucketed credits, one transaction per account; returns accounts folded
+     */
+    public int foldAll() {
+        int folded = 0;
+        for (Long accountId : bucketRepository.findAccountIdsToFold()) {
+            try {
+                if (fold(accountId).signum() > 0) {
+                    folded++;
+                }
+            } catch (Exception e) {
+                log.error("❌ Fold of hot account {} failed: {}", accountId, e.getMessage());
+            }
+        }
+        return folded;
+    }
+
+    /**
+     * 🔹 Switch hot mode on: flag the account and create its buckets
+     */
+    public void enable(Long accountId) {
+        transactionTemplate().executeWithoutResult(status -> {
+            // Flag only: saving the entity would write back the balance it was read with
+            if (accountRepository.setHotAccount(accountId, true) == 0) {
+                throw new RuntimeException("Account not found");
+            }
+
+            Set<Integer> existing = new HashSet<>(bucketRepository.findBucketNos(accountId));
+            List<AccountBalanceBucket> created = new ArrayList<>();
+            for (int n = 0; n < buckets; n++) {
+                if (!existing.contains(n)) {
+                    created.add(new AccountBalanceBucket(null, accountId, null, n, BigDecimal.ZERO));
+                }
+            }
+            bucketRepository.saveAll(created);
+        });
+        log.info("🔥 Account {} switched to hot mode ({} buckets)", accountId, buckets);
+    }
+
+    /**
+     * 🔹 Switch hot mode off: credits go to the account row again, buckets are folded and dropped
+     */
+    public void disable(Long accountId) {
+        transactionTemplate().executeWithoutResult(status -> {
+            if (accountRepository.setHotAccount(accountId, false) == 0) {
+                throw new RuntimeException("Account not found");
+            }
+            fold(accountId);
+            bucketRepository.deleteEmpty(accountId);
+        });
+        log.info("❄️ Account {} switched back to a single balance row", accountId);
+    }
+
+    // Fibonacci hash of the posting thread: concurrent posters spread over the buckets
+    private int bucketFor(long threadId) {
+        return (int) (((threadId * 0x9E3779B97F4A7C15L) >>> 32) % Math.max(1, buckets));
+    }
+
+    private TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+}
@@ -3,14 +3,18 @@ package com.corebank.coreb.service;
 import com.corebank.coreb.dto.JobMasterDTO;
 import com.corebank.coreb.dto.JobResponseDTO;
 import com.corebank.coreb.dto.BillingResponseDTO;
+import com.corebank.coreb.dto.RateChangeDTO;
 import com.corebank.coreb.entity.Job;
 import com.corebank.coreb.entity.JobMaster;
+import com.corebank.coreb.entity.JobPartition;
 import com.corebank.coreb.repository.JobMasterRepository;
+import com.corebank.coreb.repository.JobPartitionRepository;
 import com.corebank.coreb.repository.JobRepository;
 
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
@@ -29,11 +33,21 @@ public class JobService {
     private JobRepository jobRepository;
 
     @Autowired
-    private BillingService billingService;
+    private JobPartitionRepository jobPartitionRepository;
+
+    @Autowired
+    private BillingExecutionService billingExecutionService;
 
     @Autowired
     private SystemDateService systemDateService;
 
+    @Autowired
+    private LoanRepricingService loanRepricingService;
+
+    // A RUNNING execution is only treated as crashed once its last heartbeat is older than this
+    @Value("${billing.resume.stale-after-minutes:15}")
+    private long staleAfterMinutes;
+
 
     // ============================================================
     //  1️⃣  GET ALL JOB MASTER (STATIC JOB LIST + LAST RUN INFO)
@@ -72,11 +86,38 @@ public class JobService {
     //  2️⃣  RUN JOB USING JOB MASTER ID
     // ============================================================
     public JobResponseDTO runJob(Long jobid) {
+        return runJob(jobid, false, false, false);
+    }
+
+    public JobResponseDTO runJob(Long jobid, boolean resume, boolean summaryOnly) {
+        return runJob(jobid, resume, summaryOnly, false);
+    }
+
+    /**
+     * resume=true → if the latest execution of this job was interrupted
+     * (FAILED / COMPLETED_WITH_ERRORS / still RUNNING after a crash) and left
+     * checkpoints, continue it instead of starting a full rerun.
+     * A RUNNING execution counts as crashed only once its heartbeat is stale,
+     * or with force=true; a live one is never resumed or run a second time.
+     * summaryOnly=true → billing response carries counts only, no billed records.
+     */
+    public JobResponseDTO runJob(Long jobid, boolean resume, boolean summaryOnly, boolean force) {
 
         // Load job definition
         JobMaster jobMaster = jobMasterRepository.findById(jobid)
                 .orElseThrow(() -> new RuntimeException("❌ JobMaster not found for ID: " + jobid));
 
+        if (resume) {
+            Job lastExecution = jobRepository.findTopByJobMasterOrderBySeqNoDesc(jobMaster);
+            if (isResumable(lastExecution, force)) {
+                return resumeJob(lastExecution.getSeqNo(), summaryOnly, force);
+            }
+            if (isStillRunning(lastExecution, force)) {
+                throw new RuntimeException("❌ Job execution " + lastExecution.getSeqNo() + " is still running");
+            }
+            log.info("ℹ️ No resumable execution for job {}, starting a fresh run", jobMaster.getJobName());
+        }
+
         // Create execution log in Job table
         Job job = new Job();
         job.setJobMaster(jobMaster);
@@ -101,9 +142,15 @@ public class JobService {
             switch (jobMaster.getJobName().toUpperCase()) {
 
                 case "LOAN_BILLING":
-                    billingResult = billingService.generateBilling(job);
-                    job.setStatus("COMPLETED");
-                    job.setRemarks("Loan billing completed successfully.");
+                    // Billing engine records status and remarks on the job itself
+                    billingResult = summaryOnly
+                            ? billingExecutionService.generateBillingSummary(job, null)
+                            : billingExecutionService.generateBilling(job);
+                    break;
+
+                case LoanRepricingService.JOB_NAME:
+                    job.setStatus("SKIPPED");
+                    job.setRemarks("⚠️ Repricing needs a rate change event: POST /api/jobs/repricing");
                     break;
 
                 default:
@@ -141,6 +188,157 @@ public class JobService {
     }
 
 
+    // ============================================================
+    //  2️⃣a RUN LOAN REPRICING FOR A RATE CHANGE EVENT
+    // ============================================================
+    public JobResponseDTO runRepricing(RateChangeDTO change) {
+
+        JobMaster jobMaster = jobMasterRepository.findByJobName(LoanRepricingService.JOB_NAME)
+                .orElseThrow(() -> new RuntimeException("❌ JobMaster not found: " + LoanRepricingService.JOB_NAME));
+
+        Job job = new Job();
+        job.setJobMaster(jobMaster);
+        job.setJobType(jobMaster.getJobName());
+        job.setExecutionMode("MANUAL");
+        job.setStatus("RUNNING");
+        job.setStartTime(LocalDateTime.now());
+        job.setProcessedDate(systemDateService.getSystemDate());
+        jobRepository.save(job);
+
+        log.info("🚀 Starting Job [{}] | Name: {} | System Date: {}",
+                job.getSeqNo(), jobMaster.getJobName(), job.getProcessedDate());
+
+        try {
+            // Repricing records status, progress and remarks on the job itself
+            loanRepricingService.repriceBook(change, job);
+        }
+        catch (Exception e) {
+            job.setStatus("FAILED");
+            job.setRemarks("Job failed: " + e.getMessage());
+            log.error("❌ Error executing job [{}]: {}", job.getSeqNo(), e.getMessage());
+        }
+        finally {
+            job.setEndTime(LocalDateTime.now());
+            jobRepository.save(job);
+
+            log.info("🏁 Job [{}] finished with status: {} at {}",
+                    job.getSeqNo(), job.getStatus(), job.getEndTime());
+        }
+
+        return new JobResponseDTO(
+                job.getSeqNo(),
+                jobMaster.getJobid(),
+                jobMaster.getJobName(),
+                job.getStatus(),
+                job.getExecutionMode(),
+                job.getProcessedDate(),
+                job.getStartTime(),
+                job.getEndTime(),
+                job.getRemarks(),
+                null
+        );
+    }
+
+
+    // ============================================================
+    //  2️⃣b RESUME AN INTERRUPTED EXECUTION FROM ITS CHECKPOINTS
+    // ============================================================
+    public JobResponseDTO resumeJob(Long seqNo) {
+        return resumeJob(seqNo, false, false);
+    }
+
+    /**
+     * force=true → resume a RUNNING execution without waiting for its heartbeat
+     * to go stale (operator knows the instance that ran it is gone).
+     */
+    public JobResponseDTO resumeJob(Long seqNo, boolean summaryOnly, boolean force) {
+
+        Job job = jobRepository.findById(seqNo)
+                .orElseThrow(() -> new RuntimeException("❌ Job execution not found for ID: " + seqNo));
+
+        if (isStillRunning(job, force)) {
+            throw new RuntimeException("❌ Job execution " + seqNo + " is still running (last heartbeat "
+                    + lastHeartbeat(job) + "), resume with force=true if it is known to be dead");
+        }
+        if (!isResumable(job, force)) {
+            throw new RuntimeException("❌ Job execution " + seqNo + " has no checkpoints to resume from");
+        }
+
+        JobMaster jobMaster = job.getJobMaster();
+        BillingResponseDTO billingResult = null;
+
+        try {
+            billingResult = summaryOnly
+                    ? billingExecutionService.resumeBillingSummary(job)
+                    : billingExecutionService.resumeBilling(job);
+        }
+        catch (Exception e) {
+            // Another request resumed it first: leave that run's status alone
+            if (billingExecutionService.isActive(seqNo)) {
+                throw new RuntimeException("❌ Job execution " + seqNo + " is still running");
+            }
+            job.setStatus("FAILED");
+            job.setRemarks("Job resume failed: " + e.getMessage());
+            job.setEndTime(LocalDateTime.now());
+            jobRepository.save(job);
+            log.error("❌ Error resuming job [{}]: {}", seqNo, e.getMessage());
+        }
+
+        log.info("🏁 Job [{}] resumed, finished with status: {} at {}",
+                seqNo, job.getStatus(), job.getEndTime());
+
+        return new JobResponseDTO(
+                job.getSeqNo(),
+                jobMaster != null ? jobMaster.getJobid() : null,
+                jobMaster != null ? jobMaster.getJobName() : job.getJobType(),
+                job.getStatus(),
+                job.getExecutionMode(),
+                job.getProcessedDate(),
+                job.getStartTime(),
+                job.getEndTime(),
+                job.getRemarks(),
+                billingResult
+        );
+    }
+
+    // Only billing executions that stopped early and recorded partitions can be resumed
+    private boolean isResumable(Job job, boolean force) {
+        if (job == null || job.getSeqNo() == null) {
+            return false;
+        }
+        if (!"LOAN_BILLING".equalsIgnoreCase(job.getJobType())) {
+            return false;
+        }
+        String status = job.getStatus();
+        boolean interrupted = "FAILED".equals(status)
+                || "COMPLETED_WITH_ERRORS".equals(status)
+                || ("RUNNING".equals(status) && !isStillRunning(job, force));
+
+        return interrupted && !jobPartitionRepository.findByJob_SeqNoOrderByPartitionIdAsc(job.getSeqNo()).isEmpty();
+    }
+
+    // RUNNING and not provably dead: running here, or (without force) a heartbeat within the stale timeout
+    private boolean isStillRunning(Job job, boolean force) {
+        if (job == null || job.getSeqNo() == null || !"RUNNING".equals(job.getStatus())) {
+            return false;
+        }
+        if (billingExecutionService.isActive(job.getSeqNo())) {
+            return true;
+        }
+        if (force) {
+            return false;
+        }
+        LocalDateTime heartbeat = lastHeartbeat(job);
+        return heartbeat != null && heartbeat.isAfter(LocalDateTime.now().minusMinutes(staleAfterMinutes));
+    }
+
+    // Last committed chunk of any partition, else the start of the execution
+    private LocalDateTime lastHeartbeat(Job job) {
+        LocalDateTime heartbeat = jobPartitionRepository.findLastHeartbeat(job.getSeqNo());
+        return (heartbeat != null) ? heartbeat : job.getStartTime();
+    }
+
+
     // ============================================================
     //  3️⃣  GET JOB EXECUTION HISTORY (JOB TABLE)
     // ============================================================
@@ -151,4 +349,12 @@ public class JobService {
 
         return jobRepository.findByJobMasterOrderBySeqNoDesc(jobMaster);
     }
+
+
+    // ============================================================
+    //  4️⃣  GET PARTITION RESULTS OF ONE EXECUTION
+    // ============================================================
+    public List<JobPartition> getJobPartitions(Long seqNo) {
+        return jobPartitionRepository.findByJob_SeqNoOrderByPartitionIdAsc(seqNo);
+    }
 }
@@ -0,0 +1,162 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.BulkLoanApprovalDTO;
+import com.corebank.coreb.dto.LoanApprovalResultDTO;
+import com.corebank.coreb.entity.Loan;
+import com.corebank.coreb.entity.Repayment;
+import com.corebank.coreb.repository.LoanRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 🔹 Bulk loan approval (campaign drives)
+ *
+ * Reads the system date once, then approves the loans in batches: one query
+ * loads a batch, schedules are computed in parallel and all installments of
+ * the batch are written with one id allocation and JDBC batches. Each batch
+ * commits on its own; a failing batch is reported per loan and does not undo
+ * earlier batches.
+ */
+@Slf4j
+@Service
+public class LoanApprovalService {
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private RepaymentMaterializer repaymentMaterializer;
+
+    @Autowired
+    private RepaymentScheduleWriter repaymentScheduleWriter;
+
+    @Autowired
+    private BillingQueueService billingQueueService;
+
+    @Autowired
+    private SystemDateService systemDateService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${loan.approval.batch-size:200}")
+    private int batchSize;
+
+    /**
+     * 🔹 Approve every pending loan in the list; returns one result per loan id
+     */
+    public BulkLoanApprovalDTO approveLoans(List<Long> loanIds) {
+
+        LocalDate systemDate = systemDateService.getSystemDate();
+        List<Long> ids = loanIds.stream().filter(Objects::nonNull).distinct().toList();
+
+        log.info("📋 Bulk approval of {} loans | System Date: {}", ids.size(), systemDate);
+
+        // Keyed by loan id, in request order
+        Map<Long, LoanApprovalResultDTO> results = new LinkedHashMap<>();
+        TransactionTemplate batchTx = new TransactionTemplate(transactionManager);
+
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + batchSize));
+            Map<Long, LoanApprovalResultDTO> batchResults = new LinkedHashMap<>();
+
+            try {
+                batchTx.executeWithoutResult(status -> approveBatch(batch, systemDate, batchResults));
+                // approveBatch records rejections before approvals: copy back in batch order
+                for (Long id : batch) {
+                    results.put(id, batchResults.get(id));
+                }
+            } catch (Exception e) {
+                log.error("❌ Bulk approval batch of {} loans rolled back: {}", batch.size(), e.getMessage());
+                for (Long id : batch) {
+                    results.put(id, rejected(id, null, null, "Batch rolled back: " + e.getMessage()));
+                }
+            }
+        }
+
+        List<LoanApprovalResultDTO> resultList = new ArrayList<>(results.values());
+        int approved = (int) resultList.stream().filter(LoanApprovalResultDTO::isApproved).count();
+
+        log.info("✅ Bulk approval finished: {} approved, {} not approved", approved, resultList.size() - approved);
+        return new BulkLoanApprovalDTO(systemDate, ids.size(), approved, resultList.size() - approved, resultList);
+    }
+
+    /**
+     * 🔹 Validate, activate and schedule one batch (runs inside the batch transaction)
+     */
+    private void approveBatch(List<Long> batch, LocalDate systemDate, Map<Long, LoanApprovalResultDTO> results) {
+
+        Map<Long, Loan> loans = loanRepository.findAllById(batch).stream()
+                .collect(Collectors.toMap(Loan::getLoanId, Function.identity()));
+
+        List<Loan> approvable = new ArrayList<>();
+        for (Long id : batch) {
+            Loan loan = loans.get(id);
+            String problem = validate(loan);
+            if (problem != null) {
+                results.put(id, rejected(id, loan != null ? loan.getLoanNo() : null,
+                        loan != null ? loan.getStatus() : null, problem));
+                continue;
+            }
+
+            loan.setStartDate(systemDate);
+            loan.setMaturityDate(systemDate.plusMonths(loan.getTenureMonths()));
+            loan.setStatus("Active");
+            loan.setBalancePrincipal(loan.getPrincipal());
+            approvable.add(loan);
+        }
+
+        // CPU-only work, so the common fork-join pool; persistence stays on this thread
+        List<List<Repayment>> schedules = approvable.parallelStream()
+                .map(loan -> repaymentMaterializer.startSchedule(loan, systemDate))
+                .toList();
+
+        List<Repayment> installments = schedules.stream().flatMap(List::stream).toList();
+        repaymentScheduleWriter.insertSchedule(installments);
+        billingQueueService.enqueueDue(installments, systemDate);
+
+        for (int i = 0; i < approvable.size(); i++) {
+            Loan loan = approvable.get(i);
+            results.put(loan.getLoanId(), new LoanApprovalResultDTO(
+                    loan.getLoanId(), loan.getLoanNo(), true, loan.getStatus(),
+                    loan.getStartDate(), loan.getMaturityDate(), schedules.get(i).size(), null
+            ));
+        }
+    }
+
+    // Reason the loan cannot be approved, or null
+    private String validate(Loan loan) {
+        if (loan == null) {
+            return "Loan not found";
+        }
+        if (!"Pending".equalsIgnoreCase(loan.getStatus())) {
+            return "Only pending loans can be approved";
+        }
+        if (loan.getTenureMonths() == null || loan.getTenureMonths() <= 0) {
+            return "Tenure missing";
+        }
+        if (loan.getPrincipal() == null || loan.getInterestRate() == null) {
+            return "Principal or interest rate missing";
+        }
+        return null;
+    }
+
+    private LoanApprovalResultDTO rejected(Long loanId, String loanNo, String status, String message) {
+        return new LoanApprovalResultDTO(loanId, loanNo, false, status, null, null, null, message);
+    }
+}
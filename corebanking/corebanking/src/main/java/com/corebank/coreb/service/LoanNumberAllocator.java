@@ -0,0 +1,87 @@
+package com.corebank.coreb.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 🔹 Loan numbers from pre-allocated blocks (LN-<branch>-<sequence>)
+ *
+ * Each node reserves a block of numbers per branch with one upsert on
+ * loan_number_sequence and then numbers loans from memory, so a new loan
+ * costs no database round trip until its block runs out. Blocks never
+ * overlap across nodes; numbers are increasing per branch within a node.
+ * Numbers left in a block at shutdown are skipped, not reused.
+ */
+@Slf4j
+@Service
+public class LoanNumberAllocator {
+
+    // Reserve the next block for a branch; returns the new high-water mark (first unreserved number)
+    private static final String RESERVE_BLOCK =
+            "INSERT INTO loan_number_sequence (branch_id, next_value) VALUES (?, ?) " +
+            "ON CONFLICT (branch_id) DO UPDATE SET next_value = loan_number_sequence.next_value + ? " +
+            "RETURNING next_value";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${loan.number.block-size:100}")
+    private int blockSize;
+
+    private final ConcurrentHashMap<Long, Block> blocks = new ConcurrentHashMap<>();
+
+    /**
+     * 🔹 Next loan number for the branch (thread-safe)
+     */
+    public String next(Long branchId) {
+        long branch = (branchId != null) ? branchId : 0L;
+        Block block = blocks.computeIfAbsent(branch, key -> new Block());
+
+        long value;
+        synchronized (block) {
+            if (block.next > block.last) {
+                long highWaterMark = reserve(branch);
+                block.next = highWaterMark - blockSize;
+                block.last = highWaterMark - 1;
+            }
+            value = block.next++;
+        }
+        return String.format("LN-%04d-%08d", branch, value);
+    }
+
+    /**
+     * 🔹 Reserve a block in its own transaction, so a rolled-back loan never
+     *    returns numbers that this node still hands out
+     */
+    private long reserve(long branch) {
+        TransactionTemplate reserveTx = new TransactionTemplate(transactionManager);
+        reserveTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        Long highWaterMark = reserveTx.execute(status -> jdbcTemplate.queryForObject(
+                RESERVE_BLOCK, Long.class, branch, blockSize + 1L, (long) blockSize));
+        if (highWaterMark == null) {
+            throw new RuntimeException("Could not reserve loan numbers for branch " + branch);
+        }
+
+        log.info("🔢 Reserved loan numbers {}..{} for branch {}", highWaterMark - blockSize, highWaterMark - 1, branch);
+        return highWaterMark;
+    }
+
+    // Numbers next..last are reserved for this node; empty until the first reservation
+    private static final class Block {
+        private long next = 1;
+        private long last = 0;
+    }
+}
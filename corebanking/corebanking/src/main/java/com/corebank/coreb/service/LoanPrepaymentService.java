@@ -0,0 +1,216 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.PrepaymentResultDTO;
+import com.corebank.coreb.entity.Loan;
+import com.corebank.coreb.entity.Repayment;
+import com.corebank.coreb.enums.PrepaymentMode;
+import com.corebank.coreb.repository.LoanRepository;
+import com.corebank.coreb.repository.RepaymentRepository;
+import com.corebank.coreb.util.AmortizationEngine;
+
+import jakarta.transaction.Transactional;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 🔹 Principal prepayment with re-amortization of the open installments
+ *
+ * Only the installments that are still open (due after the system date,
+ * unbilled, nothing paid) are recomputed; paid, billed and overdue rows are
+ * left alone and the principal they still expect is held back from the new
+ * balance. The open rows are read as a narrow projection on (loan_id,
+ * due_date), recomputed in paise and written back with one batched UPDATE
+ * (plus one batched DELETE for installments dropped by REDUCE_TENURE).
+ */
+@Slf4j
+@Service
+@Transactional
+public class LoanPrepaymentService {
+
+    public static final String STATUS_PREPAYMENT = "PREPAYMENT";
+
+    // Parameters: loan id, system date
+    private static final String OPEN_INSTALLMENT =
+            "due_date > ? AND billing_done = false AND COALESCE(amount_paid, 0) = 0 AND status = 'UNPAID'";
+
+    private static final String SELECT_OPEN_INSTALLMENTS =
+            "SELECT repayment_id, due_date, expected_principal, total_due FROM repayment " +
+            "WHERE loan_id = ? AND " + OPEN_INSTALLMENT + " ORDER BY due_date, repayment_id";
+
+    // Principal still expected by installments that are not re-amortized (overdue, partly paid)
+    private static final String SELECT_HELD_PRINCIPAL =
+            "SELECT COALESCE(SUM(GREATEST(COALESCE(expected_principal, 0) - COALESCE(principal_paid, 0), 0)), 0) " +
+            "FROM repayment WHERE loan_id = ? AND status NOT IN ('PAID', '" + STATUS_PREPAYMENT + "') " +
+            "AND NOT (" + OPEN_INSTALLMENT + ")";
+
+    private static final String UPDATE_INSTALLMENT =
+            "UPDATE repayment SET expected_principal = ?, expected_interest = ?, total_due = ?, " +
+            "remaining_principal = ?, rate_of_interest = ?, version = version + 1 WHERE repayment_id = ?";
+
+    private static final String DELETE_INSTALLMENT =
+            "DELETE FROM repayment WHERE repayment_id = ?";
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private RepaymentRepository repaymentRepository;
+
+    @Autowired
+    private RepaymentMaterializer repaymentMaterializer;
+
+    @Autowired
+    private SystemDateService systemDateService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 🔹 Apply a principal prepayment and re-amortize the open installments
+     */
+    public PrepaymentResultDTO prepay(Long loanId, BigDecimal amount, PrepaymentMode mode) {
+
+        Loan loan = loanRepository.findById(loanId)
+                .orElseThrow(() -> new RuntimeException("Loan not found"));
+
+        if (!"Active".equalsIgnoreCase(loan.getStatus())) {
+            throw new RuntimeException("Only active loans can be prepaid");
+        }
+        if (amount == null || amount.signum() <= 0) {
+            throw new RuntimeException("Prepayment amount must be positive");
+        }
+
+        long prepaid = AmortizationEngine.toMinor(amount);
+        long balance = AmortizationEngine.toMinor(loan.getBalancePrincipal()) - prepaid;
+        if (balance <= 0) {
+            throw new RuntimeException("Prepayment covers the outstanding principal; close the loan instead");
+        }
+
+        LocalDate systemDate = systemDateService.getSystemDate();
+
+        // Lazy schedules: future installments need rows before they can be rewritten
+        repaymentMaterializer.materializeThrough(loan, loan.getTenureMonths(), systemDate);
+
+        List<OpenInstallment> open = jdbcTemplate.query(SELECT_OPEN_INSTALLMENTS,
+                (rs, rowNum) -> new OpenInstallment(
+                        rs.getLong("repayment_id"),
+                        rs.getDate("due_date").toLocalDate(),
+                        AmortizationEngine.toMinor(rs.getBigDecimal("expected_principal")),
+                        AmortizationEngine.toMinor(rs.getBigDecimal("total_due"))),
+                loanId, Date.valueOf(systemDate));
+        if (open.isEmpty()) {
+            throw new RuntimeException("No open installments to re-amortize");
+        }
+
+        BigDecimal held = jdbcTemplate.queryForObject(SELECT_HELD_PRINCIPAL, BigDecimal.class,
+                loanId, Date.valueOf(systemDate));
+        long principal = balance - AmortizationEngine.toMinor(held);
+        if (principal <= 0) {
+            throw new RuntimeException("Prepayment exceeds the principal of the open installments");
+        }
+
+        AmortizationEngine.Schedule plan = reamortize(loan, mode, principal, open);
+        int kept = plan.periods();
+
+        writeSchedule(loan, plan, open.subList(0, kept));
+        List<Long> dropped = open.subList(kept, open.size()).stream().map(OpenInstallment::repaymentId).toList();
+        if (!dropped.isEmpty()) {
+            jdbcTemplate.batchUpdate(DELETE_INSTALLMENT, dropped, dropped.size(), (ps, id) -> ps.setLong(1, id));
+        }
+
+        recordPrepayment(loan, amount, balance, systemDate);
+
+        loan.setBalancePrincipal(AmortizationEngine.fromMinor(balance));
+        loan.setMaturityDate(open.get(kept - 1).dueDate());
+        loan.setTenureMonths(loan.getTenureMonths() - dropped.size());
+        if (repaymentMaterializer.isLazy(loan)) {
+            loan.setMaterializedInstallments(loan.getTenureMonths());
+        }
+        loanRepository.save(loan);
+
+        log.info("💸 Prepayment of {} on loan {} ({}): {} installments re-amortized, {} removed",
+                amount, loan.getLoanNo(), mode, kept, dropped.size());
+
+        return new PrepaymentResultDTO(
+                loan.getLoanId(), mode, amount, loan.getBalancePrincipal(), kept, dropped.size(),
+                AmortizationEngine.fromMinor(plan.total(0)), loan.getMaturityDate()
+        );
+    }
+
+    /**
+     * 🔹 New plan for the open installments, on the loan's own schedule method
+     */
+    private AmortizationEngine.Schedule reamortize(Loan loan, PrepaymentMode mode, long principal,
+                                                   List<OpenInstallment> open) {
+        int periods = open.size();
+        long monthlyRate = AmortizationEngine.monthlyRate(loan.getInterestRate());
+        boolean emi = "EMI".equalsIgnoreCase(loan.getScheduleMethod());
+
+        if (mode == PrepaymentMode.REDUCE_TENURE) {
+            if (emi) {
+                long installment = open.get(0).totalDue();
+                int tenure = AmortizationEngine.periodsToRepay(principal, monthlyRate, installment, periods);
+                return AmortizationEngine.emiSchedule(principal, tenure, monthlyRate, installment);
+            }
+            long principalPart = Math.max(open.get(0).expectedPrincipal(), 1L);
+            int tenure = (int) Math.min(periods, (principal + principalPart - 1) / principalPart);
+            return AmortizationEngine.fixedPrincipal(principal, tenure, principalPart, monthlyRate);
+        }
+
+        return emi
+                ? AmortizationEngine.emiSchedule(principal, periods, monthlyRate)
+                : AmortizationEngine.flat(principal, principal, periods, monthlyRate);
+    }
+
+    /**
+     * 🔹 Rewrite the kept installments in place (one JDBC batch)
+     */
+    private void writeSchedule(Loan loan, AmortizationEngine.Schedule plan, List<OpenInstallment> rows) {
+        int[] period = {0};
+        jdbcTemplate.batchUpdate(UPDATE_INSTALLMENT, rows, rows.size(), (ps, row) -> {
+            int i = period[0]++;
+            ps.setBigDecimal(1, AmortizationEngine.fromMinor(plan.principal()[i]));
+            ps.setBigDecimal(2, AmortizationEngine.fromMinor(plan.interest()[i]));
+            ps.setBigDecimal(3, AmortizationEngine.fromMinor(plan.total(i)));
+            ps.setBigDecimal(4, AmortizationEngine.fromMinor(plan.openingBalance()[i]));
+            ps.setBigDecimal(5, loan.getInterestRate());
+            ps.setLong(6, row.repaymentId());
+        });
+    }
+
+    /**
+     * 🔹 Receipt row for the prepaid principal (already settled, never billed)
+     */
+    private void recordPrepayment(Loan loan, BigDecimal amount, long balance, LocalDate systemDate) {
+        Repayment prepayment = new Repayment();
+        prepayment.setLoan(loan);
+        prepayment.setCustomer(loan.getCustomer());
+        prepayment.setDueDate(systemDate);
+        prepayment.setPaymentDate(systemDate);
+        prepayment.setExpectedPrincipal(amount);
+        prepayment.setExpectedInterest(BigDecimal.ZERO);
+        prepayment.setTotalDue(amount);
+        prepayment.setAmountPaid(amount);
+        prepayment.setPrincipalPaid(amount);
+        prepayment.setInterestPaid(BigDecimal.ZERO);
+        prepayment.setRemainingPrincipal(AmortizationEngine.fromMinor(balance));
+        prepayment.setOutstandingInterest(BigDecimal.ZERO);
+        prepayment.setRateOfInterest(loan.getInterestRate());
+        prepayment.setStatus(STATUS_PREPAYMENT);
+        prepayment.setBillingDone(true);
+        repaymentRepository.save(prepayment);
+    }
+
+    // Open installment as read from the projection (amounts in paise)
+    private record OpenInstallment(long repaymentId, LocalDate dueDate, long expectedPrincipal, long totalDue) {
+    }
+}
@@ -0,0 +1,487 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.RateChangeDTO;
+import com.corebank.coreb.entity.Job;
+import com.corebank.coreb.entity.JobMaster;
+import com.corebank.coreb.entity.JobPartition;
+import com.corebank.coreb.entity.Loan;
+import com.corebank.coreb.repository.JobMasterRepository;
+import com.corebank.coreb.repository.JobPartitionRepository;
+import com.corebank.coreb.repository.JobRepository;
+import com.corebank.coreb.repository.LoanRepository;
+import com.corebank.coreb.util.AmortizationEngine;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 🔹 Loan repricing (interest rate changes on live loans)
+ *
+ * A rate change rewrites the loan rate and every open installment (due after
+ * the system date, unbilled, nothing paid): FLAT schedules keep their
+ * principal parts and get interest at the new rate, EMI schedules are
+ * re-amortized from the opening balance of the first open installment.
+ *
+ * The LOAN_REPRICING job applies one rate-change event to the selected loans
+ * (floating-rate, optionally by loan type / branch): the selected loan ids are
+ * split into contiguous ranges run in parallel on virtual threads, each range
+ * in chunks of loans with one transaction, two projection queries and batched
+ * JDBC updates per chunk. Range outcomes go to job_partition and overall
+ * progress to the job's remarks.
+ */
+@Slf4j
+@Service
+public class LoanRepricingService {
+
+    public static final String JOB_NAME = "LOAN_REPRICING";
+
+    private static final String OPEN_INSTALLMENT =
+            "r.due_date > ? AND r.billing_done = false AND COALESCE(r.amount_paid, 0) = 0 AND r.status = 'UNPAID'";
+
+    private static final String SELECT_LOAN_IDS =
+            "SELECT l.loan_id FROM loan l WHERE ";
+
+    // Parameters: first loan id, last loan id, selection parameters
+    private static final String SELECT_CHUNK_LOANS =
+            "SELECT l.loan_id, l.interest_rate, l.schedule_method, l.schedule_mode FROM loan l " +
+            "WHERE l.loan_id BETWEEN ? AND ? AND ";
+
+    // Parameters: first loan id, last loan id, system date, selection parameters
+    private static final String SELECT_CHUNK_INSTALLMENTS =
+            "SELECT r.loan_id, r.repayment_id, r.expected_principal, r.remaining_principal, r.version " +
+            "FROM repayment r JOIN loan l ON l.loan_id = r.loan_id " +
+            "WHERE r.loan_id BETWEEN ? AND ? AND " + OPEN_INSTALLMENT + " AND ";
+
+    private static final String ORDER_INSTALLMENTS =
+            " ORDER BY r.loan_id, r.due_date, r.repayment_id";
+
+    // Still open and unchanged since the chunk read it: an installment billed or paid in between matches nothing
+    private static final String UPDATE_INSTALLMENT =
+            "UPDATE repayment SET expected_principal = ?, expected_interest = ?, total_due = ?, " +
+            "remaining_principal = ?, rate_of_interest = ?, version = version + 1 " +
+            "WHERE repayment_id = ? AND version = ? AND billing_done = false " +
+            "AND COALESCE(amount_paid, 0) = 0 AND status = 'UNPAID'";
+
+    // Version bumped so a Loan loaded before this commit cannot flush its old rate back;
+    // loans managed in this transaction (collateral, lazy schedules) take the rate on the entity instead
+    private static final String UPDATE_LOAN_RATE =
+            "UPDATE loan SET interest_rate = ?, version = version + 1 WHERE loan_id = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private RepaymentMaterializer repaymentMaterializer;
+
+    @Autowired
+    private SystemDateService systemDateService;
+
+    @Autowired
+    private JobMasterRepository jobMasterRepository;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private JobPartitionRepository jobPartitionRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Loans per transaction
+    @Value("${loan.repricing.chunk-size:200}")
+    private int chunkSize;
+
+    // Contiguous loan-id ranges per run
+    @Value("${loan.repricing.partition.count:8}")
+    private int partitionCount;
+
+    // Ranges running at once; keep below the connection pool size
+    @Value("${loan.repricing.partition.parallelism:4}")
+    private int parallelism;
+
+    // --------------------
+    // Single loan
+    // --------------------
+
+    /**
+     * 🔹 Move one loan to a new rate and reprice its open installments
+     *    (joins the caller's transaction; the loan must still carry its old rate,
+     *    the new one is set on the entity once the schedule is repriced;
+     *    OptimisticLockingFailureException if an installment is billed or paid meanwhile)
+     */
+    public int repriceLoan(Loan loan, BigDecimal newRate) {
+        RateChangeDTO change = new RateChangeDTO(null, newRate, null, null, false, null);
+        LoanSelection selection = new LoanSelection("l.loan_id = ?", List.of(loan.getLoanId()));
+
+        Map<Long, Loan> managed = new HashMap<>();
+        managed.put(loan.getLoanId(), loan);
+        return repriceChunk(List.of(loan.getLoanId()), selection, change, systemDateService.getSystemDate(), managed);
+    }
+
+    // --------------------
+    // Repricing job
+    // --------------------
+
+    /**
+     * 🔹 Apply a rate-change event to every selected loan; outcome and progress are recorded on the job
+     */
+    public void repriceBook(RateChangeDTO change, Job job) {
+
+        if ((change.getRateChange() == null) == (change.getNewRate() == null)) {
+            throw new RuntimeException("Give either rateChange or newRate");
+        }
+
+        LocalDate systemDate = systemDateService.getSystemDate();
+        LoanSelection selection = select(change);
+
+        List<Long> loanIds = jdbcTemplate.queryForList(
+                SELECT_LOAN_IDS + selection.where() + " ORDER BY l.loan_id", Long.class, selection.params().toArray());
+
+        log.info("📈 Repricing {} loans | Change: {} | System Date: {}", loanIds.size(), describe(change), systemDate);
+
+        List<List<Long>> ranges = split(loanIds, Math.max(1, partitionCount));
+        List<JobPartition> records = new ArrayList<>();
+        for (List<Long> range : ranges) {
+            records.add(newRecord(job, range));
+        }
+
+        AtomicInteger done = new AtomicInteger();
+        Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        List<Future<int[]>> futures = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < ranges.size(); i++) {
+                List<Long> range = ranges.get(i);
+                JobPartition record = records.get(i);
+                futures.add(executor.submit(() ->
+                        runRange(range, record, selection, change, systemDate, job, done, loanIds.size(), permits)));
+            }
+        }
+
+        int repriced = 0;
+        int failed = 0;
+        List<String> failedKeys = new ArrayList<>();
+        for (int i = 0; i < ranges.size(); i++) {
+            try {
+                int[] result = futures.get(i).get();
+                repriced += result[0];
+                failed += result[1];
+            } catch (ExecutionException | InterruptedException e) {
+                failedKeys.add(records.get(i).getPartitionKey());
+            }
+        }
+
+        String remarks = "✅ Repriced " + repriced + " of " + loanIds.size() + " loans (" + describe(change) + ")";
+        if (failed > 0) {
+            remarks += " | ⚠️ " + failed + " loans not repriced (failed chunks)";
+        }
+        if (!failedKeys.isEmpty()) {
+            remarks += " | ❌ Failed ranges: " + String.join(", ", failedKeys);
+        }
+        log.info(remarks);
+
+        job.setRemarks(remarks);
+        if (failed == 0 && failedKeys.isEmpty()) {
+            job.setStatus("COMPLETED");
+        } else {
+            job.setStatus(repriced > 0 ? "COMPLETED_WITH_ERRORS" : "FAILED");
+        }
+    }
+
+    /**
+     * 🔹 Reprice one loan-id range chunk by chunk; returns {repriced, failed}
+     */
+    private int[] runRange(List<Long> range, JobPartition record, LoanSelection selection, RateChangeDTO change,
+                           LocalDate systemDate, Job job, AtomicInteger done, int total,
+                           Semaphore permits) throws Exception {
+
+        permits.acquire();
+        try {
+            record.setStatus("RUNNING");
+            record.setStartTime(LocalDateTime.now());
+            record = jobPartitionRepository.save(record);
+
+            TransactionTemplate chunkTx = new TransactionTemplate(transactionManager);
+            int repriced = 0;
+            int failed = 0;
+
+            for (int from = 0; from < range.size(); from += chunkSize) {
+                List<Long> chunk = range.subList(from, Math.min(range.size(), from + chunkSize));
+                try {
+                    Integer count;
+                    try {
+                        count = chunkTx.execute(status -> repriceChunk(chunk, selection, change, systemDate, new HashMap<>()));
+                    } catch (OptimisticLockingFailureException e) {
+                        // Rolled back: the re-read skips installments no longer open; a second conflict fails the chunk
+                        log.warn("⚠️ Repricing chunk {}..{} retried: {}", chunk.get(0), chunk.get(chunk.size() - 1), e.getMessage());
+                        count = chunkTx.execute(status -> repriceChunk(chunk, selection, change, systemDate, new HashMap<>()));
+                    }
+                    repriced += (count != null) ? count : 0;
+                } catch (Exception e) {
+                    log.error("❌ Repricing chunk {}..{} failed: {}", chunk.get(0), chunk.get(chunk.size() - 1), e.getMessage());
+                    failed += chunk.size();
+                }
+                reportProgress(job, done.addAndGet(chunk.size()), total);
+            }
+
+            record.setStatus(failed > 0 ? "COMPLETED_WITH_ERRORS" : "COMPLETED");
+            record.setProcessedCount(repriced);
+            record.setFailedCount(failed);
+            record.setRemarks("Repriced " + repriced + " loans");
+            return new int[] {repriced, failed};
+
+        } catch (Exception e) {
+            log.error("❌ Repricing range [{}] failed: {}", record.getPartitionKey(), e.getMessage());
+            record.setStatus("FAILED");
+            record.setRemarks("❌ Range failed: " + e.getMessage());
+            throw e;
+
+        } finally {
+            record.setEndTime(LocalDateTime.now());
+            jobPartitionRepository.save(record);
+            permits.release();
+        }
+    }
+
+    /**
+     * 🔹 Reprice a sorted run of selected loan ids in the current transaction; returns loans repriced
+     *    (managed: loans held as entities in this transaction, by id; they get the new rate on the entity)
+     */
+    private int repriceChunk(List<Long> loanIds, LoanSelection selection, RateChangeDTO change, LocalDate systemDate,
+                             Map<Long, Loan> managed) {
+
+        Object[] loanParams = params(selection, loanIds.get(0), loanIds.get(loanIds.size() - 1));
+        Map<Long, LoanTerms> terms = new HashMap<>();
+
+        jdbcTemplate.query(SELECT_CHUNK_LOANS + selection.where(), rs -> {
+            long loanId = rs.getLong("loan_id");
+            terms.put(loanId, new LoanTerms(
+                    newRate(rs.getBigDecimal("interest_rate"), change),
+                    "EMI".equalsIgnoreCase(rs.getString("schedule_method")),
+                    RepaymentMaterializer.LAZY.equalsIgnoreCase(rs.getString("schedule_mode"))));
+        }, loanParams);
+
+        if (terms.isEmpty()) {
+            return 0;
+        }
+
+        // Lazy schedules: remaining installments need rows before they can be repriced
+        List<Long> lazyIds = terms.entrySet().stream().filter(e -> e.getValue().lazy()).map(Map.Entry::getKey).toList();
+        List<Long> lazyToLoad = lazyIds.stream().filter(id -> !managed.containsKey(id)).toList();
+        for (Loan loan : loanRepository.findAllById(lazyToLoad)) {
+            managed.put(loan.getLoanId(), loan);
+        }
+        for (Long loanId : lazyIds) {
+            Loan loan = managed.get(loanId);
+            // Still at the old rate: the rows written here are the ones being repriced below
+            repaymentMaterializer.materializeThrough(loan, loan.getTenureMonths(), systemDate);
+        }
+
+        List<Object[]> installmentUpdates = new ArrayList<>();
+        List<OpenInstallment> loanInstallments = new ArrayList<>();
+        long[] currentLoan = {-1L};
+
+        jdbcTemplate.query(SELECT_CHUNK_INSTALLMENTS + selection.where() + ORDER_INSTALLMENTS, rs -> {
+            long loanId = rs.getLong("loan_id");
+            if (loanId != currentLoan[0] && !loanInstallments.isEmpty()) {
+                reprice(terms.get(currentLoan[0]), loanInstallments, installmentUpdates);
+                loanInstallments.clear();
+            }
+            currentLoan[0] = loanId;
+            loanInstallments.add(new OpenInstallment(
+                    rs.getLong("repayment_id"),
+                    AmortizationEngine.toMinor(rs.getBigDecimal("expected_principal")),
+                    AmortizationEngine.toMinor(rs.getBigDecimal("remaining_principal")),
+                    rs.getLong("version")));
+        }, installmentParams(selection, loanParams, systemDate));
+
+        if (!loanInstallments.isEmpty()) {
+            reprice(terms.get(currentLoan[0]), loanInstallments, installmentUpdates);
+        }
+
+        // Managed loans flush the rate (and their version) themselves; a JDBC write would make that flush fail
+        List<Object[]> rateUpdates = new ArrayList<>();
+        terms.forEach((loanId, loanTerms) -> {
+            Loan loan = managed.get(loanId);
+            if (loan != null) {
+                loan.setInterestRate(loanTerms.newRate());
+            } else {
+                rateUpdates.add(new Object[] {loanTerms.newRate(), loanId});
+            }
+        });
+
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_INSTALLMENT, installmentUpdates);
+        // An EMI schedule is re-amortized as a whole, so one changed installment invalidates the chunk
+        long changed = Arrays.stream(updated).filter(count -> count == 0).count();
+        if (changed > 0) {
+            throw new OptimisticLockingFailureException(changed + " installments of loans " + loanIds.get(0) + ".."
+                    + loanIds.get(loanIds.size() - 1) + " were billed or paid while repricing");
+        }
+        jdbcTemplate.batchUpdate(UPDATE_LOAN_RATE, rateUpdates);
+        return terms.size();
+    }
+
+    /**
+     * 🔹 New amounts for one loan's open installments (FLAT: interest only, EMI: re-amortized)
+     */
+    private void reprice(LoanTerms loan, List<OpenInstallment> installments, List<Object[]> updates) {
+        long monthlyRate = AmortizationEngine.monthlyRate(loan.newRate());
+        int periods = installments.size();
+
+        AmortizationEngine.Schedule plan = loan.emi()
+                ? AmortizationEngine.emiSchedule(installments.get(0).balance(), periods, monthlyRate)
+                : null;
+
+        for (int i = 0; i < periods; i++) {
+            OpenInstallment installment = installments.get(i);
+
+            long principal = (plan != null) ? plan.principal()[i] : installment.principal();
+            long balance = (plan != null) ? plan.openingBalance()[i] : installment.balance();
+            long interest = (plan != null) ? plan.interest()[i] : AmortizationEngine.periodInterest(balance, monthlyRate);
+
+            updates.add(new Object[] {
+                    AmortizationEngine.fromMinor(principal),
+                    AmortizationEngine.fromMinor(interest),
+                    AmortizationEngine.fromMinor(principal + interest),
+                    AmortizationEngine.fromMinor(balance),
+                    loan.newRate(),
+                    installment.repaymentId(),
+                    installment.version()
+            });
+        }
+    }
+
+    // --------------------
+    // Helpers
+    // --------------------
+
+    private BigDecimal newRate(BigDecimal currentRate, RateChangeDTO change) {
+        BigDecimal rate = (change.getNewRate() != null)
+                ? change.getNewRate()
+                : (currentRate != null ? currentRate : BigDecimal.ZERO).add(change.getRateChange());
+        return rate.max(BigDecimal.ZERO).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    // Active loans matching the event's filters
+    private LoanSelection select(RateChangeDTO change) {
+        StringBuilder where = new StringBuilder("l.status = 'Active'");
+        List<Object> params = new ArrayList<>();
+
+        if (!Boolean.FALSE.equals(change.getFloatingOnly())) {
+            where.append(" AND l.rate_type = 'FLOATING'");
+        }
+        if (change.getLoanType() != null) {
+            where.append(" AND l.loan_type = ?");
+            params.add(change.getLoanType());
+        }
+        if (change.getBranchId() != null) {
+            where.append(" AND l.branch_id = ?");
+            params.add(change.getBranchId());
+        }
+        return new LoanSelection(where.toString(), params);
+    }
+
+    private static Object[] params(LoanSelection selection, Object... leading) {
+        List<Object> params = new ArrayList<>(List.of(leading));
+        params.addAll(selection.params());
+        return params.toArray();
+    }
+
+    // first loan id, last loan id, system date, selection parameters
+    private static Object[] installmentParams(LoanSelection selection, Object[] loanParams, LocalDate systemDate) {
+        return params(selection, loanParams[0], loanParams[1], Date.valueOf(systemDate));
+    }
+
+    // Contiguous, non-empty slices of the sorted id list
+    private static List<List<Long>> split(List<Long> ids, int count) {
+        List<List<Long>> slices = new ArrayList<>();
+        int size = (ids.size() + count - 1) / count;
+        for (int from = 0; from < ids.size(); from += size) {
+            slices.add(ids.subList(from, Math.min(ids.size(), from + size)));
+        }
+        return slices;
+    }
+
+    private JobPartition newRecord(Job job, List<Long> range) {
+        JobPartition record = new JobPartition();
+        record.setJob(job);
+        record.setPartitionKey("LOANS-" + range.get(0) + "-" + range.get(range.size() - 1));
+        record.setMinLoanId(range.get(0));
+        record.setMaxLoanId(range.get(range.size() - 1));
+        record.setStatus("PENDING");
+        record.setProcessedCount(0);
+        record.setFailedCount(0);
+        return jobPartitionRepository.save(record);
+    }
+
+    private void reportProgress(Job job, int done, int total) {
+        synchronized (job) {
+            job.setRemarks("⏳ Repricing in progress: " + done + " / " + total + " loans");
+            jobRepository.save(job);
+        }
+    }
+
+    private static String describe(RateChangeDTO change) {
+        String text = (change.getNewRate() != null)
+                ? "rate → " + change.getNewRate() + "%"
+                : "rate " + (change.getRateChange().signum() >= 0 ? "+" : "") + change.getRateChange() + "%";
+        return (change.getReference() != null) ? text + ", " + change.getReference() : text;
+    }
+
+    /**
+     * 🔹 Register the job definition so it shows up in the job list
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void registerJob() {
+        if (jobMasterRepository.findByJobName(JOB_NAME).isEmpty()) {
+            JobMaster master = new JobMaster();
+            master.setJobName(JOB_NAME);
+            master.setDescription("Apply a benchmark rate change to floating-rate loans and reprice their open installments");
+            master.setActive(true);
+            master.setApiEndpoint("/api/jobs/repricing");
+            jobMasterRepository.save(master);
+            log.info("🗂️ Registered job {}", JOB_NAME);
+        }
+    }
+
+    // SQL filter on loan alias "l" with its positional parameters
+    private record LoanSelection(String where, List<Object> params) {
+    }
+
+    private record LoanTerms(BigDecimal newRate, boolean emi, boolean lazy) {
+    }
+
+    // Open installment as read from the projection (amounts in paise)
+    private record OpenInstallment(long repaymentId, long principal, long balance, long version) {
+    }
+}
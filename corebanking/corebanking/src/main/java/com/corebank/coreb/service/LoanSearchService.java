@@ -0,0 +1,162 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.LoanDTO;
+import com.corebank.coreb.dto.LoanPageDTO;
+import com.corebank.coreb.enums.LoanSortField;
+import com.corebank.coreb.repository.LoanRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 🔹 Loan search: filtered, sorted, keyset-paged
+ *
+ * Pages are read with the LoanDTO constructor projection (one row per loan,
+ * no Customer / Branch / Collateral entities) and continue after the last row
+ * of the previous page via an opaque cursor (sort value + loan id), so deep
+ * pages cost the same as the first one. Sorting is stable: ties are broken
+ * by loan id.
+ */
+@Service
+public class LoanSearchService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * 🔹 One page of loans matching the filters (null filters are ignored)
+     */
+    public LoanPageDTO search(String status, Long branchId, String loanType, String loanNoPrefix,
+                              LoanSortField sort, boolean descending, int size, String cursor) {
+
+        LoanSortField sortField = (sort != null) ? sort : LoanSortField.LOAN_ID;
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        String direction = descending ? "DESC" : "ASC";
+        String after = descending ? "<" : ">";
+
+        StringBuilder jpql = new StringBuilder(LoanRepository.LOAN_DTO_SELECT).append(" WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+
+        if (status != null && !status.isBlank()) {
+            jpql.append(" AND l.status = :status");
+            params.put("status", status);
+        }
+        if (branchId != null) {
+            jpql.append(" AND b.branchId = :branchId");
+            params.put("branchId", branchId);
+        }
+        if (loanType != null && !loanType.isBlank()) {
+            jpql.append(" AND l.loanType = :loanType");
+            params.put("loanType", loanType);
+        }
+        if (loanNoPrefix != null && !loanNoPrefix.isBlank()) {
+            jpql.append(" AND l.loanNo LIKE :loanNoPrefix ESCAPE '!'");
+            params.put("loanNoPrefix", escapeLike(loanNoPrefix) + "%");
+        }
+
+        String sortPath = sortPath(sortField);
+
+        // Keyset: continue strictly after the last row of the previous page
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor position = decode(cursor, sortField, direction);
+            if (sortPath == null) {
+                jpql.append(" AND l.loanId ").append(after).append(" :afterId");
+            } else {
+                jpql.append(" AND (").append(sortPath).append(' ').append(after).append(" :afterValue")
+                    .append(" OR (").append(sortPath).append(" = :afterValue AND l.loanId ").append(after).append(" :afterId))");
+                params.put("afterValue", position.value());
+            }
+            params.put("afterId", position.loanId());
+        }
+
+        jpql.append(" ORDER BY ");
+        if (sortPath != null) {
+            jpql.append(sortPath).append(' ').append(direction).append(", ");
+        }
+        jpql.append("l.loanId ").append(direction);
+
+        TypedQuery<LoanDTO> query = entityManager.createQuery(jpql.toString(), LoanDTO.class);
+        params.forEach(query::setParameter);
+
+        // One extra row tells whether another page exists
+        List<LoanDTO> rows = query.setMaxResults(pageSize + 1).getResultList();
+        boolean hasNext = rows.size() > pageSize;
+        List<LoanDTO> items = hasNext ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = hasNext
+                ? encode(sortField, direction, items.get(items.size() - 1))
+                : null;
+
+        return new LoanPageDTO(items, items.size(), hasNext, nextCursor);
+    }
+
+    // --------------------
+    // Sort keys and cursors
+    // --------------------
+
+    // Entity path of the sort key; null when sorting by loan id alone
+    private static String sortPath(LoanSortField sort) {
+        return switch (sort) {
+            case LOAN_NO -> "l.loanNo";
+            case PRINCIPAL -> "l.principal";
+            case LOAN_ID -> null;
+        };
+    }
+
+    private static Object sortValue(LoanSortField sort, String value) {
+        return (sort == LoanSortField.PRINCIPAL) ? new BigDecimal(value) : value;
+    }
+
+    private static String rawSortValue(LoanSortField sort, LoanDTO last) {
+        return switch (sort) {
+            case LOAN_NO -> last.getLoanNo();
+            case PRINCIPAL -> last.getPrincipal().toPlainString();
+            case LOAN_ID -> "";
+        };
+    }
+
+    // sort|direction|loanId|value, base64url (value last: it may contain the separator)
+    private static String encode(LoanSortField sort, String direction, LoanDTO last) {
+        String raw = sort + "|" + direction + "|" + last.getLoanId() + "|" + rawSortValue(sort, last);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Cursor decode(String cursor, LoanSortField sort, String direction) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+
+        if (parts.length != 4 || !parts[0].equals(sort.name()) || !parts[1].equals(direction)) {
+            throw new RuntimeException("Cursor does not match the requested sort");
+        }
+        try {
+            return new Cursor(Long.parseLong(parts[2]), sortValue(sort, parts[3]));
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    // LIKE pattern for a literal prefix ('!' is the escape character)
+    private static String escapeLike(String prefix) {
+        return prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    private record Cursor(long loanId, Object value) {
+    }
+}
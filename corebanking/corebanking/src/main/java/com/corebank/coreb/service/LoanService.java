@@ -9,11 +9,10 @@ import com.corebank.coreb.repository.*;
 
 import jakarta.transaction.Transactional;
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -37,6 +36,18 @@ public class LoanService {
     @Autowired
     private SystemDateRepository systemDateRepository;
 
+    @Autowired
+    private BillingQueueService billingQueueService;
+
+    @Autowired
+    private RepaymentScheduleWriter repaymentScheduleWriter;
+
+    @Autowired
+    private RepaymentMaterializer repaymentMaterializer;
+
+    @Autowired
+    private LoanNumberAllocator loanNumberAllocator;
+
     // --------------------
     // Get current system date
     // --------------------
@@ -61,6 +72,11 @@ public class LoanService {
         loan.setMaturityDate(null);
         loan.setBalancePrincipal(loan.getPrincipal());
 
+        // Numbered from this node's in-memory block (no extra round trip per loan)
+        if (loan.getLoanNo() == null || loan.getLoanNo().isEmpty()) {
+            loan.setLoanNo(loanNumberAllocator.next(loan.getBranch().getBranchId()));
+        }
+
         Loan savedLoan = loanRepository.save(loan);
         return toDTO(savedLoan);
     }
@@ -95,8 +111,16 @@ public class LoanService {
         Loan existingLoan = loanRepository.findById(loanId)
                 .orElseThrow(() -> new RuntimeException("Loan not found"));
 
+        // Lazy schedules are recomputed from the current terms: write the unwritten installments
+        // under the old terms first, as prepayment and repricing do, so changing them rewrites nothing
+        if (termsChange(existingLoan, loanDTO)) {
+            repaymentMaterializer.materializeThrough(existingLoan, existingLoan.getTenureMonths(),
+                    getCurrentSystemDate());
+        }
+
         existingLoan.setPrincipal(loanDTO.getPrincipal());
         existingLoan.setInterestRate(loanDTO.getInterestRate());
+        existingLoan.setRateType(loanDTO.getRateType());
         existingLoan.setTenureMonths(loanDTO.getTenureMonths());
         existingLoan.setLoanType(loanDTO.getLoanType());
         existingLoan.setStatus(loanDTO.getStatus());
@@ -120,6 +144,17 @@ public class LoanService {
         return toDTO(updatedLoan);
     }
 
+    // Principal, rate or tenure edited (the terms a lazy schedule is built from)
+    private static boolean termsChange(Loan loan, LoanDTO dto) {
+        return !sameAmount(loan.getPrincipal(), dto.getPrincipal())
+                || !sameAmount(loan.getInterestRate(), dto.getInterestRate())
+                || !Objects.equals(loan.getTenureMonths(), dto.getTenureMonths());
+    }
+
+    private static boolean sameAmount(BigDecimal a, BigDecimal b) {
+        return (a == null || b == null) ? a == b : a.compareTo(b) == 0;
+    }
+
     // --------------------
     // Get Loan by ID
     // --------------------
@@ -131,10 +166,8 @@ public class LoanService {
     // Get All Loans
     // --------------------
     public List<LoanDTO> getAllLoans() {
-        return loanRepository.findAll()
-                .stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        // Constructor projection: no Customer / Branch / Collateral entities per loan
+        return loanRepository.findAllAsDTO();
     }
 
     // --------------------
@@ -171,41 +204,17 @@ public class LoanService {
     // Generate Repayment Schedule (Post Approval)
     // --------------------
     private void generateRepayments(Loan loan) {
-        int tenure = loan.getTenureMonths();
-        BigDecimal principal = loan.getPrincipal();
-        BigDecimal remainingBalance = loan.getBalancePrincipal();
-
-        BigDecimal monthlyRate = loan.getInterestRate()
-                .divide(BigDecimal.valueOf(12 * 100), 10, RoundingMode.HALF_UP);
-
-        LocalDate startDate = loan.getStartDate(); // ✅ use actual approval start date
-
-        for (int i = 1; i <= tenure; i++) {
-            Repayment repayment = new Repayment();
-            repayment.setLoan(loan);
-            repayment.setCustomer(loan.getCustomer());
-            repayment.setDueDate(startDate.plusMonths(i));
-            repayment.setRateOfInterest(loan.getInterestRate());
-
-            BigDecimal interestDue = remainingBalance.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
-            BigDecimal principalDue = principal.divide(BigDecimal.valueOf(tenure), 2, RoundingMode.HALF_UP);
-            BigDecimal totalDue = principalDue.add(interestDue);
-
-            repayment.setExpectedInterest(interestDue);
-            repayment.setExpectedPrincipal(principalDue);
-            repayment.setTotalDue(totalDue);
-
-            repayment.setAmountPaid(BigDecimal.ZERO);
-            repayment.setPrincipalPaid(BigDecimal.ZERO);
-            repayment.setInterestPaid(BigDecimal.ZERO);
-            repayment.setRemainingPrincipal(remainingBalance);
-            repayment.setOutstandingInterest(BigDecimal.ZERO);
-            repayment.setStatus("UNPAID");
-            repayment.setBillingDone(false);
-
-            repaymentRepository.save(repayment);
-            remainingBalance = remainingBalance.subtract(principalDue);
-        }
+        LocalDate systemDate = getCurrentSystemDate();
+
+        // Whole schedule (EAGER) or the installments already due (LAZY)
+        List<Repayment> schedule = repaymentMaterializer.startSchedule(loan, systemDate);
+        loanRepository.save(loan);
+
+        // Whole schedule in a few batched round trips instead of one insert per month
+        repaymentScheduleWriter.insertSchedule(schedule);
+
+        // Back-dated schedules can already have billable installments
+        billingQueueService.enqueueDue(schedule, systemDate);
     }
 
     // --------------------
@@ -218,6 +227,7 @@ public class LoanService {
         dto.setLoanType(loan.getLoanType());
         dto.setPrincipal(loan.getPrincipal());
         dto.setInterestRate(loan.getInterestRate());
+        dto.setRateType(loan.getRateType());
         dto.setTenureMonths(loan.getTenureMonths());
         dto.setStartDate(loan.getStartDate());
         dto.setMaturityDate(loan.getMaturityDate());
@@ -244,6 +254,7 @@ public class LoanService {
         loan.setLoanType(dto.getLoanType());
         loan.setPrincipal(dto.getPrincipal());
         loan.setInterestRate(dto.getInterestRate());
+        loan.setRateType(dto.getRateType());
         loan.setTenureMonths(dto.getTenureMonths());
         loan.setStatus(dto.getStatus());
         loan.setBalancePrincipal(dto.getPrincipal());
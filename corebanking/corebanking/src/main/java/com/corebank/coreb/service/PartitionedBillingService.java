@@ -0,0 +1,260 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.BillingDTO;
+import com.corebank.coreb.dto.BillingResponseDTO;
+import com.corebank.coreb.entity.Job;
+import com.corebank.coreb.entity.JobPartition;
+import com.corebank.coreb.repository.JobPartitionRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * 🔹 Partitioned billing engine
+ *
+ * Splits the due set by branch (or by loan-id ranges) and bills every partition
+ * with the chunked engine on its own virtual thread. Partitions commit
+ * independently, so one failing branch does not hold back the others; the
+ * outcome and checkpoint of each partition is recorded in job_partition.
+ *
+ * An optional sink receives each committed chunk instead of the aggregated
+ * billedRecords list; calls to it are serialized across partitions.
+ */
+@Slf4j
+@Service
+public class PartitionedBillingService {
+
+    @Autowired
+    private ChunkedBillingService chunkedBillingService;
+
+    @Autowired
+    private JobPartitionRepository jobPartitionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // BRANCH → one partition per branch, LOAN_RANGE → billing.partition.count loan-id ranges
+    @Value("${billing.partition.strategy:BRANCH}")
+    private String strategy;
+
+    @Value("${billing.partition.count:8}")
+    private int rangeCount;
+
+    // Partitions running at once; keep below the connection pool size
+    @Value("${billing.partition.parallelism:4}")
+    private int parallelism;
+
+    /**
+     * 🔹 Bill all partitions in parallel; job may be null (manual API call)
+     */
+    public BillingResponseDTO generateBilling(LocalDate billingDate, Job job, Consumer<List<BillingDTO>> sink) {
+        return generateBilling(billingDate, job, planPartitions(), sink);
+    }
+
+    /**
+     * 🔹 Bill the given partitions in parallel, one checkpoint row per partition
+     */
+    public BillingResponseDTO generateBilling(LocalDate billingDate, Job job, List<BillingPartition> partitions,
+                                              Consumer<List<BillingDTO>> sink) {
+
+        List<JobPartition> checkpoints = new ArrayList<>();
+        for (BillingPartition partition : partitions) {
+            checkpoints.add(newCheckpoint(job, partition));
+        }
+        return runPartitions(billingDate, partitions, checkpoints, sink);
+    }
+
+    /**
+     * 🔹 Resume an interrupted execution: rerun unfinished partitions from their checkpoints
+     */
+    public BillingResponseDTO resumeBilling(LocalDate billingDate, Job job, Consumer<List<BillingDTO>> sink) {
+
+        List<JobPartition> unfinished = jobPartitionRepository
+                .findByJob_SeqNoOrderByPartitionIdAsc(job.getSeqNo())
+                .stream()
+                .filter(p -> !"COMPLETED".equals(p.getStatus()))
+                .toList();
+
+        List<BillingPartition> partitions = unfinished.stream()
+                .map(p -> new BillingPartition(p.getPartitionKey(), p.getBranchId(), p.getMinLoanId(), p.getMaxLoanId()))
+                .toList();
+
+        log.info("⏩ Resuming job [{}]: {} unfinished partitions", job.getSeqNo(), partitions.size());
+        return runPartitions(billingDate, partitions, unfinished, sink);
+    }
+
+    /**
+     * 🔹 Run partitions on virtual threads and aggregate their results
+     */
+    private BillingResponseDTO runPartitions(LocalDate billingDate,
+                                             List<BillingPartition> partitions,
+                                             List<JobPartition> checkpoints,
+                                             Consumer<List<BillingDTO>> sink) {
+
+        log.info("🔀 Billing {} partitions with parallelism {}", partitions.size(), parallelism);
+
+        Consumer<List<BillingDTO>> serialSink = (sink == null) ? null : chunk -> {
+            synchronized (sink) {
+                sink.accept(chunk);
+            }
+        };
+
+        Semaphore permits = new Semaphore(Math.max(1, parallelism));
+        List<Future<BillingResponseDTO>> futures = new ArrayList<>();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < partitions.size(); i++) {
+                BillingPartition partition = partitions.get(i);
+                JobPartition checkpoint = checkpoints.get(i);
+                futures.add(executor.submit(() -> runPartition(billingDate, partition, checkpoint, serialSink, permits)));
+            }
+        }
+
+        List<BillingDTO> billingRecords = new ArrayList<>();
+        List<String> failedKeys = new ArrayList<>();
+        int processedCount = 0;
+        int failedCount = 0;
+
+        for (int i = 0; i < partitions.size(); i++) {
+            try {
+                BillingResponseDTO result = futures.get(i).get();
+                if (result.getBilledRecords() != null) {
+                    billingRecords.addAll(result.getBilledRecords());
+                }
+                processedCount += result.getProcessedCount();
+                failedCount += result.getFailedCount();
+            } catch (ExecutionException | InterruptedException e) {
+                failedKeys.add(partitions.get(i).key());
+            }
+        }
+
+        String remarks;
+        if (processedCount == 0 && failedCount == 0 && failedKeys.isEmpty()) {
+            remarks = "ℹ️ No repayments found for billing date: " + billingDate;
+        } else {
+            remarks = "✅ Billing completed successfully for " + processedCount +
+                    " repayments across " + partitions.size() + " partitions (System Date: " + billingDate + ")";
+            if (failedCount > 0) {
+                remarks += " | ⚠️ " + failedCount + " repayments left unbilled (failed chunks)";
+            }
+            if (!failedKeys.isEmpty()) {
+                remarks += " | ❌ Failed partitions: " + String.join(", ", failedKeys);
+            }
+        }
+        log.info(remarks);
+
+        return new BillingResponseDTO(
+                billingDate, processedCount, remarks, sink != null ? null : billingRecords,
+                failedCount, failedKeys.size()
+        );
+    }
+
+    /**
+     * 🔹 Checkpoint row for a new partition run (null without a job)
+     */
+    private JobPartition newCheckpoint(Job job, BillingPartition partition) {
+        if (job == null || job.getSeqNo() == null) {
+            return null;
+        }
+
+        JobPartition record = new JobPartition();
+        record.setJob(job);
+        record.setPartitionKey(partition.key());
+        record.setBranchId(partition.branchId());
+        record.setMinLoanId(partition.minLoanId());
+        record.setMaxLoanId(partition.maxLoanId());
+        record.setStatus("PENDING");
+        record.setHeartbeatAt(LocalDateTime.now());
+        record.setProcessedCount(0);
+        record.setFailedCount(0);
+        return jobPartitionRepository.save(record);
+    }
+
+    /**
+     * 🔹 Bill one partition, recording its outcome on the checkpoint row
+     */
+    private BillingResponseDTO runPartition(LocalDate billingDate, BillingPartition partition,
+                                            JobPartition record, Consumer<List<BillingDTO>> sink,
+                                            Semaphore permits) throws Exception {
+
+        permits.acquire();
+        try {
+            if (record != null) {
+                record.setStatus("RUNNING");
+                record.setStartTime(LocalDateTime.now());
+                record.setHeartbeatAt(record.getStartTime());
+                record.setEndTime(null);
+                record = jobPartitionRepository.save(record);
+            }
+
+            BillingResponseDTO result = chunkedBillingService.generateBilling(billingDate, partition, record, sink);
+
+            if (record != null) {
+                record.setStatus(result.getFailedCount() > 0 ? "COMPLETED_WITH_ERRORS" : "COMPLETED");
+                record.setFailedCount(result.getFailedCount());
+                record.setRemarks(result.getRemarks());
+            }
+            return result;
+
+        } catch (Exception e) {
+            log.error("❌ Billing partition [{}] failed: {}", partition.key(), e.getMessage());
+
+            if (record != null) {
+                record.setStatus("FAILED");
+                record.setRemarks("❌ Partition failed: " + e.getMessage());
+            }
+            throw e;
+
+        } finally {
+            if (record != null) {
+                record.setEndTime(LocalDateTime.now());
+                record.setHeartbeatAt(record.getEndTime());
+                jobPartitionRepository.save(record);
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * 🔹 Partition plan: one per branch, or equal-width loan-id ranges
+     */
+    private List<BillingPartition> planPartitions() {
+
+        if ("LOAN_RANGE".equalsIgnoreCase(strategy)) {
+            Long minId = jdbcTemplate.queryForObject("SELECT MIN(loan_id) FROM loan", Long.class);
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(loan_id) FROM loan", Long.class);
+            if (minId == null || maxId == null) {
+                return List.of();
+            }
+
+            int count = Math.max(1, rangeCount);
+            long width = Math.max(1, (maxId - minId + count) / count);
+
+            List<BillingPartition> ranges = new ArrayList<>();
+            for (long from = minId; from <= maxId; from += width) {
+                ranges.add(BillingPartition.loanRange(from, Math.min(maxId, from + width - 1)));
+            }
+            return ranges;
+        }
+
+        return jdbcTemplate.queryForList("SELECT branch_id FROM branch ORDER BY branch_id", Long.class)
+                .stream()
+                .map(BillingPartition::branch)
+                .toList();
+    }
+}
@@ -4,18 +4,59 @@ import com.corebank.coreb.dto.RepaymentReportDTO;
 import com.itextpdf.text.*;
 import com.itextpdf.text.pdf.*;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import lombok.RequiredArgsConstructor;
 
 @Service
 @RequiredArgsConstructor
 public class PdfReportService {
+
+    private static final DateTimeFormatter DF = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
+
+    // Colors
+    private static final BaseColor NAVY = new BaseColor(10, 48, 97);         // deep navy
+    private static final BaseColor HEADER_BG = NAVY;
+    private static final BaseColor HEADER_TEXT = BaseColor.WHITE;
+    private static final BaseColor ROW_ALT = new BaseColor(245, 247, 250);   // light gray for alt rows
+    private static final BaseColor SUMMARY_BORDER = new BaseColor(220, 220, 220);
+
+    // Fonts (built once, shared by every report)
+    private static final Font LOGO_FONT = new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD, HEADER_TEXT);
+    private static final Font SLOGAN_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, HEADER_TEXT);
+    private static final Font TITLE_FONT = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD, HEADER_TEXT);
+    private static final Font META_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, HEADER_TEXT);
+    private static final Font LABEL_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.BOLD, BaseColor.DARK_GRAY);
+    private static final Font VALUE_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, BaseColor.BLACK);
+    private static final Font TH_FONT = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD, HEADER_TEXT);
+    private static final Font TD_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, BaseColor.BLACK);
+    private static final Font TOTALS_LABEL_FONT = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD, NAVY);
+    private static final Font TOTALS_VALUE_FONT = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD, BaseColor.BLACK);
+    private static final Font BRAND_FONT = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, BaseColor.GRAY);
+
+    private static final float[] COLUMN_WIDTHS = {1.0f, 1.5f, 1.5f, 1.5f, 1.2f, 1.5f, 1.5f};
+
+    // Rows added to the schedule table before it is written out and released
+    @Value("${report.pdf.flush-rows:500}")
+    private int flushRows = 500;
+
+    /**
+     * 🔹 Source of report rows, handed over one page at a time
+     */
+    @FunctionalInterface
+    public interface RowSource {
+        void forEachPage(Consumer<List<RepaymentReportDTO>> sink);
+    }
+
 	// Page event to add footer with page numbers
 	static class FooterPageEvent extends PdfPageEventHelper {
-	    Font footerFont = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, BaseColor.GRAY);
+	    static final Font footerFont = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, BaseColor.GRAY);
 
 	    @Override
 	    public void onEndPage(PdfWriter writer, Document document) {
@@ -39,332 +80,268 @@ public class PdfReportService {
 	}
 
     public byte[] generatePdfReportModernBanking(List<RepaymentReportDTO> reportData, String generatedBy) {
-        DateTimeFormatter df = DateTimeFormatter.ofPattern("dd-MMM-yyyy");
-        // Colors
-        BaseColor NAVY = new BaseColor(10, 48, 97);         // deep navy
-        BaseColor GOLD = new BaseColor(199, 153, 39);       // gold accent
-        BaseColor HEADER_BG = NAVY;
-        BaseColor HEADER_TEXT = BaseColor.WHITE;
-        BaseColor ROW_ALT = new BaseColor(245, 247, 250);   // light gray for alt rows
-
         try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            streamPdfReportModernBanking(out, generatedBy, sink -> {
+                if (reportData != null && !reportData.isEmpty()) {
+                    sink.accept(reportData);
+                }
+            });
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException("Error generating PDF report: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 🔹 Same report written straight to the stream while rows are pulled from the source
+     *    (the schedule table is flushed every flushRows rows, so neither the rows nor the
+     *    document are held in memory)
+     */
+    public void streamPdfReportModernBanking(OutputStream out, String generatedBy, RowSource rows) {
+        try {
             Document document = new Document(PageSize.A4, 36, 36, 90, 60); // left, right, top, bottom margins
             PdfWriter writer = PdfWriter.getInstance(document, out);
             writer.setPageEvent(new FooterPageEvent());
             document.open();
 
-            // ---------- Header (Navy bar with logo + title + date) ----------
-            PdfPTable headerTable = new PdfPTable(new float[]{1, 3});
-            headerTable.setWidthPercentage(100);
-            headerTable.getDefaultCell().setBorder(Rectangle.NO_BORDER);
-
-            // Logo cell (placeholder)
-            PdfPCell logoCell = new PdfPCell();
-            logoCell.setBackgroundColor(HEADER_BG);
-            logoCell.setBorder(Rectangle.NO_BORDER);
-            logoCell.setPadding(10f);
-            Paragraph logoP = new Paragraph();
-            logoP.setAlignment(Element.ALIGN_LEFT);
-            Font logoFont = new Font(Font.FontFamily.HELVETICA, 16, Font.BOLD, HEADER_TEXT);
-            logoP.add(new Chunk("COREBANK", logoFont));
-            logoP.add(Chunk.NEWLINE);
-            Font slogan = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, HEADER_TEXT);
-            logoP.add(new Chunk("Trusted Finance Solutions", slogan));
-            logoCell.addElement(logoP);
-
-            // Title / meta cell
-            PdfPCell titleCell = new PdfPCell();
-            titleCell.setBackgroundColor(HEADER_BG);
-            titleCell.setBorder(Rectangle.NO_BORDER);
-            titleCell.setPadding(12f);
-
-            Font titleFont = new Font(Font.FontFamily.HELVETICA, 14, Font.BOLD, HEADER_TEXT);
-            Font metaFont = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, HEADER_TEXT);
-
-            Paragraph titleP = new Paragraph();
-            titleP.setAlignment(Element.ALIGN_RIGHT);
-            titleP.add(new Chunk("Loan Repayment Report\n", titleFont));
-            titleP.add(new Chunk("Generated on: " + java.time.LocalDate.now().format(df) + "\n", metaFont));
-            if (generatedBy != null && !generatedBy.isEmpty()) {
-                titleP.add(new Chunk("Generated by: " + generatedBy, metaFont));
-            }
-            titleCell.addElement(titleP);
+            addHeader(document, generatedBy);
 
-            headerTable.addCell(logoCell);
-            headerTable.addCell(titleCell);
-            document.add(headerTable);
+            ScheduleWriter schedule = new ScheduleWriter(document);
+            rows.forEachPage(schedule::addPage);
+            schedule.finish();
 
+            // ---------- Totals summary ----------
+            document.add(Chunk.NEWLINE);
+            addTotals(document, schedule.totalPaid, schedule.totalOutstanding);
             document.add(Chunk.NEWLINE);
 
-            // ---------- Loan summary box (light background) ----------
-            PdfPTable summaryTable = new PdfPTable(4);
-            summaryTable.setWidthPercentage(100);
-            summaryTable.setSpacingBefore(6f);
-            summaryTable.setSpacingAfter(10f);
-            summaryTable.setWidths(new float[]{1, 2, 1, 2});
-            summaryTable.getDefaultCell().setBorder(Rectangle.NO_BORDER);
-
-            Font labelFont = new Font(Font.FontFamily.HELVETICA, 9, Font.BOLD, BaseColor.DARK_GRAY);
-            Font valueFont = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, BaseColor.BLACK);
-
-            // Extract a few summary values from the first record if available
-            String loanId = reportData != null && !reportData.isEmpty() && reportData.get(0).getLoanId() != null
-                    ? String.valueOf(reportData.get(0).getLoanId())
-                    : "-";
-            String rateOfInterest = reportData != null && !reportData.isEmpty() && reportData.get(0).getRateofinterest() != null
-                    ? reportData.get(0).getRateofinterest().toPlainString() + "%"
-                    : "-";
-
-            BigDecimal principalNotAvailable = null; // user said fields limited; keep placeholder
-            String tenurePlaceholder = "-";
-            String loanTypePlaceholder = "-";
-            String customerPlaceholder = "-";
-
-            // Row 1
-            PdfPCell c1 = new PdfPCell(new Phrase("Loan ID", labelFont));
-            c1.setBorder(Rectangle.NO_BORDER);
-            c1.setPadding(6f);
-            summaryTable.addCell(c1);
-
-            PdfPCell c2 = new PdfPCell(new Phrase(loanId, valueFont));
-            c2.setBorder(Rectangle.NO_BORDER);
-            c2.setPadding(6f);
-            summaryTable.addCell(c2);
-
-            PdfPCell c3 = new PdfPCell(new Phrase("Interest Rate", labelFont));
-            c3.setBorder(Rectangle.NO_BORDER);
-            c3.setPadding(6f);
-            summaryTable.addCell(c3);
-
-            PdfPCell c4 = new PdfPCell(new Phrase(rateOfInterest, valueFont));
-            c4.setBorder(Rectangle.NO_BORDER);
-            c4.setPadding(6f);
-            summaryTable.addCell(c4);
-
-            // Row 2 (placeholders for now)
-            PdfPCell c5 = new PdfPCell(new Phrase("Customer", labelFont));
-            c5.setBorder(Rectangle.NO_BORDER);
-            c5.setPadding(6f);
-            summaryTable.addCell(c5);
-
-            PdfPCell c6 = new PdfPCell(new Phrase(customerPlaceholder, valueFont));
-            c6.setBorder(Rectangle.NO_BORDER);
-            c6.setPadding(6f);
-            summaryTable.addCell(c6);
-
-            PdfPCell c7 = new PdfPCell(new Phrase("Tenure", labelFont));
-            c7.setBorder(Rectangle.NO_BORDER);
-            c7.setPadding(6f);
-            summaryTable.addCell(c7);
-
-            PdfPCell c8 = new PdfPCell(new Phrase(tenurePlaceholder, valueFont));
-            c8.setBorder(Rectangle.NO_BORDER);
-            c8.setPadding(6f);
-            summaryTable.addCell(c8);
-
-            // Draw light border around summary
-            PdfPCell wrapper = new PdfPCell(summaryTable);
-            wrapper.setBorderColor(new BaseColor(220, 220, 220));
-            wrapper.setPadding(6f);
-            wrapper.setColspan(1);
-            PdfPTable outer = new PdfPTable(1);
-            outer.setWidthPercentage(100);
-            outer.addCell(wrapper);
-            document.add(outer);
+            // Footer brand line
+            Paragraph brand = new Paragraph("© " + java.time.Year.now().getValue() + " CoreBank Pvt. Ltd.  |  Confidential", BRAND_FONT);
+            brand.setAlignment(Element.ALIGN_CENTER);
+            document.add(brand);
 
-            document.add(Chunk.NEWLINE);
+            document.close();
+        } catch (DocumentException e) {
+            throw new RuntimeException("Error generating PDF report: " + e.getMessage(), e);
+        }
+    }
 
-            // ---------- Table: repayment schedule ----------
-            PdfPTable table = new PdfPTable(new float[]{1.0f, 1.5f, 1.5f, 1.5f, 1.2f, 1.5f, 1.5f});
-            table.setWidthPercentage(100);
-            table.setHeaderRows(1);
+    // ---------- Header (Navy bar with logo + title + date) ----------
+    private static void addHeader(Document document, String generatedBy) throws DocumentException {
+        PdfPTable headerTable = new PdfPTable(new float[]{1, 3});
+        headerTable.setWidthPercentage(100);
+        headerTable.getDefaultCell().setBorder(Rectangle.NO_BORDER);
+
+        // Logo cell (placeholder)
+        PdfPCell logoCell = new PdfPCell();
+        logoCell.setBackgroundColor(HEADER_BG);
+        logoCell.setBorder(Rectangle.NO_BORDER);
+        logoCell.setPadding(10f);
+        Paragraph logoP = new Paragraph();
+        logoP.setAlignment(Element.ALIGN_LEFT);
+        logoP.add(new Chunk("COREBANK", LOGO_FONT));
+        logoP.add(Chunk.NEWLINE);
+        logoP.add(new Chunk("Trusted Finance Solutions", SLOGAN_FONT));
+        logoCell.addElement(logoP);
+
+        // Title / meta cell
+        PdfPCell titleCell = new PdfPCell();
+        titleCell.setBackgroundColor(HEADER_BG);
+        titleCell.setBorder(Rectangle.NO_BORDER);
+        titleCell.setPadding(12f);
+
+        Paragraph titleP = new Paragraph();
+        titleP.setAlignment(Element.ALIGN_RIGHT);
+        titleP.add(new Chunk("Loan Repayment Report\n", TITLE_FONT));
+        titleP.add(new Chunk("Generated on: " + java.time.LocalDate.now().format(DF) + "\n", META_FONT));
+        if (generatedBy != null && !generatedBy.isEmpty()) {
+            titleP.add(new Chunk("Generated by: " + generatedBy, META_FONT));
+        }
+        titleCell.addElement(titleP);
 
-            Font thFont = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD, HEADER_TEXT);
-            Font tdFont = new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, BaseColor.BLACK);
+        headerTable.addCell(logoCell);
+        headerTable.addCell(titleCell);
+        document.add(headerTable);
 
-            // Header cells
-            PdfPCell h;
+        document.add(Chunk.NEWLINE);
+    }
 
-            h = new PdfPCell(new Phrase("#", thFont));
-            h.setBackgroundColor(HEADER_BG);
-            h.setHorizontalAlignment(Element.ALIGN_CENTER);
-            h.setPadding(8);
-            h.setBorderWidth(0.5f);
-            table.addCell(h);
+    // ---------- Loan summary box (light background); values from the first record if available ----------
+    private static void addSummary(Document document, RepaymentReportDTO first) throws DocumentException {
+        PdfPTable summaryTable = new PdfPTable(4);
+        summaryTable.setWidthPercentage(100);
+        summaryTable.setSpacingBefore(6f);
+        summaryTable.setSpacingAfter(10f);
+        summaryTable.setWidths(new float[]{1, 2, 1, 2});
+        summaryTable.getDefaultCell().setBorder(Rectangle.NO_BORDER);
+
+        String loanId = first != null && first.getLoanId() != null ? String.valueOf(first.getLoanId()) : "-";
+        String rateOfInterest = first != null && first.getRateofinterest() != null
+                ? first.getRateofinterest().toPlainString() + "%"
+                : "-";
+
+        String tenurePlaceholder = "-";
+        String customerPlaceholder = "-";
+
+        // Row 1
+        addSummaryCell(summaryTable, "Loan ID", LABEL_FONT);
+        addSummaryCell(summaryTable, loanId, VALUE_FONT);
+        addSummaryCell(summaryTable, "Interest Rate", LABEL_FONT);
+        addSummaryCell(summaryTable, rateOfInterest, VALUE_FONT);
+
+        // Row 2 (placeholders for now)
+        addSummaryCell(summaryTable, "Customer", LABEL_FONT);
+        addSummaryCell(summaryTable, customerPlaceholder, VALUE_FONT);
+        addSummaryCell(summaryTable, "Tenure", LABEL_FONT);
+        addSummaryCell(summaryTable, tenurePlaceholder, VALUE_FONT);
+
+        // Draw light border around summary
+        PdfPCell wrapper = new PdfPCell(summaryTable);
+        wrapper.setBorderColor(SUMMARY_BORDER);
+        wrapper.setPadding(6f);
+        wrapper.setColspan(1);
+        PdfPTable outer = new PdfPTable(1);
+        outer.setWidthPercentage(100);
+        outer.addCell(wrapper);
+        document.add(outer);
+
+        document.add(Chunk.NEWLINE);
+    }
 
-            h = new PdfPCell(new Phrase("Loan ID", thFont));
-            h.setBackgroundColor(HEADER_BG);
-            h.setHorizontalAlignment(Element.ALIGN_CENTER);
-            h.setPadding(8);
-            h.setBorderWidth(0.5f);
-            table.addCell(h);
+    private static void addSummaryCell(PdfPTable table, String text, Font font) {
+        PdfPCell cell = new PdfPCell(new Phrase(text, font));
+        cell.setBorder(Rectangle.NO_BORDER);
+        cell.setPadding(6f);
+        table.addCell(cell);
+    }
 
-            h = new PdfPCell(new Phrase("Due Date", thFont));
-            h.setBackgroundColor(HEADER_BG);
-            h.setHorizontalAlignment(Element.ALIGN_CENTER);
-            h.setPadding(8);
-            table.addCell(h);
+    // ---------- Totals summary ----------
+    private static void addTotals(Document document, BigDecimal totalPaid, BigDecimal totalOutstanding)
+            throws DocumentException {
+        PdfPTable totals = new PdfPTable(new float[]{1, 1});
+        totals.setWidthPercentage(40);
+        totals.setHorizontalAlignment(Element.ALIGN_RIGHT);
 
-            h = new PdfPCell(new Phrase("Payment Date", thFont));
-            h.setBackgroundColor(HEADER_BG);
-            h.setHorizontalAlignment(Element.ALIGN_CENTER);
-            h.setPadding(8);
-            table.addCell(h);
+        addTotalsRow(totals, "Total Amount Paid:", totalPaid);
+        addTotalsRow(totals, "Total Outstanding:", totalOutstanding);
 
-            h = new PdfPCell(new Phrase("Amount Paid (₹)", thFont));
-            h.setBackgroundColor(HEADER_BG);
-            h.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            h.setPadding(8);
-            table.addCell(h);
+        document.add(totals);
+    }
 
-            h = new PdfPCell(new Phrase("Interest Rate", thFont));
-            h.setBackgroundColor(HEADER_BG);
-            h.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            h.setPadding(8);
-            table.addCell(h);
+    private static void addTotalsRow(PdfPTable totals, String label, BigDecimal value) {
+        PdfPCell labelCell = new PdfPCell(new Phrase(label, TOTALS_LABEL_FONT));
+        labelCell.setBorder(Rectangle.NO_BORDER);
+        labelCell.setPadding(4);
+        totals.addCell(labelCell);
+
+        PdfPCell valueCell = new PdfPCell(new Phrase(value.toPlainString(), TOTALS_VALUE_FONT));
+        valueCell.setBorder(Rectangle.NO_BORDER);
+        valueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
+        valueCell.setPadding(4);
+        totals.addCell(valueCell);
+    }
 
-            h = new PdfPCell(new Phrase("Balance Remaining (₹)", thFont));
-            h.setBackgroundColor(HEADER_BG);
-            h.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            h.setPadding(8);
-            table.addCell(h);
+    /**
+     * 🔹 Repayment schedule table, written in batches
+     *    The summary box needs the first record, so it is written when the first page arrives
+     */
+    private class ScheduleWriter {
+
+        private final Document document;
+        private PdfPTable table;
+        private int idx = 0;
+        private int pending = 0;
+        private BigDecimal totalPaid = BigDecimal.ZERO;
+        private BigDecimal totalOutstanding = BigDecimal.ZERO;
+
+        ScheduleWriter(Document document) {
+            this.document = document;
+        }
 
-            // Rows
-            BigDecimal totalPaid = BigDecimal.ZERO;
-            BigDecimal totalOutstanding = BigDecimal.ZERO;
-            int idx = 0;
+        void addPage(List<RepaymentReportDTO> page) {
+            try {
+                if (table == null) {
+                    start(page.isEmpty() ? null : page.get(0));
+                }
+                for (RepaymentReportDTO r : page) {
+                    addRow(r);
+                    if (++pending >= flushRows) {
+                        document.add(table); // writes the completed rows and drops them from the table
+                        pending = 0;
+                    }
+                }
+            } catch (DocumentException e) {
+                throw new RuntimeException("Error generating PDF report: " + e.getMessage(), e);
+            }
+        }
 
-            if (reportData == null || reportData.isEmpty()) {
-                PdfPCell emptyRow = new PdfPCell(new Phrase("No records found", tdFont));
+        void finish() throws DocumentException {
+            if (table == null) {
+                start(null);
+            }
+            if (idx == 0) {
+                PdfPCell emptyRow = new PdfPCell(new Phrase("No records found", TD_FONT));
                 emptyRow.setColspan(7);
                 emptyRow.setHorizontalAlignment(Element.ALIGN_CENTER);
                 emptyRow.setPadding(12);
                 table.addCell(emptyRow);
-            } else {
-                for (RepaymentReportDTO r : reportData) {
-                    idx++;
-
-                    boolean alt = idx % 2 == 0;
-
-                    PdfPCell cell;
-
-                    // # (index)
-                    cell = new PdfPCell(new Phrase(String.valueOf(idx), tdFont));
-                    cell.setBackgroundColor(alt ? ROW_ALT : BaseColor.WHITE);
-                    cell.setPadding(6);
-                    cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                    table.addCell(cell);
-
-                    // Loan ID
-                    cell = new PdfPCell(new Phrase(r.getLoanId() != null ? String.valueOf(r.getLoanId()) : "-", tdFont));
-                    cell.setBackgroundColor(alt ? ROW_ALT : BaseColor.WHITE);
-                    cell.setPadding(6);
-                    cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                    table.addCell(cell);
-
-                    // Due Date
-                    cell = new PdfPCell(new Phrase(r.getDueDate() != null ? r.getDueDate().format(df) : "-", tdFont));
-                    cell.setBackgroundColor(alt ? ROW_ALT : BaseColor.WHITE);
-                    cell.setPadding(6);
-                    cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                    table.addCell(cell);
-
-                    // Payment Date
-                    cell = new PdfPCell(new Phrase(r.getPaymentDate() != null ? r.getPaymentDate().format(df) : "-", tdFont));
-                    cell.setBackgroundColor(alt ? ROW_ALT : BaseColor.WHITE);
-                    cell.setPadding(6);
-                    cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-                    table.addCell(cell);
-
-                    // Amount Paid (right aligned)
-                    String amt = r.getAmountPaid() != null ? r.getAmountPaid().toPlainString() : "0";
-                    cell = new PdfPCell(new Phrase(amt, tdFont));
-                    cell.setBackgroundColor(alt ? ROW_ALT : BaseColor.WHITE);
-                    cell.setPadding(6);
-                    cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                    table.addCell(cell);
-
-                    // Interest Rate (right aligned)
-                    String roi = r.getRateofinterest() != null ? r.getRateofinterest().toPlainString() + "%" : "-";
-                    cell = new PdfPCell(new Phrase(roi, tdFont));
-                    cell.setBackgroundColor(alt ? ROW_ALT : BaseColor.WHITE);
-                    cell.setPadding(6);
-                    cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                    table.addCell(cell);
-
-                    // Balance Remaining (right aligned)
-                    String bal = r.getBalanceRemaining() != null ? r.getBalanceRemaining().toPlainString() : "0";
-                    cell = new PdfPCell(new Phrase(bal, tdFont));
-                    cell.setBackgroundColor(alt ? ROW_ALT : BaseColor.WHITE);
-                    cell.setPadding(6);
-                    cell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-                    table.addCell(cell);
-
-                    // Totals
-                    if (r.getAmountPaid() != null) totalPaid = totalPaid.add(r.getAmountPaid());
-                    if (r.getOutstanding() != null) totalOutstanding = totalOutstanding.add(r.getOutstanding());
-                }
             }
-
+            table.setComplete(true);
             document.add(table);
+        }
 
-            // ---------- Totals summary ----------
-            document.add(Chunk.NEWLINE);
-
-            PdfPTable totals = new PdfPTable(new float[]{1, 1});
-            totals.setWidthPercentage(40);
-            totals.setHorizontalAlignment(Element.ALIGN_RIGHT);
-
-            Font totalsLabel = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD, NAVY);
-            Font totalsValue = new Font(Font.FontFamily.HELVETICA, 10, Font.BOLD, BaseColor.BLACK);
-
-            PdfPCell labelCell = new PdfPCell(new Phrase("Total Amount Paid:", totalsLabel));
-            labelCell.setBorder(Rectangle.NO_BORDER);
-            labelCell.setPadding(4);
-            totals.addCell(labelCell);
-
-            PdfPCell valueCell = new PdfPCell(new Phrase(totalPaid.toPlainString(), totalsValue));
-            valueCell.setBorder(Rectangle.NO_BORDER);
-            valueCell.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            valueCell.setPadding(4);
-            totals.addCell(valueCell);
-
-            PdfPCell labelCell2 = new PdfPCell(new Phrase("Total Outstanding:", totalsLabel));
-            labelCell2.setBorder(Rectangle.NO_BORDER);
-            labelCell2.setPadding(4);
-            totals.addCell(labelCell2);
-
-            PdfPCell valueCell2 = new PdfPCell(new Phrase(totalOutstanding.toPlainString(), totalsValue));
-            valueCell2.setBorder(Rectangle.NO_BORDER);
-            valueCell2.setHorizontalAlignment(Element.ALIGN_RIGHT);
-            valueCell2.setPadding(4);
-            totals.addCell(valueCell2);
+        private void start(RepaymentReportDTO first) throws DocumentException {
+            addSummary(document, first);
 
-            document.add(totals);
+            // ---------- Table: repayment schedule ----------
+            table = new PdfPTable(COLUMN_WIDTHS);
+            table.setWidthPercentage(100);
+            table.setHeaderRows(1);
+            table.setComplete(false); // large table: added to the document in parts
+
+            addHeaderCell("#", Element.ALIGN_CENTER, true);
+            addHeaderCell("Loan ID", Element.ALIGN_CENTER, true);
+            addHeaderCell("Due Date", Element.ALIGN_CENTER, false);
+            addHeaderCell("Payment Date", Element.ALIGN_CENTER, false);
+            addHeaderCell("Amount Paid (₹)", Element.ALIGN_RIGHT, false);
+            addHeaderCell("Interest Rate", Element.ALIGN_RIGHT, false);
+            addHeaderCell("Balance Remaining (₹)", Element.ALIGN_RIGHT, false);
+
+            // Body cells are stamped from the table's default cell (copied by addCell)
+            table.getDefaultCell().setPadding(6);
+        }
 
-            document.add(Chunk.NEWLINE);
+        private void addHeaderCell(String text, int alignment, boolean thinBorder) {
+            PdfPCell h = new PdfPCell(new Phrase(text, TH_FONT));
+            h.setBackgroundColor(HEADER_BG);
+            h.setHorizontalAlignment(alignment);
+            h.setPadding(8);
+            if (thinBorder) {
+                h.setBorderWidth(0.5f);
+            }
+            table.addCell(h);
+        }
 
-            // Footer brand line
-            Paragraph brand = new Paragraph("© " + java.time.Year.now().getValue() + " CoreBank Pvt. Ltd.  |  Confidential", new Font(Font.FontFamily.HELVETICA, 9, Font.NORMAL, BaseColor.GRAY));
-            brand.setAlignment(Element.ALIGN_CENTER);
-            document.add(brand);
+        private void addRow(RepaymentReportDTO r) {
+            idx++;
+            table.getDefaultCell().setBackgroundColor(idx % 2 == 0 ? ROW_ALT : BaseColor.WHITE);
+
+            addCell(String.valueOf(idx), Element.ALIGN_CENTER);
+            addCell(r.getLoanId() != null ? String.valueOf(r.getLoanId()) : "-", Element.ALIGN_CENTER);
+            addCell(r.getDueDate() != null ? r.getDueDate().format(DF) : "-", Element.ALIGN_CENTER);
+            addCell(r.getPaymentDate() != null ? r.getPaymentDate().format(DF) : "-", Element.ALIGN_CENTER);
+            addCell(r.getAmountPaid() != null ? r.getAmountPaid().toPlainString() : "0", Element.ALIGN_RIGHT);
+            addCell(r.getRateofinterest() != null ? r.getRateofinterest().toPlainString() + "%" : "-", Element.ALIGN_RIGHT);
+            addCell(r.getBalanceRemaining() != null ? r.getBalanceRemaining().toPlainString() : "0", Element.ALIGN_RIGHT);
+
+            // Totals
+            if (r.getAmountPaid() != null) totalPaid = totalPaid.add(r.getAmountPaid());
+            if (r.getOutstanding() != null) totalOutstanding = totalOutstanding.add(r.getOutstanding());
+        }
 
-            document.close();
-            return out.toByteArray();
-        } catch (Exception e) {
-            throw new RuntimeException("Error generating PDF report: " + e.getMessage(), e);
+        private void addCell(String text, int alignment) {
+            table.getDefaultCell().setHorizontalAlignment(alignment);
+            table.addCell(new Phrase(text, TD_FONT));
         }
     }
-
-    // Example DTO signature (for reference) - ensure your actual DTO has these getters:
-    // public static class RepaymentReportDTO {
-    //     Long loanId;
-    //     LocalDate dueDate;
-    //     LocalDate paymentDate;
-    //     BigDecimal amountPaid;
-    //     BigDecimal rateofinterest;
-    //     BigDecimal balanceRemaining;
-    //     BigDecimal outstanding;
-    //     // getters...
-    // }
 }
@@ -0,0 +1,201 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.entity.Loan;
+import com.corebank.coreb.entity.Repayment;
+import com.corebank.coreb.repository.LoanRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🔹 Lazy repayment schedules
+ *
+ * With {@code loan.schedule.materialization=LAZY} an approved loan only gets
+ * repayment rows for installments that are already due; later installments
+ * are recomputed from the loan's terms by RepaymentScheduleBuilder whenever
+ * they are needed. A row is written when its installment falls due (system
+ * date rollover, billing run) or is paid ahead of time, so the repayment
+ * table holds history plus the current installment instead of every future
+ * month. Loans approved as EAGER keep their fully written schedule.
+ *
+ * Loan.materializedInstallments / nextMaterializeDate track the frontier, so
+ * finding due work is an index range scan on next_materialize_date.
+ */
+@Slf4j
+@Service
+public class RepaymentMaterializer {
+
+    public static final String EAGER = "EAGER";
+    public static final String LAZY = "LAZY";
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private RepaymentScheduleBuilder repaymentScheduleBuilder;
+
+    @Autowired
+    private RepaymentScheduleWriter repaymentScheduleWriter;
+
+    @Autowired
+    private BillingQueueService billingQueueService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // EAGER → every installment written at approval (default), LAZY → written as they fall due
+    @Value("${loan.schedule.materialization:EAGER}")
+    private String materialization;
+
+    // Loans materialized per transaction by materializeDue
+    @Value("${loan.schedule.materialize-batch-size:500}")
+    private int batchSize;
+
+    public boolean isLazy(Loan loan) {
+        return LAZY.equalsIgnoreCase(loan.getScheduleMode());
+    }
+
+    // --------------------
+    // Approval
+    // --------------------
+
+    /**
+     * 🔹 Record the schedule terms on a freshly approved loan and return the
+     *    rows to write now: all of them (EAGER) or those due by the system date (LAZY)
+     *
+     * Pure computation (no I/O), safe to call from parallel threads.
+     */
+    public List<Repayment> startSchedule(Loan loan, LocalDate systemDate) {
+        loan.setScheduleMethod(repaymentScheduleBuilder.defaultMethod());
+        loan.setScheduleMode(LAZY.equalsIgnoreCase(materialization) ? LAZY : EAGER);
+        loan.setMaterializedInstallments(0);
+
+        List<Repayment> schedule = repaymentScheduleBuilder.build(loan);
+        if (!isLazy(loan)) {
+            return advance(loan, schedule, schedule.size());
+        }
+        // Back-dated approvals can already have due installments
+        return advance(loan, schedule, countDue(schedule, systemDate));
+    }
+
+    // --------------------
+    // Materialization
+    // --------------------
+
+    /**
+     * 🔹 Write the rows of every lazy loan whose installments fell due by the
+     *    given date and enqueue them for billing; one transaction per batch of loans
+     */
+    public int materializeDue(LocalDate upTo) {
+
+        TransactionTemplate batchTx = new TransactionTemplate(transactionManager);
+        int loans = 0;
+        int rows = 0;
+
+        while (true) {
+            // Materialized loans move past upTo, so the first page is always the next batch
+            int[] written = batchTx.execute(status -> {
+                List<Loan> batch = loanRepository.findByScheduleModeAndNextMaterializeDateLessThanEqualOrderByLoanId(
+                        LAZY, upTo, PageRequest.of(0, batchSize));
+
+                List<Repayment> due = new ArrayList<>();
+                for (Loan loan : batch) {
+                    due.addAll(dueRows(loan, upTo));
+                }
+                repaymentScheduleWriter.insertSchedule(due);
+                billingQueueService.enqueueDue(due, upTo);
+                loanRepository.saveAll(batch);
+                return new int[] {batch.size(), due.size()};
+            });
+
+            if (written == null || written[0] == 0) {
+                break;
+            }
+            loans += written[0];
+            rows += written[1];
+        }
+
+        if (loans > 0) {
+            log.info("🗓️ Materialized {} due installments of {} lazy-schedule loans (up to {})", rows, loans, upTo);
+        }
+        return rows;
+    }
+
+    /**
+     * 🔹 Make sure installments 1..installmentNo exist as rows (e.g. before
+     *    paying ahead); no-op for EAGER loans. Call inside the caller's transaction.
+     */
+    public List<Repayment> materializeThrough(Loan loan, int installmentNo, LocalDate systemDate) {
+        if (!isLazy(loan) || installmentNo <= materialized(loan)) {
+            return List.of();
+        }
+
+        List<Repayment> schedule = repaymentScheduleBuilder.build(loan);
+        List<Repayment> rows = advance(loan, schedule, Math.min(installmentNo, schedule.size()));
+
+        repaymentScheduleWriter.insertSchedule(rows);
+        billingQueueService.enqueueDue(rows, systemDate);
+        loanRepository.save(loan);
+        return rows;
+    }
+
+    /**
+     * 🔹 Installments not written yet, computed on the fly (repaymentId stays null)
+     */
+    public List<Repayment> pendingInstallments(Loan loan) {
+        if (!isLazy(loan) || loan.getNextMaterializeDate() == null) {
+            return List.of();
+        }
+        List<Repayment> schedule = repaymentScheduleBuilder.build(loan);
+        return schedule.subList(Math.min(materialized(loan), schedule.size()), schedule.size());
+    }
+
+    // --------------------
+    // Helpers
+    // --------------------
+
+    // Rows of one loan that fell due by upTo; loans no longer active stop materializing
+    private List<Repayment> dueRows(Loan loan, LocalDate upTo) {
+        if (!"Active".equalsIgnoreCase(loan.getStatus())) {
+            loan.setNextMaterializeDate(null);
+            return List.of();
+        }
+        List<Repayment> schedule = repaymentScheduleBuilder.build(loan);
+        return advance(loan, schedule, countDue(schedule, upTo));
+    }
+
+    // Installments [materialized, through) of the schedule; moves the loan's frontier to through
+    private List<Repayment> advance(Loan loan, List<Repayment> schedule, int through) {
+        int from = materialized(loan);
+        if (through <= from) {
+            return List.of();
+        }
+
+        loan.setMaterializedInstallments(through);
+        loan.setNextMaterializeDate(through < schedule.size() ? schedule.get(through).getDueDate() : null);
+        return schedule.subList(from, through);
+    }
+
+    // Installments due on or before the date (the schedule is in due date order)
+    private static int countDue(List<Repayment> schedule, LocalDate date) {
+        int count = 0;
+        while (count < schedule.size() && !schedule.get(count).getDueDate().isAfter(date)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int materialized(Loan loan) {
+        return loan.getMaterializedInstallments() != null ? loan.getMaterializedInstallments() : 0;
+    }
+}
@@ -0,0 +1,121 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.entity.Repayment;
+import com.corebank.coreb.repository.RepaymentRepository;
+import com.corebank.coreb.util.StripedLock;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.OptimisticLockException;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 🔹 Concurrency-safe repayment posting
+ *
+ * Payments on the same loan are serialized in-process by a striped lock keyed
+ * by loan id (held until the posting transaction has committed); payments on
+ * different loans run in parallel. Conflicts the lock cannot see — other nodes,
+ * billing runs, prepayment, repricing — surface as optimistic-lock failures on
+ * the Loan / Repayment version columns and are retried in a fresh transaction,
+ * a bounded number of times.
+ */
+@Slf4j
+@Service
+public class RepaymentPostingService {
+
+    @Autowired
+    private RepaymentService repaymentService;
+
+    @Autowired
+    private RepaymentRepository repaymentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${repayment.posting.lock-stripes:1024}")
+    private int lockStripes;
+
+    @Value("${repayment.posting.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${repayment.posting.retry-backoff-ms:25}")
+    private long retryBackoffMs;
+
+    private StripedLock loanLocks;
+
+    @PostConstruct
+    void initLocks() {
+        loanLocks = new StripedLock(lockStripes);
+    }
+
+    /**
+     * 🔹 Post a payment against a repayment row
+     */
+    public Repayment postPayment(Long repaymentId, BigDecimal amountPaid) {
+        Long loanId = repaymentRepository.findLoanIdByRepaymentId(repaymentId)
+                .orElseThrow(() -> new RuntimeException("Repayment not found"));
+
+        return post(loanId, () -> repaymentService.processPayment(repaymentId, amountPaid));
+    }
+
+    /**
+     * 🔹 Post a payment against an installment number (lazy rows materialized first)
+     */
+    public Repayment postInstallment(Long loanId, int installmentNo, BigDecimal amountPaid) {
+        return post(loanId, () -> repaymentService.payInstallment(loanId, installmentNo, amountPaid));
+    }
+
+    // --------------------
+    // Lock + retry
+    // --------------------
+
+    /**
+     * 🔹 Run a posting under the loan's lock, in a new transaction, retried on version conflicts
+     */
+    public <T> T post(Long loanId, Supplier<T> posting) {
+        // Each attempt commits in its own transaction while the lock is still held
+        TransactionTemplate postingTx = new TransactionTemplate(transactionManager);
+        postingTx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        ReentrantLock lock = loanLocks.forKey(loanId);
+        lock.lock();
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    return postingTx.execute(status -> posting.get());
+                } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                    if (attempt >= maxAttempts) {
+                        log.warn("⚠️ Payment on loan {} still conflicting after {} attempts", loanId, attempt);
+                        throw new RuntimeException("Loan " + loanId + " is being updated concurrently; retry the payment", e);
+                    }
+                    log.info("🔁 Concurrent update on loan {}, retrying payment (attempt {} of {})",
+                            loanId, attempt + 1, maxAttempts);
+                    backOff(attempt);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void backOff(int attempt) {
+        try {
+            Thread.sleep(retryBackoffMs * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Payment posting interrupted", e);
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.RepaymentReportDTO;
+import com.corebank.coreb.dto.RepaymentReportFilter;
+import com.corebank.coreb.dto.RepaymentReportSummaryDTO;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 🔹 Repayment report rows, read as a keyset-paged projection
+ *
+ * Rows are selected straight into RepaymentReportDTO (no Repayment / Loan /
+ * Customer / Branch entities) one page at a time, each page continuing after
+ * the last key of the previous one. Only one page is ever in memory;
+ * no transaction or connection is held between pages, so a slow client
+ * cannot pin a database cursor.
+ *
+ * Whole-bank and single-loan reports walk the repayment primary key. Branch
+ * reports walk the branch's loans (idx_loan_branch) and each loan's schedule
+ * (idx_repayment_loan_due_date) in (loan id, repayment id) order, so a small
+ * branch never scans the whole repayment table.
+ */
+@Slf4j
+@Service
+public class RepaymentReportService {
+
+    private static final String SELECT_PAGE =
+            "SELECT r.repayment_id, r.loan_id, r.due_date, r.payment_date, r.amount_paid, r.rate_of_interest, " +
+            "       r.remaining_principal, r.outstanding_interest " +
+            "FROM repayment r ";
+
+    // Whole bank / one loan: continue after the last repayment id
+    private static final String BY_ID = "WHERE r.repayment_id > ?";
+    private static final String BY_ID_ORDER = " ORDER BY r.repayment_id LIMIT ?";
+
+    // One branch: continue after the last (loan id, repayment id); l.loan_id >= ? restarts the loan walk there
+    private static final String BY_BRANCH =
+            "JOIN loan l ON l.loan_id = r.loan_id " +
+            "WHERE l.branch_id = ? AND l.loan_id >= ? AND (r.loan_id, r.repayment_id) > (?, ?)";
+    private static final String BY_BRANCH_ORDER = " ORDER BY r.loan_id, r.repayment_id LIMIT ?";
+
+    private static final String SELECT_SUMMARY =
+            "SELECT COUNT(*) AS repayment_count, COUNT(DISTINCT r.loan_id) AS loan_count, " +
+            "       COUNT(CASE WHEN r.status = 'PAID' THEN 1 END) AS paid_count, " +
+            "       COALESCE(SUM(r.total_due), 0) AS total_due, " +
+            "       COALESCE(SUM(r.amount_paid), 0) AS amount_paid, " +
+            "       COALESCE(SUM(r.principal_paid), 0) AS principal_paid, " +
+            "       COALESCE(SUM(r.interest_paid), 0) AS interest_paid, " +
+            "       COALESCE(SUM(GREATEST(COALESCE(r.total_due, 0) - COALESCE(r.amount_paid, 0), 0)), 0) AS outstanding " +
+            "FROM repayment r ";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${report.page-size:1000}")
+    private int pageSize;
+
+    /**
+     * 🔹 Hand every matching row to the sink, one page at a time
+     *    (repayment id order; loan id, repayment id order for a branch)
+     */
+    public long forEachPage(RepaymentReportFilter filter, Consumer<List<RepaymentReportDTO>> sink) {
+        boolean byBranch = filter.getBranchId() != null;
+
+        StringBuilder sql = new StringBuilder(SELECT_PAGE);
+        List<Object> params = new ArrayList<>();
+        if (byBranch) {
+            sql.append(BY_BRANCH);
+            params.addAll(List.of(filter.getBranchId(), 0L, 0L, 0L));
+        } else {
+            sql.append(BY_ID);
+            params.add(0L);
+        }
+        appendFilters(filter, sql, params);
+        sql.append(byBranch ? BY_BRANCH_ORDER : BY_ID_ORDER);
+        params.add(Math.max(1, pageSize));
+
+        String query = sql.toString();
+        Object[] args = params.toArray();
+        long rows = 0;
+
+        while (true) {
+            long[] last = new long[2]; // loan id, repayment id of the last row read
+            List<RepaymentReportDTO> page = jdbcTemplate.query(query, (rs, rowNum) -> {
+                last[0] = rs.getLong("loan_id");
+                last[1] = rs.getLong("repayment_id");
+                return toRow(rs);
+            }, args);
+
+            if (page.isEmpty()) {
+                break;
+            }
+            sink.accept(page);
+            rows += page.size();
+
+            if (page.size() < pageSize) {
+                break;
+            }
+            // keyset: continue after the last key of this page
+            if (byBranch) {
+                args[1] = last[0];
+                args[2] = last[0];
+                args[3] = last[1];
+            } else {
+                args[0] = last[1];
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 🔹 Totals of the matching rows in one aggregate query
+     */
+    public RepaymentReportSummaryDTO summary(RepaymentReportFilter filter) {
+        StringBuilder sql = new StringBuilder(SELECT_SUMMARY);
+        List<Object> params = new ArrayList<>();
+        if (filter.getBranchId() != null) {
+            sql.append("JOIN loan l ON l.loan_id = r.loan_id WHERE l.branch_id = ?");
+            params.add(filter.getBranchId());
+        } else {
+            sql.append("WHERE 1 = 1");
+        }
+        appendFilters(filter, sql, params);
+
+        return jdbcTemplate.queryForObject(sql.toString(), (rs, rowNum) -> new RepaymentReportSummaryDTO(
+                filter,
+                rs.getLong("loan_count"),
+                rs.getLong("repayment_count"),
+                rs.getLong("paid_count"),
+                rs.getBigDecimal("total_due"),
+                rs.getBigDecimal("amount_paid"),
+                rs.getBigDecimal("principal_paid"),
+                rs.getBigDecimal("interest_paid"),
+                rs.getBigDecimal("outstanding")
+        ), params.toArray());
+    }
+
+    /**
+     * 🔹 Every matching row as a list (callers that need the whole report at once)
+     */
+    public List<RepaymentReportDTO> report(RepaymentReportFilter filter) {
+        List<RepaymentReportDTO> rows = new ArrayList<>();
+        forEachPage(filter, rows::addAll);
+        return rows;
+    }
+
+    /**
+     * 🔹 Write the report as a JSON array, flushed page by page
+     */
+    public void writeJson(RepaymentReportFilter filter, OutputStream out) throws IOException {
+        // Flushed once per page, not once per row
+        ObjectWriter rowWriter = objectMapper.writerFor(RepaymentReportDTO.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+            json.writeStartArray();
+            long rows = forEachPage(filter, page -> {
+                try {
+                    for (RepaymentReportDTO row : page) {
+                        rowWriter.writeValue(json, row);
+                    }
+                    json.flush();
+                } catch (IOException e) {
+                    // Client went away: stop reading further pages
+                    throw new UncheckedIOException(e);
+                }
+            });
+            json.writeEndArray();
+
+            log.info("📄 Repayment report streamed: {} rows | Filter: {}", rows, filter);
+        }
+    }
+
+    // Loan and payment-date filters (the branch filter belongs to the walk itself)
+    private static void appendFilters(RepaymentReportFilter filter, StringBuilder sql, List<Object> params) {
+        if (filter.getLoanId() != null) {
+            sql.append(" AND r.loan_id = ?");
+            params.add(filter.getLoanId());
+        }
+        if (filter.getStartDate() != null) {
+            sql.append(" AND r.payment_date >= ?");
+            params.add(Date.valueOf(filter.getStartDate()));
+        }
+        if (filter.getEndDate() != null) {
+            sql.append(" AND r.payment_date <= ?");
+            params.add(Date.valueOf(filter.getEndDate()));
+        }
+    }
+
+    private static RepaymentReportDTO toRow(ResultSet rs) throws SQLException {
+        return new RepaymentReportDTO(
+                rs.getLong("loan_id"),
+                localDate(rs.getDate("due_date")),
+                localDate(rs.getDate("payment_date")),
+                rs.getBigDecimal("amount_paid"),
+                rs.getBigDecimal("rate_of_interest"),
+                rs.getBigDecimal("remaining_principal"),
+                rs.getBigDecimal("outstanding_interest")
+        );
+    }
+
+    private static LocalDate localDate(Date date) {
+        return (date != null) ? date.toLocalDate() : null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.entity.Loan;
+import com.corebank.coreb.entity.Repayment;
+import com.corebank.coreb.util.AmortizationEngine;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 🔹 Builds (does not persist) the repayment schedule of an approved loan
+ *
+ * Pure computation on the loan's original terms (principal, rate, tenure,
+ * start date, schedule method), safe to call from parallel threads; the same
+ * loan always yields the same installments, so lazy schedules can recompute
+ * rows that were never written. Persistence is left to RepaymentScheduleWriter.
+ */
+@Component
+public class RepaymentScheduleBuilder {
+
+    // FLAT → equal principal parts (default), EMI → equated monthly installments
+    @Value("${loan.schedule.method:FLAT}")
+    private String scheduleMethod;
+
+    /**
+     * 🔹 Method new schedules are built with (recorded on the loan at approval)
+     */
+    public String defaultMethod() {
+        return "EMI".equalsIgnoreCase(scheduleMethod) ? "EMI" : "FLAT";
+    }
+
+    /**
+     * 🔹 Installments 1..tenure starting one month after loan.startDate
+     */
+    public List<Repayment> build(Loan loan) {
+        int tenure = loan.getTenureMonths();
+        long monthlyRate = AmortizationEngine.monthlyRate(loan.getInterestRate());
+        String method = loan.getScheduleMethod() != null ? loan.getScheduleMethod() : defaultMethod();
+
+        // Original principal, not balancePrincipal: equal at approval, and payments must not move later rows
+        long principal = AmortizationEngine.toMinor(loan.getPrincipal());
+
+        // Whole schedule computed in paise on primitive arrays, converted once per row
+        AmortizationEngine.Schedule plan = plan(method, principal, tenure, monthlyRate);
+
+        LocalDate startDate = loan.getStartDate(); // ✅ use actual approval start date
+        List<Repayment> schedule = new ArrayList<>(tenure);
+
+        for (int i = 1; i <= tenure; i++) {
+            Repayment repayment = new Repayment();
+            repayment.setLoan(loan);
+            repayment.setCustomer(loan.getCustomer());
+            repayment.setDueDate(startDate.plusMonths(i));
+            repayment.setRateOfInterest(loan.getInterestRate());
+
+            repayment.setExpectedInterest(AmortizationEngine.fromMinor(plan.interest()[i - 1]));
+            repayment.setExpectedPrincipal(AmortizationEngine.fromMinor(plan.principal()[i - 1]));
+            repayment.setTotalDue(AmortizationEngine.fromMinor(plan.total(i - 1)));
+
+            repayment.setAmountPaid(BigDecimal.ZERO);
+            repayment.setPrincipalPaid(BigDecimal.ZERO);
+            repayment.setInterestPaid(BigDecimal.ZERO);
+            repayment.setRemainingPrincipal(AmortizationEngine.fromMinor(plan.openingBalance()[i - 1]));
+            repayment.setOutstandingInterest(BigDecimal.ZERO);
+            repayment.setStatus("UNPAID");
+            repayment.setBillingDone(false);
+
+            schedule.add(repayment);
+        }
+        return schedule;
+    }
+
+    /**
+     * 🔹 Installment amounts in paise for the given terms (no Repayment rows;
+     *    method null → default method), installment i falls due on startDate + i months
+     */
+    public AmortizationEngine.Schedule plan(String method, long principal, int tenure, long monthlyRate) {
+        String effective = method != null ? method : defaultMethod();
+        return "EMI".equalsIgnoreCase(effective)
+                ? AmortizationEngine.emiSchedule(principal, tenure, monthlyRate)
+                : AmortizationEngine.flat(principal, principal, tenure, monthlyRate);
+    }
+}
@@ -0,0 +1,86 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.entity.Repayment;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.sql.Types;
+import java.util.List;
+
+/**
+ * 🔹 Batched repayment schedule inserts
+ *
+ * repayment_id stays an IDENTITY column for JPA, but a whole schedule takes
+ * its ids from the column's backing sequence in one round trip and is then
+ * written as JDBC batches with explicit ids. Saving one entity per month
+ * costs one round trip per installment; this costs a handful per schedule.
+ * Rows are written outside the persistence context (PostgreSQL only).
+ */
+@Slf4j
+@Service
+public class RepaymentScheduleWriter {
+
+    private static final String ALLOCATE_IDS =
+            "SELECT nextval(pg_get_serial_sequence('repayment', 'repayment_id')) " +
+            "FROM generate_series(1, ?)";
+
+    private static final String INSERT_REPAYMENT =
+            "INSERT INTO repayment (repayment_id, loan_id, customer_id, due_date, payment_date, " +
+            "                       expected_principal, expected_interest, total_due, amount_paid, " +
+            "                       principal_paid, interest_paid, remaining_principal, outstanding_interest, " +
+            "                       rate_of_interest, status, receipt_number, billing_done, version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${loan.schedule.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * 🔹 Insert new installments (repaymentId null); ids are set on the given objects
+     */
+    public void insertSchedule(List<Repayment> schedule) {
+        if (schedule.isEmpty()) {
+            return;
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_IDS, Long.class, schedule.size());
+        for (int i = 0; i < schedule.size(); i++) {
+            schedule.get(i).setRepaymentId(ids.get(i));
+            schedule.get(i).setVersion(0L);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_REPAYMENT, schedule, batchSize, (ps, r) -> {
+            ps.setLong(1, r.getRepaymentId());
+            ps.setLong(2, r.getLoan().getLoanId());
+            ps.setLong(3, r.getCustomer().getCustomerId());
+            ps.setDate(4, Date.valueOf(r.getDueDate()));
+            ps.setDate(5, r.getPaymentDate() != null ? Date.valueOf(r.getPaymentDate()) : null);
+            ps.setBigDecimal(6, r.getExpectedPrincipal());
+            ps.setBigDecimal(7, r.getExpectedInterest());
+            ps.setBigDecimal(8, r.getTotalDue());
+            ps.setBigDecimal(9, r.getAmountPaid());
+            ps.setBigDecimal(10, r.getPrincipalPaid());
+            ps.setBigDecimal(11, r.getInterestPaid());
+            ps.setBigDecimal(12, r.getRemainingPrincipal());
+            ps.setBigDecimal(13, r.getOutstandingInterest());
+            ps.setBigDecimal(14, r.getRateOfInterest());
+            ps.setString(15, r.getStatus());
+            ps.setString(16, r.getReceiptNumber());
+            if (r.getBillingDone() != null) {
+                ps.setBoolean(17, r.getBillingDone());
+            } else {
+                ps.setNull(17, Types.BOOLEAN);
+            }
+        });
+
+        log.info("📅 Inserted {} installments in batches of {}", schedule.size(), batchSize);
+    }
+}
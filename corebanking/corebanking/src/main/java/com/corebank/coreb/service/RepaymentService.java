@@ -1,17 +1,19 @@
 package com.corebank.coreb.service;
 
 import com.corebank.coreb.dto.RepaymentReportDTO;
+import com.corebank.coreb.dto.RepaymentReportFilter;
 import com.corebank.coreb.entity.Loan;
 import com.corebank.coreb.entity.Repayment;
 import com.corebank.coreb.repository.LoanRepository;
 import com.corebank.coreb.repository.RepaymentRepository;
+import com.corebank.coreb.util.AmortizationEngine;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +25,8 @@ public class RepaymentService {
     private final RepaymentRepository repaymentRepository;
     private final LoanRepository loanRepository;
     private final SystemDateService systemDateService;
+    private final RepaymentMaterializer repaymentMaterializer;
+    private final RepaymentReportService repaymentReportService;
 
     // Inject new modern PDF service
     private final PdfReportService pdfReportService;
@@ -64,22 +68,22 @@ public class RepaymentService {
             throw new RuntimeException("Loan data missing for repayment");
         }
 
-        BigDecimal currentBalance = loan.getBalancePrincipal();
         LocalDate systemDate = systemDateService.getSystemDate();
 
-        // Calculate monthly interest
-        BigDecimal monthlyRate = loan.getInterestRate()
-                .divide(BigDecimal.valueOf(12 * 100), 10, RoundingMode.HALF_UP);
+        // Monthly interest and payment split in paise
+        long monthlyRate = AmortizationEngine.monthlyRate(loan.getInterestRate());
+        long currentBalance = AmortizationEngine.toMinor(loan.getBalancePrincipal());
+        long paid = AmortizationEngine.toMinor(amountPaid);
 
-        BigDecimal interestDue = currentBalance.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
-        BigDecimal interestPaid = amountPaid.min(interestDue);
-        BigDecimal principalPaid = amountPaid.subtract(interestPaid).max(BigDecimal.ZERO);
+        long interestDue = AmortizationEngine.periodInterest(currentBalance, monthlyRate);
+        long interestPaid = Math.min(paid, interestDue);
+        long principalPaid = Math.max(paid - interestPaid, 0L);
 
-        repayment.setAmountPaid(amountPaid.setScale(2, RoundingMode.HALF_UP));
-        repayment.setInterestPaid(interestPaid);
-        repayment.setPrincipalPaid(principalPaid);
-        repayment.setOutstandingInterest(interestDue.subtract(interestPaid).max(BigDecimal.ZERO));
-        repayment.setRemainingPrincipal(currentBalance.subtract(principalPaid).max(BigDecimal.ZERO));
+        repayment.setAmountPaid(AmortizationEngine.fromMinor(paid));
+        repayment.setInterestPaid(AmortizationEngine.fromMinor(interestPaid));
+        repayment.setPrincipalPaid(AmortizationEngine.fromMinor(principalPaid));
+        repayment.setOutstandingInterest(AmortizationEngine.fromMinor(Math.max(interestDue - interestPaid, 0L)));
+        repayment.setRemainingPrincipal(AmortizationEngine.fromMinor(Math.max(currentBalance - principalPaid, 0L)));
         repayment.setPaymentDate(systemDate);
 
         // Status update
@@ -101,6 +105,25 @@ public class RepaymentService {
         return repaymentRepository.save(repayment);
     }
 
+    // --------------------
+    // Pay by Installment Number (materializes lazy-schedule rows first)
+    // --------------------
+    public Repayment payInstallment(Long loanId, int installmentNo, BigDecimal amountPaid) {
+        Loan loan = loanRepository.findById(loanId)
+                .orElseThrow(() -> new RuntimeException("Loan not found"));
+
+        repaymentMaterializer.materializeThrough(loan, installmentNo, systemDateService.getSystemDate());
+
+        List<Repayment> installments = repaymentRepository.findByLoan_LoanIdOrderByDueDateAscRepaymentIdAsc(loanId)
+                .stream()
+                .filter(r -> !LoanPrepaymentService.STATUS_PREPAYMENT.equals(r.getStatus()))
+                .toList();
+        if (installmentNo < 1 || installmentNo > installments.size()) {
+            throw new RuntimeException("Installment not found");
+        }
+        return processPayment(installments.get(installmentNo - 1).getRepaymentId(), amountPaid);
+    }
+
     // --------------------
     // Update Repayment
     // --------------------
@@ -136,8 +159,15 @@ public class RepaymentService {
         return repaymentRepository.findAll();
     }
 
+    // Written rows in installment order, followed by the computed rows of a lazy schedule
     public List<Repayment> getRepaymentsByLoan(Long loanId) {
-        return repaymentRepository.findByLoan_LoanId(loanId);
+        List<Repayment> repayments = new ArrayList<>(
+                repaymentRepository.findByLoan_LoanIdOrderByDueDateAscRepaymentIdAsc(loanId));
+
+        loanRepository.findById(loanId)
+                .map(repaymentMaterializer::pendingInstallments)
+                .ifPresent(repayments::addAll);
+        return repayments;
     }
 
     // --------------------
@@ -155,29 +185,10 @@ public class RepaymentService {
     }
 
     // --------------------
-    // Generate Report (DATA ONLY)
+    // Generate Report (DATA ONLY; keyset-paged projection, filters combine)
     // --------------------
     public List<RepaymentReportDTO> generateReport(Long loanId, LocalDate startDate, LocalDate endDate) {
-
-        List<Repayment> repayments;
-
-        if (loanId != null) {
-            repayments = repaymentRepository.findByLoan_LoanId(loanId);
-        } else if (startDate != null && endDate != null) {
-            repayments = repaymentRepository.findByPaymentDateBetween(startDate, endDate);
-        } else {
-            repayments = repaymentRepository.findAll();
-        }
-
-        return repayments.stream().map(r -> new RepaymentReportDTO(
-                r.getLoan().getLoanId(),
-                r.getDueDate(),
-                r.getPaymentDate(),
-                r.getAmountPaid(),
-                r.getRateOfInterest(),
-                r.getRemainingPrincipal(),
-                r.getOutstandingInterest()
-        )).toList();
+        return repaymentReportService.report(new RepaymentReportFilter(loanId, null, startDate, endDate));
     }
 
     // --------------------
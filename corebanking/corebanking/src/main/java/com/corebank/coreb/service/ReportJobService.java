@@ -0,0 +1,258 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.ReportJobDTO;
+import com.corebank.coreb.dto.RepaymentReportFilter;
+import com.corebank.coreb.entity.ReportJob;
+import com.corebank.coreb.repository.ReportJobRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 🔹 Asynchronous report jobs
+ *
+ * A submitted report is recorded as a ReportJob, rendered on the bounded
+ * reportExecutor and written to local storage; clients poll the job and
+ * download the file once it is COMPLETED. Identical requests within the same
+ * system date reuse the queued, running or completed job instead of rendering
+ * again. Jobs of earlier system dates are purged after the retention period.
+ */
+@Slf4j
+@Service
+public class ReportJobService {
+
+    public static final String REPAYMENT_PDF = "REPAYMENT_PDF";
+
+    public static final String QUEUED = "QUEUED";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    @Autowired
+    private ReportJobRepository reportJobRepository;
+
+    @Autowired
+    private RepaymentReportService repaymentReportService;
+
+    @Autowired
+    private PdfReportService pdfReportService;
+
+    @Autowired
+    private SystemDateService systemDateService;
+
+    @Autowired
+    @Qualifier("reportExecutor")
+    private TaskExecutor reportExecutor;
+
+    @Value("${report.jobs.storage-dir:${java.io.tmpdir}/corebank-reports}")
+    private String storageDir;
+
+    @Value("${report.jobs.retention-days:7}")
+    private int retentionDays;
+
+    /**
+     * 🔹 Queue a repayment PDF, or return the job already covering the same request today
+     */
+    public synchronized ReportJobDTO submitRepaymentPdf(RepaymentReportFilter filter, String requestedBy) {
+
+        LocalDate systemDate = systemDateService.getSystemDate();
+        String cacheKey = cacheKey(REPAYMENT_PDF, filter);
+
+        Optional<ReportJob> existing = reportJobRepository.findFirstByCacheKeyAndSystemDateAndStatusInOrderByReportIdDesc(
+                cacheKey, systemDate, List.of(QUEUED, RUNNING, COMPLETED));
+        if (existing.isPresent() && artifactAvailable(existing.get())) {
+            log.info("♻️ Report {} reused for {}", existing.get().getReportId(), cacheKey);
+            return toDTO(existing.get(), true);
+        }
+
+        ReportJob job = new ReportJob();
+        job.setReportType(REPAYMENT_PDF);
+        job.setCacheKey(cacheKey);
+        job.setLoanId(filter.getLoanId());
+        job.setBranchId(filter.getBranchId());
+        job.setStartDate(filter.getStartDate());
+        job.setEndDate(filter.getEndDate());
+        job.setSystemDate(systemDate);
+        job.setStatus(QUEUED);
+        job.setRequestedBy(requestedBy);
+        job.setCreatedAt(LocalDateTime.now());
+        ReportJob saved = reportJobRepository.save(job);
+
+        try {
+            reportExecutor.execute(() -> render(saved.getReportId(), filter));
+        } catch (TaskRejectedException e) {
+            saved.setStatus(FAILED);
+            saved.setErrorMessage("Report queue is full");
+            saved.setFinishedAt(LocalDateTime.now());
+            reportJobRepository.save(saved);
+            throw new RuntimeException("Report queue is full; try again later");
+        }
+
+        log.info("🧾 Report {} queued: {}", saved.getReportId(), cacheKey);
+        return toDTO(saved, false);
+    }
+
+    /**
+     * 🔹 Current state of a report job
+     */
+    public ReportJobDTO getJob(Long reportId) {
+        return toDTO(findJob(reportId), false);
+    }
+
+    /**
+     * 🔹 Rendered file of a completed report job
+     */
+    public Path artifact(Long reportId) {
+        ReportJob job = findJob(reportId);
+        if (!COMPLETED.equals(job.getStatus())) {
+            throw new RuntimeException("Report " + reportId + " is not ready (" + job.getStatus() + ")");
+        }
+        Path file = Paths.get(job.getFilePath());
+        if (!Files.isRegularFile(file)) {
+            throw new RuntimeException("Report " + reportId + " is no longer available; submit it again");
+        }
+        return file;
+    }
+
+    // --------------------
+    // Rendering (report executor)
+    // --------------------
+
+    private void render(Long reportId, RepaymentReportFilter filter) {
+        ReportJob job = findJob(reportId);
+        job.setStatus(RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job = reportJobRepository.save(job);
+
+        Path target = Paths.get(storageDir, reportId + ".pdf");
+        Path partial = Paths.get(storageDir, reportId + ".pdf.part");
+        long[] rows = {0};
+
+        try {
+            Files.createDirectories(target.getParent());
+
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(partial))) {
+                pdfReportService.streamPdfReportModernBanking(out, job.getRequestedBy(),
+                        sink -> repaymentReportService.forEachPage(filter, page -> {
+                            rows[0] += page.size();
+                            sink.accept(page);
+                        }));
+            }
+            // Readers only ever see a complete file
+            Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+            job.setStatus(COMPLETED);
+            job.setFilePath(target.toString());
+            job.setFileSize(Files.size(target));
+            job.setRowCount(rows[0]);
+            log.info("✅ Report {} rendered: {} rows, {} bytes", reportId, rows[0], job.getFileSize());
+
+        } catch (Exception e) {
+            log.error("❌ Report {} failed: {}", reportId, e.getMessage());
+            job.setStatus(FAILED);
+            job.setErrorMessage(e.getMessage());
+            deleteQuietly(partial);
+
+        } finally {
+            job.setFinishedAt(LocalDateTime.now());
+            reportJobRepository.save(job);
+        }
+    }
+
+    // --------------------
+    // Housekeeping
+    // --------------------
+
+    /**
+     * 🔹 Jobs interrupted by a restart never finish: mark them failed so the next request renders again
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failInterruptedJobs() {
+        List<ReportJob> interrupted = reportJobRepository.findByStatusIn(List.of(QUEUED, RUNNING));
+        for (ReportJob job : interrupted) {
+            job.setStatus(FAILED);
+            job.setErrorMessage("Interrupted by application restart");
+            job.setFinishedAt(LocalDateTime.now());
+        }
+        if (!interrupted.isEmpty()) {
+            reportJobRepository.saveAll(interrupted);
+            log.warn("⚠️ {} report jobs interrupted by restart marked FAILED", interrupted.size());
+        }
+    }
+
+    /**
+     * 🔹 Remove jobs (and files) older than the retention period; returns jobs removed
+     */
+    public int purgeExpired() {
+        LocalDate cutoff = systemDateService.getSystemDate().minusDays(retentionDays);
+        List<ReportJob> expired = reportJobRepository.findBySystemDateBefore(cutoff);
+        for (ReportJob job : expired) {
+            if (job.getFilePath() != null) {
+                deleteQuietly(Paths.get(job.getFilePath()));
+            }
+        }
+        reportJobRepository.deleteAll(expired);
+        return expired.size();
+    }
+
+    // --------------------
+    // Helpers
+    // --------------------
+
+    private ReportJob findJob(Long reportId) {
+        return reportJobRepository.findById(reportId)
+                .orElseThrow(() -> new RuntimeException("Report job not found"));
+    }
+
+    // A completed job is only reusable while its file is still on disk
+    private boolean artifactAvailable(ReportJob job) {
+        return !COMPLETED.equals(job.getStatus())
+                || (job.getFilePath() != null && Files.isRegularFile(Paths.get(job.getFilePath())));
+    }
+
+    private static String cacheKey(String reportType, RepaymentReportFilter filter) {
+        return String.join("|", reportType,
+                Objects.toString(filter.getLoanId(), ""),
+                Objects.toString(filter.getBranchId(), ""),
+                Objects.toString(filter.getStartDate(), ""),
+                Objects.toString(filter.getEndDate(), ""));
+    }
+
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("⚠️ Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    private ReportJobDTO toDTO(ReportJob job, boolean cached) {
+        return new ReportJobDTO(
+                job.getReportId(), job.getReportType(), job.getStatus(), cached,
+                job.getLoanId(), job.getBranchId(), job.getStartDate(), job.getEndDate(), job.getSystemDate(),
+                job.getRowCount(), job.getFileSize(), job.getCreatedAt(), job.getFinishedAt(), job.getErrorMessage(),
+                COMPLETED.equals(job.getStatus()) ? "/api/repayments/report/jobs/" + job.getReportId() + "/download" : null
+        );
+    }
+}
@@ -0,0 +1,163 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.BillingDTO;
+import com.corebank.coreb.dto.BillingResponseDTO;
+
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * 🔹 Set-based billing engine
+ *
+ * Runs the BillingRules status / outstanding calculations as SQL expressions
+ * and bills the whole due set in one statement: the repayment UPDATE ... FROM
+ * and the billing INSERT ... SELECT share one data-modifying CTE and commit
+ * together. The UPDATE only matches rows still at the version read into the
+ * due set and are still unbilled, and only the rows it RETURNs are billed
+ * (and dequeued): a run overlapping another engine never bills a repayment
+ * twice, and a payment committed meanwhile is never overwritten with stale
+ * values (that row stays unbilled for the next run). PostgreSQL only.
+ * With billing.source=QUEUE the due set is read from (and removed from) billing_queue.
+ */
+@Slf4j
+@Service
+public class SqlBillingService {
+
+    // Parameters: billing date (OVERDUE rule), billing date (due filter), billing date (billing_date), remarks
+    private static final String SELECT_DUE =
+            "WITH due AS ( " +
+            "    SELECT r.repayment_id, r.loan_id, r.due_date, r.version, " +
+            "           COALESCE(r.expected_principal, 0) + COALESCE(r.expected_interest, 0) AS amount_due, " +
+            "           COALESCE(r.amount_paid, 0) AS amount_paid, " +
+            "           GREATEST(COALESCE(r.remaining_principal, 0) - COALESCE(r.principal_paid, 0), 0) AS remaining_principal, " +
+            "           GREATEST(COALESCE(r.expected_interest, 0) - COALESCE(r.interest_paid, 0), 0) AS outstanding_interest, " +
+            "           CASE " +
+            "               WHEN COALESCE(r.amount_paid, 0) >= COALESCE(r.expected_principal, 0) + COALESCE(r.expected_interest, 0) THEN 'PAID' " +
+            "               WHEN CAST(? AS date) > r.due_date THEN 'OVERDUE' " +
+            "               WHEN COALESCE(r.amount_paid, 0) > 0 THEN 'PARTIAL' " +
+            "               ELSE 'UNPAID' " +
+            "           END AS status ";
+
+    private static final String FROM_REPAYMENT =
+            "    FROM repayment r " +
+            "    WHERE r.billing_done = false AND r.due_date <= CAST(? AS date) " +
+            "), ";
+
+    // Queue source: bill queued rows only (consumed in the same statement by DEQUEUE_UPDATED)
+    private static final String FROM_QUEUE =
+            "    FROM billing_queue q JOIN repayment r ON r.repayment_id = q.repayment_id " +
+            "    WHERE r.billing_done = false AND q.due_date <= CAST(? AS date) " +
+            "), ";
+
+    // Re-checked on the current row (READ COMMITTED re-evaluates the WHERE after a concurrent commit):
+    // a row another engine billed, or a payment changed, since the due set was read is not updated
+    private static final String UPDATE_DUE =
+            "updated AS ( " +
+            "    UPDATE repayment r " +
+            "    SET remaining_principal = d.remaining_principal, " +
+            "        outstanding_interest = d.outstanding_interest, " +
+            "        status = d.status, " +
+            "        billing_done = true, " +
+            "        version = r.version + 1 " +
+            "    FROM due d " +
+            "    WHERE r.repayment_id = d.repayment_id AND r.billing_done = false AND r.version = d.version " +
+            "    RETURNING r.repayment_id " +
+            "), ";
+
+    // Queue source: consume only the rows billed here; skipped rows stay queued for the next run
+    private static final String DEQUEUE_UPDATED =
+            "dequeued AS ( " +
+            "    DELETE FROM billing_queue q USING updated u WHERE q.repayment_id = u.repayment_id " +
+            "), ";
+
+    private static final String BILL_UPDATED =
+            "billed AS ( " +
+            "    INSERT INTO billing (loan_id, repayment_id, billing_date, due_date, amount_due, " +
+            "                         amount_paid, status, billing_done, remarks) " +
+            "    SELECT d.loan_id, d.repayment_id, CAST(? AS date), d.due_date, d.amount_due, " +
+            "           d.amount_paid, d.status, true, ? " +
+            "    FROM due d JOIN updated u ON u.repayment_id = d.repayment_id " +
+            "    RETURNING billing_id, loan_id, repayment_id, billing_date, amount_due, amount_paid, status, remarks " +
+            ") " +
+            "SELECT * FROM billed ORDER BY repayment_id";
+
+    private static final String BILL_DUE_REPAYMENTS = SELECT_DUE + FROM_REPAYMENT + UPDATE_DUE + BILL_UPDATED;
+
+    private static final String BILL_QUEUED_REPAYMENTS = SELECT_DUE + FROM_QUEUE + UPDATE_DUE + DEQUEUE_UPDATED + BILL_UPDATED;
+
+    // Rows handed to a sink at a time while reading the RETURNING set
+    private static final int SINK_BATCH_SIZE = 1000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BillingQueueService billingQueueService;
+
+    /**
+     * 🔹 Bill every repayment due on or before the billing date in one statement
+     */
+    public BillingResponseDTO generateBilling(LocalDate billingDate) {
+        return generateBilling(billingDate, null);
+    }
+
+    /**
+     * 🔹 Same, handing the billed rows to a sink (may be null) in batches
+     *    instead of collecting them; billedRecords of the result stays null
+     */
+    public BillingResponseDTO generateBilling(LocalDate billingDate, Consumer<List<BillingDTO>> sink) {
+
+        String billingRemarks = "Auto-generated billing on system date: " + billingDate;
+        Date date = Date.valueOf(billingDate);
+
+        List<BillingDTO> billingRecords = new ArrayList<>();
+        int[] processedCount = {0};
+
+        jdbcTemplate.query(
+                billingQueueService.isEnabled() ? BILL_QUEUED_REPAYMENTS : BILL_DUE_REPAYMENTS,
+                rs -> {
+                    billingRecords.add(new BillingDTO(
+                            rs.getLong("billing_id"),
+                            rs.getLong("loan_id"),
+                            rs.getLong("repayment_id"),
+                            rs.getDate("billing_date").toLocalDate(),
+                            rs.getBigDecimal("amount_due"),
+                            rs.getBigDecimal("amount_paid"),
+                            rs.getString("status"),
+                            rs.getString("remarks")
+                    ));
+                    processedCount[0]++;
+
+                    if (sink != null && billingRecords.size() >= SINK_BATCH_SIZE) {
+                        sink.accept(List.copyOf(billingRecords));
+                        billingRecords.clear();
+                    }
+                },
+                date, date, date, billingRemarks
+        );
+
+        if (sink != null && !billingRecords.isEmpty()) {
+            sink.accept(List.copyOf(billingRecords));
+            billingRecords.clear();
+        }
+
+        String remarks = processedCount[0] == 0
+                ? "ℹ️ No repayments found for billing date: " + billingDate
+                : "✅ Billing completed successfully for " + processedCount[0] +
+                  " repayments (System Date: " + billingDate + ")";
+        log.info(remarks);
+
+        return new BillingResponseDTO(
+                billingDate, processedCount[0], remarks, sink != null ? null : billingRecords, 0, 0
+        );
+    }
+}
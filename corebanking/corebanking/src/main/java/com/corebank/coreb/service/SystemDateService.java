@@ -2,6 +2,7 @@ package com.corebank.coreb.service;
 
 import com.corebank.coreb.entity.SystemDate;
 import com.corebank.coreb.repository.SystemDateRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -13,6 +14,12 @@ public class SystemDateService {
     @Autowired
     private SystemDateRepository systemDateRepository;
 
+    @Autowired
+    private BillingQueueService billingQueueService;
+
+    @Autowired
+    private RepaymentMaterializer repaymentMaterializer;
+
     public LocalDate getSystemDate() {
         return systemDateRepository.findAll()
                 .stream()
@@ -21,16 +28,23 @@ public class SystemDateService {
                 .orElse(LocalDate.now()); // fallback if empty
     }
 
+    @Transactional
     public void updateSystemDate(LocalDate newDate, String updatedBy) {
         SystemDate systemDate = systemDateRepository.findAll()
                 .stream()
                 .findFirst()
                 .orElse(new SystemDate());
 
+        LocalDate previousDate = systemDate.getCurrentDate();
+
         systemDate.setCurrentDate(newDate);
         systemDate.setUpdatedBy(updatedBy);
         systemDate.setUpdatedAt(LocalDate.now());
 
         systemDateRepository.save(systemDate);
+
+        // Lazy schedules get rows for installments that fell due, then those become billing work
+        repaymentMaterializer.materializeDue(newDate);
+        billingQueueService.enqueueBecameDue(previousDate, newDate);
     }
 }
@@ -0,0 +1,269 @@
+package com.corebank.coreb.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * 🔹 Amortization kernel on long minor units (paise)
+ *
+ * Amounts are paise, monthly rates are scaled by 10^10: the same 10-decimal
+ * HALF_UP rate (annual % / 1200) the BigDecimal code used, so every period
+ * matches the BigDecimal result to the paisa. All rounding is HALF_UP (ties
+ * away from zero, negatives symmetric). Nothing is allocated per period.
+ *
+ * Rounding rules:
+ *   interest   = round(balance × monthlyRate / 10^10)
+ *   FLAT       principal per period = round(principal / tenure)
+ *   EMI        smallest whole-paise installment that repays the loan within
+ *              the tenure under the interest rule; the last installment
+ *              clears the remaining balance (it is never above the EMI)
+ */
+public final class AmortizationEngine {
+
+    public static final long RATE_SCALE = 10_000_000_000L; // 10^10
+
+    private static final BigDecimal PERCENT_PER_MONTH = BigDecimal.valueOf(1200);
+
+    private AmortizationEngine() {
+    }
+
+    /**
+     * 🔹 Installments as parallel arrays; openingBalance[i] is the principal
+     *    outstanding before installment i (Repayment.remainingPrincipal)
+     */
+    public record Schedule(long[] openingBalance, long[] principal, long[] interest) {
+
+        public int periods() {
+            return principal.length;
+        }
+
+        public long total(int period) {
+            return principal[period] + interest[period];
+        }
+    }
+
+    // --------------------
+    // Rates and conversions
+    // --------------------
+
+    /**
+     * 🔹 Monthly rate ×10^10 from an annual percentage (12.50 → 0.0104166667)
+     */
+    public static long monthlyRate(BigDecimal annualRatePercent) {
+        if (annualRatePercent == null) {
+            return 0L;
+        }
+        return annualRatePercent.divide(PERCENT_PER_MONTH, 10, RoundingMode.HALF_UP)
+                .unscaledValue()
+                .longValueExact();
+    }
+
+    /**
+     * 🔹 Monthly rate ×10^10 from an annual rate in basis points (1250 → 12.50 %)
+     */
+    public static long monthlyRateFromBasisPoints(long annualBasisPoints) {
+        // bps / 120000 × 10^10 = bps × 250000 / 3
+        return divHalfUp(Math.multiplyExact(annualBasisPoints, 250_000L), 3L);
+    }
+
+    public static long toMinor(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal fromMinor(long minor) {
+        return BigDecimal.valueOf(minor, 2);
+    }
+
+    // --------------------
+    // Per-period rules
+    // --------------------
+
+    /**
+     * 🔹 Interest for one month on the given balance
+     */
+    public static long periodInterest(long balance, long monthlyRate) {
+        return mulDivHalfUp(balance, monthlyRate, RATE_SCALE);
+    }
+
+    // --------------------
+    // Schedules
+    // --------------------
+
+    /**
+     * 🔹 Flat principal: equal principal parts, interest on the declining balance
+     */
+    public static Schedule flat(long principal, long openingBalance, int tenure, long monthlyRate) {
+        long[] opening = new long[tenure];
+        long[] principalParts = new long[tenure];
+        long[] interest = new long[tenure];
+
+        long principalDue = divHalfUp(principal, tenure);
+        long balance = openingBalance;
+
+        for (int i = 0; i < tenure; i++) {
+            opening[i] = balance;
+            principalParts[i] = principalDue;
+            interest[i] = periodInterest(balance, monthlyRate);
+            balance -= principalDue;
+        }
+        return new Schedule(opening, principalParts, interest);
+    }
+
+    /**
+     * 🔹 Equated monthly installment (annuity) for the given principal and tenure
+     */
+    public static long emi(long principal, int tenure, long monthlyRate) {
+        if (principal <= 0 || tenure <= 0) {
+            return 0L;
+        }
+
+        // Zero interest needs ceil(P / n); interest on the full principal every month is always enough
+        long low = (principal + tenure - 1) / tenure;
+        long high = low + periodInterest(principal, monthlyRate);
+
+        while (low < high) {
+            long mid = low + (high - low) / 2;
+            if (repaysWithin(principal, tenure, monthlyRate, mid)) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 🔹 EMI schedule: fixed installment, last one clears the balance
+     */
+    public static Schedule emiSchedule(long principal, int tenure, long monthlyRate) {
+        return emiSchedule(principal, tenure, monthlyRate, emi(principal, tenure, monthlyRate));
+    }
+
+    /**
+     * 🔹 Schedule for a given installment (e.g. an EMI kept after a prepayment)
+     */
+    public static Schedule emiSchedule(long principal, int tenure, long monthlyRate, long installment) {
+        long[] opening = new long[tenure];
+        long[] principalParts = new long[tenure];
+        long[] interest = new long[tenure];
+
+        long balance = principal;
+        for (int i = 0; i < tenure; i++) {
+            opening[i] = balance;
+            interest[i] = periodInterest(balance, monthlyRate);
+
+            long principalPart = installment - interest[i];
+            if (i == tenure - 1 || principalPart > balance) {
+                principalPart = balance;
+            }
+            principalParts[i] = principalPart;
+            balance -= principalPart;
+        }
+        return new Schedule(opening, principalParts, interest);
+    }
+
+    /**
+     * 🔹 Fixed principal part per period (flat schedule kept after a prepayment);
+     *    the last period clears the remaining balance
+     */
+    public static Schedule fixedPrincipal(long principal, int tenure, long principalPart, long monthlyRate) {
+        long[] opening = new long[tenure];
+        long[] principalParts = new long[tenure];
+        long[] interest = new long[tenure];
+
+        long balance = principal;
+        for (int i = 0; i < tenure; i++) {
+            opening[i] = balance;
+            interest[i] = periodInterest(balance, monthlyRate);
+
+            long part = (i == tenure - 1) ? balance : Math.min(principalPart, balance);
+            principalParts[i] = part;
+            balance -= part;
+        }
+        return new Schedule(opening, principalParts, interest);
+    }
+
+    /**
+     * 🔹 Periods the installment needs to repay the principal, capped at maxPeriods
+     */
+    public static int periodsToRepay(long principal, long monthlyRate, long installment, int maxPeriods) {
+        long balance = principal;
+        int periods = 0;
+        while (balance > 0 && periods < maxPeriods) {
+            balance = balance + periodInterest(balance, monthlyRate) - installment;
+            periods++;
+        }
+        return periods;
+    }
+
+    /**
+     * 🔹 Whether the installment pays the principal off within the tenure
+     */
+    public static boolean repaysWithin(long principal, int tenure, long monthlyRate, long installment) {
+        long balance = principal;
+        for (int i = 0; i < tenure && balance > 0; i++) {
+            balance = balance + periodInterest(balance, monthlyRate) - installment;
+        }
+        return balance <= 0;
+    }
+
+    // --------------------
+    // Exact integer arithmetic
+    // --------------------
+
+    /**
+     * 🔹 a / divisor rounded HALF_UP (divisor > 0)
+     */
+    public static long divHalfUp(long a, long divisor) {
+        long q = a / divisor;
+        long r = Math.abs(a % divisor);
+        if (r >= divisor - r) {
+            q += (a < 0) ? -1 : 1;
+        }
+        return q;
+    }
+
+    /**
+     * 🔹 a × b / divisor rounded HALF_UP, exact over the full 128-bit product
+     *    (0 < divisor < 2^62; ArithmeticException if the result overflows)
+     */
+    public static long mulDivHalfUp(long a, long b, long divisor) {
+        boolean negative = (a < 0) != (b < 0);
+        long x = Math.abs(a);
+        long y = Math.abs(b);
+
+        long hi = Math.multiplyHigh(x, y);
+        long lo = x * y;
+
+        long q;
+        long r;
+        if (hi == 0 && lo >= 0) {
+            q = lo / divisor;
+            r = lo % divisor;
+        } else {
+            // Product above 2^63: shift-subtract long division over the 128 bits
+            q = 0;
+            r = 0;
+            for (int bit = 127; bit >= 0; bit--) {
+                long next = (bit >= 64) ? (hi >>> (bit - 64)) & 1L : (lo >>> bit) & 1L;
+                r = (r << 1) | next;
+                if (q >= (1L << 62)) {
+                    throw new ArithmeticException("long overflow in mulDivHalfUp");
+                }
+                q <<= 1;
+                if (r >= divisor) {
+                    r -= divisor;
+                    q |= 1L;
+                }
+            }
+        }
+
+        if (r >= divisor - r) {
+            q++;
+        }
+        return negative ? -q : q;
+    }
+}
@@ -0,0 +1,72 @@
+package com.corebank.coreb.util;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 🔹 Billing rules shared by every billing engine (JPA, chunked, ...)
+ */
+public final class BillingRules {
+
+    public static final String STATUS_PAID = "PAID";
+    public static final String STATUS_OVERDUE = "OVERDUE";
+    public static final String STATUS_PARTIAL = "PARTIAL";
+    public static final String STATUS_UNPAID = "UNPAID";
+
+    // Index order used by resolveStatusIndex (array-based aggregation)
+    public static final String[] STATUSES = {STATUS_PAID, STATUS_OVERDUE, STATUS_PARTIAL, STATUS_UNPAID};
+
+    private BillingRules() {
+    }
+
+    /**
+     * 🔹 Status of an installment as of the billing date
+     */
+    public static String resolveStatus(BigDecimal amountPaid, BigDecimal totalDue,
+                                       LocalDate billingDate, LocalDate dueDate) {
+        if (amountPaid.compareTo(totalDue) >= 0) {
+            return STATUS_PAID;
+        } else if (billingDate.isAfter(dueDate)) {
+            return STATUS_OVERDUE;
+        } else if (amountPaid.compareTo(BigDecimal.ZERO) > 0) {
+            return STATUS_PARTIAL;
+        }
+        return STATUS_UNPAID;
+    }
+
+    /**
+     * 🔹 Same rule on primitive columns: amounts in paise, dates as epoch days;
+     *    returns an index into STATUSES
+     */
+    public static int resolveStatusIndex(long amountPaid, long totalDue, long billingDay, long dueDay) {
+        if (amountPaid >= totalDue) {
+            return 0;
+        } else if (billingDay > dueDay) {
+            return 1;
+        } else if (amountPaid > 0) {
+            return 2;
+        }
+        return 3;
+    }
+
+    /**
+     * 🔹 Principal still open after what was paid against this installment
+     */
+    public static BigDecimal remainingPrincipal(BigDecimal remainingPrincipal, BigDecimal principalPaid) {
+        return remainingPrincipal.subtract(principalPaid).max(BigDecimal.ZERO);
+    }
+
+    /**
+     * 🔹 Interest of this installment not yet covered by payments
+     */
+    public static BigDecimal outstandingInterest(BigDecimal expectedInterest, BigDecimal interestPaid) {
+        return expectedInterest.subtract(interestPaid).max(BigDecimal.ZERO);
+    }
+
+    /**
+     * 🔹 Safe BigDecimal (prevents null pointer)
+     */
+    public static BigDecimal safe(BigDecimal value) {
+        return value != null ? value : BigDecimal.ZERO;
+    }
+}
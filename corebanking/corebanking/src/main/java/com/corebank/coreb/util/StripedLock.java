@@ -0,0 +1,44 @@
+package com.corebank.coreb.util;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 🔹 Fixed set of locks shared by key hash
+ *
+ * Work on the same key always takes the same lock; different keys only
+ * contend when they land on the same stripe, so memory stays bounded no
+ * matter how many keys exist.
+ */
+public final class StripedLock {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripes minimum number of locks (rounded up to a power of two)
+     */
+    public StripedLock(int stripes) {
+        int size = 1;
+        while (size < stripes) {
+            size <<= 1;
+        }
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    /**
+     * 🔹 Lock guarding the given key
+     */
+    public ReentrantLock forKey(long key) {
+        // Fibonacci hashing: spreads sequential ids across the stripes
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash >>> 32) & mask];
+    }
+
+    public int size() {
+        return stripes.length;
+    }
+}
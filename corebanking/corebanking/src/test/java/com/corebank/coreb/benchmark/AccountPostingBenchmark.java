@@ -0,0 +1,119 @@
+package com.corebank.coreb.benchmark;
+
+import com.corebank.coreb.CorebankingApplication;
+import com.corebank.coreb.entity.Deposit;
+import com.corebank.coreb.repository.AccountRepository;
+import com.corebank.coreb.service.AccountService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Many tellers posting to one account at once, over an H2 database
+ * (profile "benchmark").
+ *
+ * All benchmark threads post to the same account:
+ * - deposit: one deposit per call
+ * - depositAndWithdraw: a deposit then a withdrawal of the same amount
+ *
+ * With hot=true the account is in hot mode: deposits land on balance
+ * buckets, and withdrawals fold the buckets when the balance row falls short.
+ *
+ * After every iteration the balance (buckets included) must equal the
+ * opening balance plus every counted deposit. A lost update fails the run.
+ * The score is postings per second across all threads.
+ *
+ * Run: mvn -Pbenchmark -DskipTests verify -Djmh.includes=AccountPostingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(32)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class AccountPostingBenchmark {
+
+    private static final BigDecimal OPENING_BALANCE = new BigDecimal("1000.00");
+
+    private static final BigDecimal AMOUNT = new BigDecimal("1.25");
+
+    @Param({"false", "true"})
+    public boolean hot;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private AccountRepository accountRepository;
+    private BillingDataSeeder seeder;
+    private Long accountId;
+
+    private final AtomicLong deposits = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(CorebankingApplication.class)
+                .profiles("benchmark")
+                .run();
+
+        accountService = context.getBean(AccountService.class);
+        accountRepository = context.getBean(AccountRepository.class);
+        seeder = new BillingDataSeeder(context);
+        accountId = seeder.seedAccount(OPENING_BALANCE);
+        if (hot) {
+            accountService.setHotMode(accountId, true);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBalance() {
+        seeder.resetBalance(accountId, OPENING_BALANCE);
+        seeder.resetBuckets(accountId);
+        deposits.set(0);
+    }
+
+    @Benchmark
+    public Deposit deposit() {
+        Deposit deposit = accountService.deposit(accountId, AMOUNT);
+        deposits.incrementAndGet();
+        return deposit;
+    }
+
+    @Benchmark
+    public Deposit depositAndWithdraw() {
+        accountService.deposit(accountId, AMOUNT);
+        return accountService.withdraw(accountId, AMOUNT);
+    }
+
+    @TearDown(Level.Iteration)
+    public void verifyBalance() {
+        BigDecimal expected = OPENING_BALANCE.add(AMOUNT.multiply(BigDecimal.valueOf(deposits.get())));
+        BigDecimal actual = accountService.getBalance(accountRepository.findById(accountId).orElseThrow());
+
+        if (actual.compareTo(expected) != 0) {
+            throw new IllegalStateException("Balance " + actual + ", expected " + expected + " (lost updates)");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+}
@@ -0,0 +1,70 @@
+package com.corebank.coreb.benchmark;
+
+import com.corebank.coreb.util.AmortizationEngine;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schedule computation only (no persistence): the BigDecimal loop
+ * LoanService used before versus the long-paise AmortizationEngine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AmortizationBenchmark {
+
+    @Param({"12", "120", "360"})
+    public int tenure;
+
+    private BigDecimal principal;
+    private BigDecimal rate;
+
+    @Setup
+    public void setUp() {
+        principal = new BigDecimal("4567890.12");
+        rate = new BigDecimal("8.65");
+    }
+
+    @Benchmark
+    public void flatBigDecimal(Blackhole blackhole) {
+        BigDecimal monthlyRate = rate.divide(BigDecimal.valueOf(12 * 100), 10, RoundingMode.HALF_UP);
+        BigDecimal remaining = principal;
+
+        for (int i = 1; i <= tenure; i++) {
+            BigDecimal interestDue = remaining.multiply(monthlyRate).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal principalDue = principal.divide(BigDecimal.valueOf(tenure), 2, RoundingMode.HALF_UP);
+            blackhole.consume(principalDue.add(interestDue));
+            remaining = remaining.subtract(principalDue);
+        }
+    }
+
+    @Benchmark
+    public AmortizationEngine.Schedule flatLong() {
+        long paise = AmortizationEngine.toMinor(principal);
+        return AmortizationEngine.flat(paise, paise, tenure, AmortizationEngine.monthlyRate(rate));
+    }
+
+    @Benchmark
+    public AmortizationEngine.Schedule emiLong() {
+        return AmortizationEngine.emiSchedule(
+                AmortizationEngine.toMinor(principal), tenure, AmortizationEngine.monthlyRate(rate));
+    }
+}
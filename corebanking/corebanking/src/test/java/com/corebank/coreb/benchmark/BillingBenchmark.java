@@ -0,0 +1,85 @@
+package com.corebank.coreb.benchmark;
+
+import com.corebank.coreb.CorebankingApplication;
+import com.corebank.coreb.dto.BillingResponseDTO;
+import com.corebank.coreb.enums.BillingMode;
+import com.corebank.coreb.service.BillingExecutionService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end billing run over a seeded H2 database (profile "benchmark").
+ *
+ * Each invocation bills loans × 12 repayments from scratch; the score is the
+ * latency of one full run, so throughput is repayments / score. Heap
+ * behaviour comes from the gc profiler (gc.alloc.rate.norm = bytes per run).
+ * The SQL engine is PostgreSQL-only and is not part of this suite.
+ *
+ * Run: mvn -Pbenchmark -DskipTests verify
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class BillingBenchmark {
+
+    @Param({"500", "2000", "8000"})
+    public int loans;
+
+    @Param({"JPA", "CHUNKED", "PARTITIONED"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private BillingExecutionService billingExecutionService;
+    private BillingDataSeeder seeder;
+    private int repayments;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(CorebankingApplication.class)
+                .profiles("benchmark")
+                .run();
+
+        billingExecutionService = context.getBean(BillingExecutionService.class);
+        seeder = new BillingDataSeeder(context);
+        repayments = seeder.seed(loans);
+    }
+
+    @Setup(Level.Invocation)
+    public void resetBilling() {
+        seeder.resetBilling();
+    }
+
+    @Benchmark
+    public BillingResponseDTO generateBilling() {
+        BillingResponseDTO result = billingExecutionService.generateBilling(null, BillingMode.valueOf(mode));
+
+        if (result.getProcessedCount() != repayments) {
+            throw new IllegalStateException("Billed " + result.getProcessedCount() + " of " + repayments + " repayments");
+        }
+        return result;
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+}
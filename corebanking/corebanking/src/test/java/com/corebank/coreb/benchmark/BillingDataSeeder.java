@@ -0,0 +1,308 @@
+package com.corebank.coreb.benchmark;
+
+import com.corebank.coreb.entity.Account;
+import com.corebank.coreb.entity.Branch;
+import com.corebank.coreb.entity.Customer;
+import com.corebank.coreb.entity.Loan;
+import com.corebank.coreb.entity.Repayment;
+import com.corebank.coreb.entity.SystemDate;
+import com.corebank.coreb.repository.AccountRepository;
+import com.corebank.coreb.repository.BranchRepository;
+import com.corebank.coreb.repository.CustomerRepository;
+import com.corebank.coreb.repository.LoanRepository;
+import com.corebank.coreb.repository.RepaymentRepository;
+import com.corebank.coreb.repository.SystemDateRepository;
+import com.corebank.coreb.service.RepaymentScheduleBuilder;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Seeds synthetic branches, customers, loans and repayment schedules through
+ * the regular entities and repositories. Every installment is due on or
+ * before {@link #SYSTEM_DATE}, so one billing run bills the whole set.
+ */
+public class BillingDataSeeder {
+
+    public static final LocalDate SYSTEM_DATE = LocalDate.of(2025, 6, 30);
+
+    public static final int INSTALLMENTS_PER_LOAN = 12;
+
+    private static final int BRANCHES = 8;
+
+    private final AccountRepository accountRepository;
+    private final BranchRepository branchRepository;
+    private final CustomerRepository customerRepository;
+    private final LoanRepository loanRepository;
+    private final RepaymentRepository repaymentRepository;
+    private final SystemDateRepository systemDateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final RepaymentScheduleBuilder repaymentScheduleBuilder;
+
+    public BillingDataSeeder(ApplicationContext context) {
+        this.accountRepository = context.getBean(AccountRepository.class);
+        this.branchRepository = context.getBean(BranchRepository.class);
+        this.customerRepository = context.getBean(CustomerRepository.class);
+        this.loanRepository = context.getBean(LoanRepository.class);
+        this.repaymentRepository = context.getBean(RepaymentRepository.class);
+        this.systemDateRepository = context.getBean(SystemDateRepository.class);
+        this.jdbcTemplate = context.getBean(JdbcTemplate.class);
+        this.repaymentScheduleBuilder = context.getBean(RepaymentScheduleBuilder.class);
+    }
+
+    /**
+     * Seed one loan (with a full schedule) per customer; returns the number of repayments.
+     */
+    public int seed(int loans) {
+        saveSystemDate();
+
+        List<Branch> branches = new ArrayList<>();
+        for (int b = 1; b <= BRANCHES; b++) {
+            Branch branch = new Branch();
+            branch.setName("Benchmark Branch " + b);
+            branches.add(branch);
+        }
+        branches = branchRepository.saveAll(branches);
+
+        LocalDate startDate = SYSTEM_DATE.minusMonths(INSTALLMENTS_PER_LOAN);
+        int repayments = 0;
+
+        for (int i = 0; i < loans; i++) {
+            Branch branch = branches.get(i % BRANCHES);
+
+            Customer customer = new Customer();
+            customer.setFirstName("Bench");
+            customer.setLastName("Customer " + i);
+            customer.setEmail("bench-" + i + "@benchmark.local");
+            customer.setStatus("Active");
+            customer.setBranch(branch);
+            customer = customerRepository.save(customer);
+
+            BigDecimal principal = BigDecimal.valueOf(12_000L + (i % 50) * 1_000L);
+
+            Loan loan = new Loan();
+            loan.setLoanNo(String.format("BENCH%08d", i));
+            loan.setCustomer(customer);
+            loan.setBranch(branch);
+            loan.setLoanType("Personal");
+            loan.setPrincipal(principal);
+            loan.setBalancePrincipal(principal);
+            loan.setInterestRate(new BigDecimal("12.00"));
+            loan.setTenureMonths(INSTALLMENTS_PER_LOAN);
+            loan.setStartDate(startDate);
+            loan.setMaturityDate(startDate.plusMonths(INSTALLMENTS_PER_LOAN));
+            loan.setStatus("Active");
+            loan = loanRepository.save(loan);
+
+            repaymentRepository.saveAll(schedule(loan, customer, i));
+            repayments += INSTALLMENTS_PER_LOAN;
+        }
+        return repayments;
+    }
+
+    /**
+     * Seed active loans approved one month before {@link #SYSTEM_DATE} with the
+     * regular schedule builder (every installment but the first still open);
+     * returns the loan ids.
+     */
+    public List<Long> seedAmortizingLoans(int loans, int tenureMonths, String scheduleMethod) {
+        saveSystemDate();
+
+        Branch branch = new Branch();
+        branch.setName("Benchmark Branch");
+        branch = branchRepository.save(branch);
+
+        LocalDate startDate = SYSTEM_DATE.minusMonths(1);
+        List<Long> loanIds = new ArrayList<>(loans);
+
+        for (int i = 0; i < loans; i++) {
+            Customer customer = new Customer();
+            customer.setFirstName("Bench");
+            customer.setLastName("Borrower " + i);
+            customer.setEmail("bench-borrower-" + i + "@benchmark.local");
+            customer.setStatus("Active");
+            customer.setBranch(branch);
+            customer = customerRepository.save(customer);
+
+            BigDecimal principal = BigDecimal.valueOf(5_000_000L + (i % 50) * 10_000L);
+
+            Loan loan = new Loan();
+            loan.setLoanNo(String.format("BENCHLT%08d", i));
+            loan.setCustomer(customer);
+            loan.setBranch(branch);
+            loan.setLoanType("Home");
+            loan.setPrincipal(principal);
+            loan.setBalancePrincipal(principal);
+            loan.setInterestRate(new BigDecimal("8.50"));
+            loan.setTenureMonths(tenureMonths);
+            loan.setStartDate(startDate);
+            loan.setMaturityDate(startDate.plusMonths(tenureMonths));
+            loan.setStatus("Active");
+            loan.setScheduleMode("EAGER");
+            loan.setScheduleMethod(scheduleMethod);
+            loan.setMaterializedInstallments(tenureMonths);
+            loan = loanRepository.save(loan);
+
+            repaymentRepository.saveAll(repaymentScheduleBuilder.build(loan));
+            loanIds.add(loan.getLoanId());
+        }
+        return loanIds;
+    }
+
+    /**
+     * Bulk-seed about {@code repayments} repayment rows (12 per loan) spread over
+     * the benchmark branches with INSERT ... SELECT, bypassing the entities so
+     * millions of rows load in seconds; returns the branch ids.
+     */
+    public List<Long> seedBulkRepayments(int repayments) {
+        saveSystemDate();
+
+        int loansPerBranch = Math.max(1, repayments / INSTALLMENTS_PER_LOAN / BRANCHES);
+        LocalDate startDate = SYSTEM_DATE.minusMonths(INSTALLMENTS_PER_LOAN);
+        List<Long> branchIds = new ArrayList<>(BRANCHES);
+
+        for (int b = 1; b <= BRANCHES; b++) {
+            Branch branch = new Branch();
+            branch.setName("Benchmark Branch " + b);
+            branch = branchRepository.save(branch);
+
+            Customer customer = new Customer();
+            customer.setFirstName("Bench");
+            customer.setLastName("Branch Customer " + b);
+            customer.setEmail("bench-branch-" + b + "@benchmark.local");
+            customer.setStatus("Active");
+            customer.setBranch(branch);
+            customer = customerRepository.save(customer);
+
+            jdbcTemplate.update(
+                    "INSERT INTO loan (loan_no, customer_id, branch_id, loan_type, principal, balance_principal, " +
+                    "                  interest_rate, tenure_months, start_date, maturity_date, status, version) " +
+                    "SELECT 'BULK' || ? || '-' || x, ?, ?, 'Personal', 12000.00, 12000.00, " +
+                    "       12.00, ?, ?, ?, 'Active', 0 " +
+                    "FROM SYSTEM_RANGE(1, ?)",
+                    b, customer.getCustomerId(), branch.getBranchId(),
+                    INSTALLMENTS_PER_LOAN, startDate, startDate.plusMonths(INSTALLMENTS_PER_LOAN), loansPerBranch);
+
+            // Every third installment paid on its due date, the rest open
+            jdbcTemplate.update(
+                    "INSERT INTO repayment (loan_id, customer_id, due_date, payment_date, expected_principal, " +
+                    "                       expected_interest, total_due, amount_paid, principal_paid, interest_paid, " +
+                    "                       remaining_principal, outstanding_interest, rate_of_interest, status, " +
+                    "                       billing_done, version) " +
+                    "SELECT l.loan_id, l.customer_id, DATEADD(MONTH, n.x, l.start_date), " +
+                    "       CASE WHEN MOD(l.loan_id + n.x, 3) = 0 THEN DATEADD(MONTH, n.x, l.start_date) END, " +
+                    "       1000.00, 120.00, 1120.00, " +
+                    "       CASE WHEN MOD(l.loan_id + n.x, 3) = 0 THEN 1120.00 ELSE 0 END, 0, 0, " +
+                    "       12000.00 - 1000.00 * n.x, 0, 12.00, " +
+                    "       CASE WHEN MOD(l.loan_id + n.x, 3) = 0 THEN 'PAID' ELSE 'UNPAID' END, false, 0 " +
+                    "FROM loan l CROSS JOIN SYSTEM_RANGE(1, ?) n " +
+                    "WHERE l.branch_id = ?",
+                    INSTALLMENTS_PER_LOAN, branch.getBranchId());
+
+            branchIds.add(branch.getBranchId());
+        }
+        return branchIds;
+    }
+
+    /**
+     * Seed one active current account with the given opening balance; returns its id.
+     */
+    public Long seedAccount(BigDecimal openingBalance) {
+        saveSystemDate();
+
+        Branch branch = new Branch();
+        branch.setName("Benchmark Branch");
+        branch = branchRepository.save(branch);
+
+        Customer customer = new Customer();
+        customer.setFirstName("Bench");
+        customer.setLastName("Account Holder");
+        customer.setEmail("bench-account@benchmark.local");
+        customer.setStatus("Active");
+        customer.setBranch(branch);
+        customer = customerRepository.save(customer);
+
+        Account account = new Account();
+        account.setCustomer(customer);
+        account.setBranch(branch);
+        account.setAccountType("CURRENT");
+        account.setBalance(openingBalance);
+        account.setStatus("Active");
+        return accountRepository.save(account).getAccountId();
+    }
+
+    /**
+     * Reset an account's balance between measurement iterations.
+     */
+    public void resetBalance(Long accountId, BigDecimal balance) {
+        jdbcTemplate.update("UPDATE account SET balance = ? WHERE account_id = ?", balance, accountId);
+    }
+
+    /**
+     * Empty a hot account's balance buckets between measurement iterations.
+     */
+    public void resetBuckets(Long accountId) {
+        jdbcTemplate.update("UPDATE account_balance_bucket SET balance = 0 WHERE account_id = ?", accountId);
+    }
+
+    /**
+     * Undo a billing run so the next invocation bills the same rows again.
+     */
+    public void resetBilling() {
+        jdbcTemplate.update("DELETE FROM billing");
+        jdbcTemplate.update("UPDATE repayment SET billing_done = false, status = 'UNPAID'");
+    }
+
+    private void saveSystemDate() {
+        SystemDate systemDate = new SystemDate();
+        systemDate.setCurrentDate(SYSTEM_DATE);
+        systemDate.setUpdatedAt(SYSTEM_DATE);
+        systemDate.setUpdatedBy("BENCHMARK");
+        systemDateRepository.save(systemDate);
+    }
+
+    // Mix of paid, partly paid and unpaid installments so every status branch is exercised
+    private List<Repayment> schedule(Loan loan, Customer customer, int seed) {
+        BigDecimal principalDue = loan.getPrincipal()
+                .divide(BigDecimal.valueOf(INSTALLMENTS_PER_LOAN), 2, RoundingMode.HALF_UP);
+        BigDecimal remaining = loan.getPrincipal();
+
+        List<Repayment> schedule = new ArrayList<>(INSTALLMENTS_PER_LOAN);
+        for (int n = 1; n <= INSTALLMENTS_PER_LOAN; n++) {
+            BigDecimal interestDue = remaining.multiply(new BigDecimal("0.01")).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal totalDue = principalDue.add(interestDue);
+
+            BigDecimal paid = switch ((seed + n) % 3) {
+                case 0 -> totalDue;
+                case 1 -> totalDue.divide(BigDecimal.valueOf(2), 2, RoundingMode.HALF_UP);
+                default -> BigDecimal.ZERO;
+            };
+
+            Repayment repayment = new Repayment();
+            repayment.setLoan(loan);
+            repayment.setCustomer(customer);
+            repayment.setDueDate(loan.getStartDate().plusMonths(n));
+            repayment.setRateOfInterest(loan.getInterestRate());
+            repayment.setExpectedPrincipal(principalDue);
+            repayment.setExpectedInterest(interestDue);
+            repayment.setTotalDue(totalDue);
+            repayment.setAmountPaid(paid);
+            repayment.setPrincipalPaid(BigDecimal.ZERO);
+            repayment.setInterestPaid(BigDecimal.ZERO);
+            repayment.setRemainingPrincipal(remaining);
+            repayment.setOutstandingInterest(BigDecimal.ZERO);
+            repayment.setStatus("UNPAID");
+            repayment.setBillingDone(false);
+            schedule.add(repayment);
+
+            remaining = remaining.subtract(principalDue);
+        }
+        return schedule;
+    }
+}
@@ -0,0 +1,99 @@
+package com.corebank.coreb.benchmark;
+
+import com.corebank.coreb.CorebankingApplication;
+import com.corebank.coreb.dto.RepaymentReportFilter;
+import com.corebank.coreb.entity.Repayment;
+import com.corebank.coreb.repository.RepaymentRepository;
+import com.corebank.coreb.service.RepaymentReportService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Branch repayment report over a bulk-seeded H2 database (profile "benchmark").
+ *
+ * Each invocation reads every repayment of one branch (1/8 of the rows):
+ * - findAllFallback: repaymentRepository.findAll() filtered by branch in
+ *   Java, the only way to get a branch report before the branch query worked
+ * - branchQuery: repaymentRepository.findByBranchId (entities, one query)
+ * - branchProjection: RepaymentReportService keyset pages over the branch's
+ *   loans, as used by the report and PDF endpoints
+ *
+ * The score is the latency of one full branch report. The default sizes fit
+ * the 8g heap. For the 10M-row comparison add "10000000" to the repayments
+ * values and raise -Xmx (H2 keeps the table in heap); findAllFallback is
+ * expected to run out of memory at that size.
+ *
+ * Run: mvn -Pbenchmark -DskipTests verify -Djmh.includes=BranchReportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class BranchReportBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int repayments;
+
+    private ConfigurableApplicationContext context;
+    private RepaymentRepository repaymentRepository;
+    private RepaymentReportService repaymentReportService;
+    private Long branchId;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(CorebankingApplication.class)
+                .profiles("benchmark")
+                .run();
+
+        repaymentRepository = context.getBean(RepaymentRepository.class);
+        repaymentReportService = context.getBean(RepaymentReportService.class);
+
+        List<Long> branchIds = new BillingDataSeeder(context).seedBulkRepayments(repayments);
+        branchId = branchIds.get(branchIds.size() / 2);
+    }
+
+    @Benchmark
+    public long findAllFallback() {
+        return repaymentRepository.findAll().stream()
+                .filter(r -> branchId.equals(r.getLoan().getBranch().getBranchId()))
+                .count();
+    }
+
+    @Benchmark
+    public long branchQuery() {
+        List<Repayment> rows = repaymentRepository.findByBranchId(branchId);
+        return rows.size();
+    }
+
+    @Benchmark
+    public long branchProjection() {
+        long[] rows = {0};
+        repaymentReportService.forEachPage(new RepaymentReportFilter(null, branchId, null, null),
+                page -> rows[0] += page.size());
+        return rows[0];
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+}
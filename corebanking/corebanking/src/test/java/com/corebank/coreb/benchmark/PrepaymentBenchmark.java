@@ -0,0 +1,84 @@
+package com.corebank.coreb.benchmark;
+
+import com.corebank.coreb.CorebankingApplication;
+import com.corebank.coreb.dto.PrepaymentResultDTO;
+import com.corebank.coreb.enums.PrepaymentMode;
+import com.corebank.coreb.service.LoanPrepaymentService;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Prepayment on 30-year loans (360 installments, 359 still open) over a
+ * seeded H2 database (profile "benchmark").
+ *
+ * Each invocation prepays a small amount on the next loan in turn, so every
+ * call re-amortizes a tail of up to 359 rows: one projection read, one batched
+ * UPDATE and (REDUCE_TENURE) the occasional batched DELETE. The score is the
+ * latency of one prepayment.
+ *
+ * Run: mvn -Pbenchmark -DskipTests verify -Djmh.includes=PrepaymentBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class PrepaymentBenchmark {
+
+    private static final int TENURE_MONTHS = 360;
+
+    private static final int LOANS = 100;
+
+    private static final BigDecimal AMOUNT = new BigDecimal("500.00");
+
+    @Param({"FLAT", "EMI"})
+    public String method;
+
+    @Param({"REDUCE_EMI", "REDUCE_TENURE"})
+    public String mode;
+
+    private ConfigurableApplicationContext context;
+    private LoanPrepaymentService loanPrepaymentService;
+    private List<Long> loanIds;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(CorebankingApplication.class)
+                .profiles("benchmark")
+                .run();
+
+        loanPrepaymentService = context.getBean(LoanPrepaymentService.class);
+        loanIds = new BillingDataSeeder(context).seedAmortizingLoans(LOANS, TENURE_MONTHS, method);
+    }
+
+    @Benchmark
+    public PrepaymentResultDTO prepay() {
+        Long loanId = loanIds.get(next++ % loanIds.size());
+        return loanPrepaymentService.prepay(loanId, AMOUNT, PrepaymentMode.valueOf(mode));
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+}
@@ -0,0 +1,161 @@
+package com.corebank.coreb.service;
+
+import com.corebank.coreb.dto.BillingDTO;
+import com.corebank.coreb.dto.BillingResponseDTO;
+import com.corebank.coreb.entity.Branch;
+import com.corebank.coreb.entity.Customer;
+import com.corebank.coreb.entity.Loan;
+import com.corebank.coreb.entity.Repayment;
+import com.corebank.coreb.repository.BranchRepository;
+import com.corebank.coreb.repository.CustomerRepository;
+import com.corebank.coreb.repository.LoanRepository;
+import com.corebank.coreb.repository.RepaymentRepository;
+
+import jakarta.persistence.EntityManager;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the JPA engine and the set-based SQL engine over identical loans and
+ * checks they produce the same billing rows and repayment updates.
+ * Everything runs in one test transaction and is rolled back afterwards.
+ */
+@SpringBootTest
+@Transactional
+class BillingEngineEquivalenceTest {
+
+    // expectedPrincipal, expectedInterest, amountPaid, principalPaid, interestPaid, remainingPrincipal, days before billing date
+    private static final String[][] INSTALLMENTS = {
+            {"1000.00", "125.00", "0.00",    "0.00",    "0.00",   "12000.00", "40"},  // OVERDUE, nothing paid
+            {"1000.00", "115.00", "1115.00", "1000.00", "115.00", "11000.00", "10"},  // PAID
+            {"1000.00", "105.00", "500.00",  "395.00",  "105.00", "10000.00", "0"},   // PARTIAL, due today
+            {"1000.00", "95.00",  "0.00",    "0.00",    "0.00",   "9000.00",  "0"},   // UNPAID, due today
+            {"1000.00", "85.00",  "200.00",  "115.00",  "85.00",  "8000.00",  "5"},   // OVERDUE, partly paid
+            {"1000.00", "75.00",  "0.00",    "0.00",    "0.00",   "7000.00",  "-30"}, // not yet due
+    };
+
+    @Autowired
+    private BillingService billingService;
+
+    @Autowired
+    private SqlBillingService sqlBillingService;
+
+    @Autowired
+    private SystemDateService systemDateService;
+
+    @Autowired
+    private BranchRepository branchRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private LoanRepository loanRepository;
+
+    @Autowired
+    private RepaymentRepository repaymentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void sqlEngineMatchesJpaEngine() {
+        LocalDate billingDate = systemDateService.getSystemDate();
+
+        Loan jpaLoan = seedLoan(billingDate);
+        entityManager.flush();
+        BillingResponseDTO jpaResult = billingService.generateBilling();
+        entityManager.flush();
+        entityManager.clear();
+
+        Loan sqlLoan = seedLoan(billingDate);
+        entityManager.flush();
+        BillingResponseDTO sqlResult = sqlBillingService.generateBilling(billingDate);
+
+        assertEquals(countFor(jpaResult, jpaLoan), countFor(sqlResult, sqlLoan));
+        assertEquals(billingRows(jpaLoan), billingRows(sqlLoan));
+        assertEquals(repaymentRows(jpaLoan), repaymentRows(sqlLoan));
+    }
+
+    private Loan seedLoan(LocalDate billingDate) {
+        Branch branch = new Branch();
+        branch.setName("Equivalence Test Branch");
+        branch = branchRepository.save(branch);
+
+        Customer customer = new Customer();
+        customer.setFirstName("Billing");
+        customer.setLastName("Equivalence");
+        customer.setEmail("billing-eq-" + UUID.randomUUID() + "@test.local");
+        customer.setBranch(branch);
+        customer = customerRepository.save(customer);
+
+        Loan loan = new Loan();
+        loan.setCustomer(customer);
+        loan.setBranch(branch);
+        loan.setLoanType("Personal");
+        loan.setPrincipal(new BigDecimal("12000.00"));
+        loan.setBalancePrincipal(new BigDecimal("12000.00"));
+        loan.setInterestRate(new BigDecimal("12.00"));
+        loan.setTenureMonths(INSTALLMENTS.length);
+        loan.setStartDate(billingDate.minusMonths(2));
+        loan.setMaturityDate(billingDate.plusMonths(INSTALLMENTS.length));
+        loan.setStatus("Active");
+        loan = loanRepository.save(loan);
+
+        for (String[] row : INSTALLMENTS) {
+            Repayment repayment = new Repayment();
+            repayment.setLoan(loan);
+            repayment.setCustomer(customer);
+            repayment.setExpectedPrincipal(new BigDecimal(row[0]));
+            repayment.setExpectedInterest(new BigDecimal(row[1]));
+            repayment.setTotalDue(new BigDecimal(row[0]).add(new BigDecimal(row[1])));
+            repayment.setAmountPaid(new BigDecimal(row[2]));
+            repayment.setPrincipalPaid(new BigDecimal(row[3]));
+            repayment.setInterestPaid(new BigDecimal(row[4]));
+            repayment.setRemainingPrincipal(new BigDecimal(row[5]));
+            repayment.setOutstandingInterest(BigDecimal.ZERO);
+            repayment.setDueDate(billingDate.minusDays(Long.parseLong(row[6])));
+            repayment.setRateOfInterest(loan.getInterestRate());
+            repayment.setStatus("UNPAID");
+            repayment.setBillingDone(false);
+            repaymentRepository.save(repayment);
+        }
+        return loan;
+    }
+
+    private long countFor(BillingResponseDTO result, Loan loan) {
+        return result.getBilledRecords().stream()
+                .map(BillingDTO::getLoanId)
+                .filter(loan.getLoanId()::equals)
+                .count();
+    }
+
+    private List<Map<String, Object>> billingRows(Loan loan) {
+        return jdbcTemplate.queryForList(
+                "SELECT due_date, amount_due, amount_paid, status, billing_done, remarks " +
+                "FROM billing WHERE loan_id = ? ORDER BY due_date, repayment_id",
+                loan.getLoanId());
+    }
+
+    private List<Map<String, Object>> repaymentRows(Loan loan) {
+        return jdbcTemplate.queryForList(
+                "SELECT due_date, remaining_principal, outstanding_interest, status, billing_done " +
+                "FROM repayment WHERE loan_id = ? ORDER BY due_date, repayment_id",
+                loan.getLoanId());
+    }
+}
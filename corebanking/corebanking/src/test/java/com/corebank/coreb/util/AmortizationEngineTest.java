@@ -0,0 +1,178 @@
+package com.corebank.coreb.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Property tests: the long-paise kernel against the BigDecimal arithmetic it
+ * replaces, over randomly generated loans (fixed seed, so failures reproduce).
+ */
+class AmortizationEngineTest {
+
+    private static final int CASES = 5_000;
+
+    @Test
+    void flatScheduleMatchesBigDecimalToThePaisa() {
+        Random random = new Random(20251018L);
+
+        for (int n = 0; n < CASES; n++) {
+            BigDecimal principal = randomAmount(random);
+            BigDecimal rate = randomRate(random);
+            int tenure = 1 + random.nextInt(480);
+
+            long monthlyRate = AmortizationEngine.monthlyRate(rate);
+            AmortizationEngine.Schedule schedule = AmortizationEngine.flat(
+                    AmortizationEngine.toMinor(principal), AmortizationEngine.toMinor(principal), tenure, monthlyRate);
+
+            // Reference: the BigDecimal loop LoanService.generateRepayments used before
+            BigDecimal bigMonthlyRate = rate.divide(BigDecimal.valueOf(12 * 100), 10, RoundingMode.HALF_UP);
+            BigDecimal remaining = principal;
+            for (int i = 0; i < tenure; i++) {
+                BigDecimal interestDue = remaining.multiply(bigMonthlyRate).setScale(2, RoundingMode.HALF_UP);
+                BigDecimal principalDue = principal.divide(BigDecimal.valueOf(tenure), 2, RoundingMode.HALF_UP);
+
+                String context = principal + " @ " + rate + "% x " + tenure + ", period " + (i + 1);
+                assertEquals(AmortizationEngine.toMinor(remaining), schedule.openingBalance()[i], context);
+                assertEquals(AmortizationEngine.toMinor(principalDue), schedule.principal()[i], context);
+                assertEquals(AmortizationEngine.toMinor(interestDue), schedule.interest()[i], context);
+
+                remaining = remaining.subtract(principalDue);
+            }
+        }
+    }
+
+    @Test
+    void periodInterestMatchesBigDecimalToThePaisa() {
+        Random random = new Random(7L);
+
+        for (int n = 0; n < CASES * 10; n++) {
+            BigDecimal balance = randomAmount(random);
+            BigDecimal rate = randomRate(random);
+
+            BigDecimal expected = balance
+                    .multiply(rate.divide(BigDecimal.valueOf(12 * 100), 10, RoundingMode.HALF_UP))
+                    .setScale(2, RoundingMode.HALF_UP);
+
+            long actual = AmortizationEngine.periodInterest(
+                    AmortizationEngine.toMinor(balance), AmortizationEngine.monthlyRate(rate));
+
+            assertEquals(AmortizationEngine.toMinor(expected), actual, balance + " @ " + rate + "%");
+        }
+    }
+
+    @Test
+    void emiScheduleRepaysExactlyWithTheSmallestInstallment() {
+        Random random = new Random(42L);
+
+        for (int n = 0; n < CASES; n++) {
+            long principal = AmortizationEngine.toMinor(randomAmount(random));
+            long monthlyRate = AmortizationEngine.monthlyRate(randomRate(random));
+            int tenure = 1 + random.nextInt(480);
+
+            long emi = AmortizationEngine.emi(principal, tenure, monthlyRate);
+            AmortizationEngine.Schedule schedule = AmortizationEngine.emiSchedule(principal, tenure, monthlyRate, emi);
+
+            String context = principal + " paise @ " + monthlyRate + " x " + tenure;
+            assertTrue(AmortizationEngine.repaysWithin(principal, tenure, monthlyRate, emi), context);
+            assertFalse(AmortizationEngine.repaysWithin(principal, tenure, monthlyRate, emi - 1), context);
+
+            long repaid = 0;
+            for (int i = 0; i < tenure; i++) {
+                assertTrue(schedule.total(i) <= emi, context + ", period " + (i + 1));
+                repaid += schedule.principal()[i];
+            }
+            assertEquals(principal, repaid, context);
+            assertEquals(0L, schedule.openingBalance()[tenure - 1] - schedule.principal()[tenure - 1], context);
+        }
+    }
+
+    @Test
+    void reducedTenureSchedulesRepayThePrepaidBalance() {
+        Random random = new Random(360L);
+
+        for (int n = 0; n < CASES; n++) {
+            long principal = AmortizationEngine.toMinor(randomAmount(random));
+            long monthlyRate = AmortizationEngine.monthlyRate(randomRate(random));
+            int tenure = 1 + random.nextInt(480);
+            long balance = 1 + (long) (random.nextDouble() * (principal - 1));
+            String context = balance + " of " + principal + " paise @ " + monthlyRate + " x " + tenure;
+
+            // EMI kept: fewest periods, no installment above the old EMI
+            long emi = AmortizationEngine.emi(principal, tenure, monthlyRate);
+            int periods = AmortizationEngine.periodsToRepay(balance, monthlyRate, emi, tenure);
+            AmortizationEngine.Schedule emiPlan = AmortizationEngine.emiSchedule(balance, periods, monthlyRate, emi);
+
+            assertTrue(periods >= 1 && periods <= tenure, context);
+            assertTrue(AmortizationEngine.repaysWithin(balance, periods, monthlyRate, emi), context);
+            assertFalse(AmortizationEngine.repaysWithin(balance, periods - 1, monthlyRate, emi), context);
+            assertRepays(balance, emiPlan, emi, context);
+
+            // Flat principal part kept: ceil(balance / part) periods
+            long part = AmortizationEngine.divHalfUp(principal, tenure);
+            int flatPeriods = (int) Math.min(tenure, (balance + part - 1) / part);
+            AmortizationEngine.Schedule flatPlan = AmortizationEngine.fixedPrincipal(balance, flatPeriods, part, monthlyRate);
+
+            long repaid = 0;
+            for (int i = 0; i < flatPeriods; i++) {
+                repaid += flatPlan.principal()[i];
+            }
+            assertEquals(balance, repaid, context);
+        }
+    }
+
+    @Test
+    void mulDivIsExactBeyondLongRangeAndRoundsHalfUp() {
+        Random random = new Random(99L);
+
+        for (int n = 0; n < CASES * 10; n++) {
+            long a = random.nextLong() >> random.nextInt(40);
+            long b = random.nextLong() >>> (24 + random.nextInt(30));
+            long divisor = AmortizationEngine.RATE_SCALE;
+
+            BigDecimal expected = BigDecimal.valueOf(a).multiply(BigDecimal.valueOf(b))
+                    .divide(BigDecimal.valueOf(divisor), 0, RoundingMode.HALF_UP);
+            if (expected.toBigInteger().bitLength() > 62) {
+                continue;
+            }
+            assertEquals(expected.longValueExact(), AmortizationEngine.mulDivHalfUp(a, b, divisor), a + " * " + b);
+        }
+
+        assertEquals(2L, AmortizationEngine.divHalfUp(15L, 10L));
+        assertEquals(-2L, AmortizationEngine.divHalfUp(-15L, 10L));
+        assertEquals(1L, AmortizationEngine.divHalfUp(14L, 10L));
+    }
+
+    @Test
+    void basisPointRateMatchesPercentRate() {
+        for (long bps = 0; bps <= 10_000; bps++) {
+            assertEquals(AmortizationEngine.monthlyRate(BigDecimal.valueOf(bps, 2)),
+                    AmortizationEngine.monthlyRateFromBasisPoints(bps), bps + " bps");
+        }
+    }
+
+    private static void assertRepays(long principal, AmortizationEngine.Schedule schedule, long installment, String context) {
+        long repaid = 0;
+        for (int i = 0; i < schedule.periods(); i++) {
+            assertTrue(schedule.total(i) <= installment, context + ", period " + (i + 1));
+            repaid += schedule.principal()[i];
+        }
+        assertEquals(principal, repaid, context);
+    }
+
+    // 1,000.00 .. 50,000,000.00
+    private static BigDecimal randomAmount(Random random) {
+        return BigDecimal.valueOf(100_000L + (long) (random.nextDouble() * 5_000_000_000L), 2);
+    }
+
+    // 0.00 .. 36.00 %
+    private static BigDecimal randomRate(Random random) {
+        return BigDecimal.valueOf(random.nextInt(3_601), 2);
+    }
+}